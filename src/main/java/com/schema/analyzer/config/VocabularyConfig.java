@@ -0,0 +1,35 @@
+package com.schema.analyzer.config;
+
+import com.schema.analyzer.model.Vocabulary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Configuration of the word lists used by the naming heuristics.
+ * The built-in vocabulary can be extended with domain terms from the file named by
+ * {@code schema.analyzer.vocabulary.file}, in the format of {@code vocabulary.properties}.
+ */
+@Configuration
+@Slf4j
+public class VocabularyConfig {
+
+    @Bean
+    public Vocabulary vocabulary(@Value("${schema.analyzer.vocabulary.file:}") String file) throws IOException {
+        Vocabulary vocabulary = Vocabulary.defaults();
+        if (file.isBlank()) {
+            return vocabulary;
+        }
+        log.info("Loading additional vocabulary from {}", file);
+        try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            return vocabulary.extendedWith(Vocabulary.load(reader));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.schema.analyzer.controller;
+
+import com.schema.analyzer.model.NormalizationForm;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response containing the highest normalization form a schema achieves, null if not even 1NF.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckResponse {
+    private NormalizationForm achievedForm;
+}
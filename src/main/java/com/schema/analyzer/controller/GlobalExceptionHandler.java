@@ -1,6 +1,8 @@
 package com.schema.analyzer.controller;
 
+import com.schema.analyzer.service.AnalysisTimeoutException;
 import com.schema.analyzer.service.SchemaAnalysisException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -19,6 +21,23 @@ import javax.validation.ConstraintViolationException;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final String maxFileSize;
+
+    public GlobalExceptionHandler(@Value("${spring.servlet.multipart.max-file-size:1MB}") String maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * Handles requests whose time budget ran out before a result could be given.
+     */
+    @ExceptionHandler(AnalysisTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleAnalysisTimeoutException(AnalysisTimeoutException ex) {
+        log.error("Schema analysis timed out: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(new ErrorResponse(ex.getMessage()));
+    }
+
     /**
      * Handles schema analysis exceptions.
      */
@@ -49,7 +68,7 @@ public class GlobalExceptionHandler {
         log.error("File size exceeded: {}", ex.getMessage());
         return ResponseEntity
             .status(HttpStatus.PAYLOAD_TOO_LARGE)
-            .body(new ErrorResponse("File size exceeds the maximum allowed limit (5MB)"));
+            .body(new ErrorResponse("File size exceeds the maximum allowed limit (" + maxFileSize + ")"));
     }
 
     /**
@@ -0,0 +1,17 @@
+package com.schema.analyzer.controller;
+
+import com.schema.analyzer.model.NormalizationForm;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response describing a normalization rule that can be selected per request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleResponse {
+    private String id;
+    private NormalizationForm form;
+}
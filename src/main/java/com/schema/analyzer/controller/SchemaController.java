@@ -1,33 +1,63 @@
 package com.schema.analyzer.controller;
 
 import com.schema.analyzer.model.AnalysisResult;
+import com.schema.analyzer.model.NormalizationForm;
+import com.schema.analyzer.service.AnalysisTimeoutException;
 import com.schema.analyzer.service.NormalizationService;
+import com.schema.analyzer.service.RuleSelection;
 import com.schema.analyzer.service.SchemaAnalysisException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 /**
  * REST controller for schema analysis.
  */
 @RestController
 @RequestMapping("/schemas")
+@Slf4j
 public class SchemaController {
 
+    /**
+     * Media type for raw SQL request bodies.
+     */
+    public static final String APPLICATION_SQL_VALUE = "application/sql";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private final NormalizationService normalizationService;
+    private final int maxBodySizeMb;
 
+    /**
+     * @param maxBodySizeMb Largest raw request body accepted, measured after decompression
+     */
     @Autowired
-    public SchemaController(NormalizationService normalizationService) {
+    public SchemaController(NormalizationService normalizationService,
+                            @Value("${schema.analyzer.max-body-size-mb:1024}") int maxBodySizeMb) {
         this.normalizationService = normalizationService;
+        this.maxBodySizeMb = maxBodySizeMb;
     }
 
     /**
@@ -38,13 +68,24 @@ public class SchemaController {
         return ResponseEntity.ok("API is working!");
     }
 
+    /**
+     * Lists the normalization rules that requests can select with {@code rules} and {@code skipRules}.
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<List<RuleResponse>> listRules() {
+        return ResponseEntity.ok(normalizationService.getRules().stream()
+                .map(rule -> new RuleResponse(rule.getId(), rule.getForm()))
+                .collect(Collectors.toList()));
+    }
+
     /**
      * Analyzes a SQL schema provided as a string.
      */
     @PostMapping("/analyze")
     public ResponseEntity<?> analyzeSchema(@RequestBody @Valid SchemaRequest request) {
         try {
-            AnalysisResult result = normalizationService.analyzeSchema(request.getSqlScript());
+            AnalysisResult result = normalizationService.analyzeSchema(request.getSqlScript(),
+                    RuleSelection.of(request.getRules(), request.getSkipRules()));
             return ResponseEntity.ok(result);
         } catch (SchemaAnalysisException e) {
             return ResponseEntity
@@ -57,17 +98,126 @@ public class SchemaController {
         }
     }
 
+    /**
+     * Analyzes a SQL schema sent as a raw request body ({@code application/sql} or {@code text/plain}),
+     * optionally gzip-compressed ({@code Content-Encoding: gzip}).
+     * The body is parsed statement by statement as it is received and is never copied in full.
+     */
+    @PostMapping(value = "/analyze", consumes = {APPLICATION_SQL_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> analyzeSchemaStream(HttpServletRequest request,
+                                                 @RequestParam(value = "rules", required = false) List<String> rules,
+                                                 @RequestParam(value = "skipRules", required = false) List<String> skipRules) {
+        try {
+            AnalysisResult result = normalizationService.analyzeSchema(openRequestBody(request),
+                    RuleSelection.of(rules, skipRules));
+            return ResponseEntity.ok(result);
+        } catch (UnsupportedEncodingException e) {
+            return ResponseEntity
+                    .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            if (exceedsBodySize(e)) {
+                return bodyTooLarge();
+            }
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Error reading request body: " + e.getMessage()));
+        } catch (SchemaAnalysisException e) {
+            if (exceedsBodySize(e)) {
+                return bodyTooLarge();
+            }
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("An unexpected error occurred: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Determines the highest normalization form a SQL schema achieves, without reporting its issues.
+     * Each form is checked only up to its first critical issue, so this is cheaper than {@code /analyze}.
+     * If the time budget runs out before the form is decided, responds 503 rather than guessing.
+     */
+    @PostMapping("/check")
+    public ResponseEntity<?> checkSchema(@RequestBody @Valid SchemaRequest request) {
+        try {
+            NormalizationForm achievedForm = normalizationService.checkSchema(request.getSqlScript(),
+                    RuleSelection.of(request.getRules(), request.getSkipRules()));
+            return ResponseEntity.ok(new CheckResponse(achievedForm));
+        } catch (AnalysisTimeoutException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (SchemaAnalysisException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("An unexpected error occurred: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Determines the highest normalization form of a SQL schema sent as a raw request body,
+     * as {@link #analyzeSchemaStream} receives it.
+     */
+    @PostMapping(value = "/check", consumes = {APPLICATION_SQL_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> checkSchemaStream(HttpServletRequest request,
+                                               @RequestParam(value = "rules", required = false) List<String> rules,
+                                               @RequestParam(value = "skipRules", required = false) List<String> skipRules) {
+        try {
+            NormalizationForm achievedForm = normalizationService.checkSchema(openRequestBody(request),
+                    RuleSelection.of(rules, skipRules));
+            return ResponseEntity.ok(new CheckResponse(achievedForm));
+        } catch (AnalysisTimeoutException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (UnsupportedEncodingException e) {
+            return ResponseEntity
+                    .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            if (exceedsBodySize(e)) {
+                return bodyTooLarge();
+            }
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Error reading request body: " + e.getMessage()));
+        } catch (SchemaAnalysisException e) {
+            if (exceedsBodySize(e)) {
+                return bodyTooLarge();
+            }
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("An unexpected error occurred: " + e.getMessage()));
+        }
+    }
+
     /**
      * Analyzes a SQL schema provided as a file upload.
+     * The upload is spooled to a temporary file and scanned from there, so large dumps
+     * are never held in memory.
      */
     @PostMapping("/analyze-file")
-    public ResponseEntity<?> analyzeSchemaFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> analyzeSchemaFile(@RequestParam("file") MultipartFile file,
+                                               @RequestParam(value = "rules", required = false) List<String> rules,
+                                               @RequestParam(value = "skipRules", required = false) List<String> skipRules) {
+        Path spooledFile = null;
         try {
-            // Read file content
-            String sqlScript = readFileContent(file);
+            spooledFile = spoolToTempFile(file);
             
             // Analyze the schema
-            AnalysisResult result = normalizationService.analyzeSchema(sqlScript);
+            AnalysisResult result = normalizationService.analyzeSchema(spooledFile, RuleSelection.of(rules, skipRules));
             return ResponseEntity.ok(result);
         } catch (IOException e) {
             return ResponseEntity
@@ -81,6 +231,8 @@ public class SchemaController {
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("An unexpected error occurred: " + e.getMessage()));
+        } finally {
+            deleteTempFile(spooledFile);
         }
     }
 
@@ -91,7 +243,8 @@ public class SchemaController {
     public ResponseEntity<?> generateImprovement(@RequestBody @Valid SchemaRequest request) {
         try {
             // First, analyze the schema
-            AnalysisResult result = normalizationService.analyzeSchema(request.getSqlScript());
+            AnalysisResult result = normalizationService.analyzeSchema(request.getSqlScript(),
+                    RuleSelection.of(request.getRules(), request.getSkipRules()));
             
             // Then, generate improvement SQL
             String improvementSql = normalizationService.generateImprovementSql(result);
@@ -109,12 +262,117 @@ public class SchemaController {
     }
 
     /**
-     * Reads content from a multipart file upload.
+     * Generates improvement SQL for a schema sent as a raw, optionally gzip-compressed, request body.
+     */
+    @PostMapping(value = "/generate-improvement", consumes = {APPLICATION_SQL_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> generateImprovementStream(HttpServletRequest request,
+                                                       @RequestParam(value = "rules", required = false) List<String> rules,
+                                                       @RequestParam(value = "skipRules", required = false) List<String> skipRules) {
+        try {
+            AnalysisResult result = normalizationService.analyzeSchema(openRequestBody(request),
+                    RuleSelection.of(rules, skipRules));
+            String improvementSql = normalizationService.generateImprovementSql(result);
+            
+            return ResponseEntity.ok(new ImprovementResponse(improvementSql));
+        } catch (UnsupportedEncodingException e) {
+            return ResponseEntity
+                    .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            if (exceedsBodySize(e)) {
+                return bodyTooLarge();
+            }
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Error reading request body: " + e.getMessage()));
+        } catch (SchemaAnalysisException e) {
+            if (exceedsBodySize(e)) {
+                return bodyTooLarge();
+            }
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("An unexpected error occurred: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Opens the request body as a character stream, decompressing it if it is gzip-encoded.
+     * The request charset is honoured and defaults to UTF-8. Reading more than the maximum
+     * body size, after decompression, fails with {@link SizeLimitedInputStream.LimitExceededException}.
+     */
+    private Reader openRequestBody(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        String encoding = contentEncoding != null ? contentEncoding.trim().toLowerCase(Locale.ROOT) : "";
+        if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+            body = new GZIPInputStream(body, GZIP_BUFFER_SIZE);
+        } else if (!encoding.isEmpty() && !encoding.equals("identity")) {
+            throw new UnsupportedEncodingException("Unsupported content encoding: " + contentEncoding);
+        }
+        body = new SizeLimitedInputStream(body, maxBodySizeMb * 1024L * 1024L);
+
+        String charsetName = request.getCharacterEncoding();
+        if (charsetName == null) {
+            return new InputStreamReader(body, StandardCharsets.UTF_8);
+        }
+        try {
+            return new InputStreamReader(body, Charset.forName(charsetName));
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedEncodingException("Unsupported charset: " + charsetName);
+        }
+    }
+
+    /**
+     * Returns true if reading the request body failed because it exceeds the maximum size,
+     * possibly wrapped by the parser or the service.
      */
-    private String readFileContent(MultipartFile file) throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-            return reader.lines().collect(Collectors.joining("\n"));
+    private static boolean exceedsBodySize(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SizeLimitedInputStream.LimitExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<ErrorResponse> bodyTooLarge() {
+        return ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new ErrorResponse("Request body exceeds the maximum allowed size (" + maxBodySizeMb + "MB)"));
+    }
+
+    /**
+     * Writes a multipart file upload to a temporary file. The upload is handed to the
+     * container as a File, which lets it rename an upload it already spooled to disk
+     * (Tomcat does) instead of copying it; one held in memory is written out.
+     */
+    private Path spoolToTempFile(MultipartFile file) throws IOException {
+        Path tempFile = Files.createTempFile("schema-upload-", ".sql");
+        try {
+            // transferTo(Path) always copies the upload's input stream
+            file.transferTo(tempFile.toFile());
+            return tempFile;
+        } catch (IOException | RuntimeException e) {
+            deleteTempFile(tempFile);
+            throw e;
+        }
+    }
+
+    private void deleteTempFile(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            // A file that is still mapped cannot be deleted on some platforms
+            log.warn("Could not delete temporary file {}: {}", tempFile, e.getMessage());
+            tempFile.toFile().deleteOnExit();
         }
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.schema.analyzer.controller;
 import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
+import java.util.List;
 
 /**
  * Request object for schema analysis.
@@ -12,4 +13,14 @@ public class SchemaRequest {
     
     @NotBlank(message = "SQL script cannot be empty")
     private String sqlScript;
+    
+    /**
+     * Ids or form prefixes (e.g. "3nf") of the rules to run; all rules if empty.
+     */
+    private List<String> rules;
+    
+    /**
+     * Ids or form prefixes of the rules to skip.
+     */
+    private List<String> skipRules;
 }
@@ -0,0 +1,67 @@
+package com.schema.analyzer.controller;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Passes on at most a given number of bytes of a stream, failing with
+ * {@link LimitExceededException} as soon as it holds more. Wrapped around a decompressing
+ * stream, it bounds the decompressed size rather than the bytes received.
+ */
+final class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long bytesRead;
+
+    SizeLimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) throws LimitExceededException {
+        bytesRead += n;
+        if (bytesRead > maxBytes) {
+            throw new LimitExceededException(maxBytes);
+        }
+    }
+
+    /**
+     * Thrown when a stream holds more than its limit.
+     */
+    static final class LimitExceededException extends IOException {
+        LimitExceededException(long maxBytes) {
+            super("Request body exceeds " + maxBytes + " bytes");
+        }
+    }
+}
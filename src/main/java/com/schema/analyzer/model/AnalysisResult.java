@@ -2,6 +2,7 @@ package com.schema.analyzer.model;
 
 import lombok.Data;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +27,19 @@ public class AnalysisResult {
      */
     private Map<NormalizationForm, List<NormalizationIssue>> issuesByForm = new LinkedHashMap<>();
     
+    /**
+     * Time and allocation of each normalization rule that ran.
+     */
+    private List<RuleMetrics> ruleMetrics = new ArrayList<>();
+    
+    /**
+     * True if the time budget ran out, or a statement could not be parsed in time, before the
+     * analysis finished. The issues are then those found so far, and the achieved form is the
+     * highest one confirmed for the tables parsed. Also set when the budget runs out while the
+     * dependencies are verified against the script's data; no issue then has a confidence.
+     */
+    private boolean incomplete;
+    
     /**
      * Gets all issues found, across all normalization forms.
      */
@@ -35,6 +49,21 @@ public class AnalysisResult {
             .toList();
     }
     
+    /**
+     * Returns the issue with the given id, e.g. "3NF-2", or null if there is none.
+     * Its description, suggestion and fix SQL are rendered when read.
+     */
+    public NormalizationIssue getIssue(String id) {
+        for (List<NormalizationIssue> issues : issuesByForm.values()) {
+            for (NormalizationIssue issue : issues) {
+                if (id.equals(issue.getId())) {
+                    return issue;
+                }
+            }
+        }
+        return null;
+    }
+    
     /**
      * Checks if the schema has any normalization issues.
      */
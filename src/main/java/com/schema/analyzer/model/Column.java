@@ -1,42 +1,138 @@
 package com.schema.analyzer.model;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Represents a column in a database table.
  */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Column {
     private String name;
     private String dataType;
     private boolean nullable = true;
     private String defaultValue;
     
+    /**
+     * True if the column was declared UNSIGNED; the parsers keep the attribute out of {@link #dataType}.
+     */
+    private boolean unsigned;
+    
+    /**
+     * Id of the name in the schema's {@link IdentifierTable}, or -1 while the column is not part of a schema.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int nameId = -1;
+    
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String foldedName;
+    
+    /**
+     * The data type parsed once from {@link #dataType}.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private DataType type = DataType.parse(null);
+    
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile Vocabulary.Classification classification;
+    
+    public Column(String name, String dataType, boolean nullable, String defaultValue) {
+        this(name, dataType, nullable, defaultValue, false);
+    }
+    
+    public Column(String name, String dataType, boolean nullable, String defaultValue, boolean unsigned) {
+        this.name = name;
+        this.unsigned = unsigned;
+        setDataType(dataType);
+        this.nullable = nullable;
+        this.defaultValue = defaultValue;
+    }
+    
     public Column(String name, String dataType) {
         this.name = name;
-        this.dataType = dataType;
+        setDataType(dataType);
     }
     
     public Column(String name, String dataType, boolean nullable) {
         this.name = name;
-        this.dataType = dataType;
+        setDataType(dataType);
         this.nullable = nullable;
     }
     
+    public void setName(String name) {
+        this.name = name;
+        this.nameId = -1;
+        this.foldedName = null;
+        this.classification = null;
+    }
+    
+    public void setDataType(String dataType) {
+        this.dataType = dataType;
+        this.type = DataType.parse(dataType, unsigned);
+    }
+    
+    public void setUnsigned(boolean unsigned) {
+        this.unsigned = unsigned;
+        this.type = DataType.parse(dataType, unsigned);
+    }
+    
+    /**
+     * Returns the case-folded column name, computed once.
+     */
+    public String getFoldedName() {
+        if (foldedName == null && name != null) {
+            foldedName = IdentifierTable.fold(name);
+        }
+        return foldedName;
+    }
+    
+    void bindNameId(int nameId, String foldedName) {
+        this.nameId = nameId;
+        this.foldedName = foldedName;
+    }
+    
+    Vocabulary.Classification getClassification() {
+        return classification;
+    }
+    
+    void setClassification(Vocabulary.Classification classification) {
+        this.classification = classification;
+    }
+    
+    /**
+     * Returns a copy of this column.
+     */
+    public Column copy() {
+        return new Column(name, dataType, nullable, defaultValue, unsigned);
+    }
+    
     /**
      * Determines if this column potentially contains multi-valued attributes.
      * Multi-valued attributes violate 1NF.
      */
     public boolean isMultiValued() {
-        String type = dataType.toUpperCase();
-        return type.contains("SET") || 
-               type.contains("ENUM") || 
-               type.contains("JSON") || 
-               type.contains("ARRAY");
+        return type.isMultiValued();
     }
     
     /**
@@ -44,38 +140,29 @@ public class Column {
      * Columns storing structured data violate 1NF.
      */
     public boolean mightContainStructuredData() {
-        String type = dataType.toUpperCase();
-        String nameLower = name.toLowerCase();
+        return mightContainStructuredData(Vocabulary.defaults());
+    }
+    
+    /**
+     * Determines if this column's type suggests it might store structured data, using the
+     * given vocabulary to recognize names of columns that usually hold atomic content.
+     */
+    public boolean mightContainStructuredData(Vocabulary vocabulary) {
+        if (!type.isStructuredCandidate()) {
+            return false;
+        }
         
-        // Skip columns that likely contain valid unstructured content
-        if (type.contains("TEXT")) {
-            // Common column names for text content that are usually atomic
-            if (nameLower.contains("content") || 
-                nameLower.contains("description") || 
-                nameLower.contains("bio") || 
-                nameLower.contains("comment") || 
-                nameLower.contains("note") ||
-                nameLower.contains("article")) {
+        // Skip TEXT and BLOB columns whose names suggest valid unstructured content,
+        // e.g. description or photo
+        if (type.isText() || type.isBlob()) {
+            int categories = vocabulary.classify(this);
+            if (type.isText() && Vocabulary.Category.TEXT_CONTENT.in(categories)) {
                 return false;
             }
-        }
-        
-        // Skip columns that likely contain valid binary data
-        if (type.contains("BLOB")) {
-            // Common column names for binary content that are usually atomic
-            if (nameLower.contains("image") || 
-                nameLower.contains("photo") || 
-                nameLower.contains("thumbnail") || 
-                nameLower.contains("file") || 
-                nameLower.contains("attachment")) {
+            if (type.isBlob() && Vocabulary.Category.BINARY_CONTENT.in(categories)) {
                 return false;
             }
         }
-        
-        // Default behavior for other potentially structured data types
-        return type.contains("TEXT") || 
-               type.contains("BLOB") || 
-               type.contains("JSON") || 
-               type.contains("VARCHAR") && type.contains("MAX");
+        return true;
     }
-}
\ No newline at end of file
+}
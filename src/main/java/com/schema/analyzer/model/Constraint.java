@@ -17,4 +17,9 @@ public abstract class Constraint {
     public Constraint(ConstraintType type) {
         this.type = type;
     }
+    
+    /**
+     * Returns a copy of this constraint with its own column lists.
+     */
+    public abstract Constraint copy();
 }
@@ -0,0 +1,207 @@
+package com.schema.analyzer.model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A column data type such as {@code DECIMAL(10,2)} or {@code INT(11) UNSIGNED}, parsed once
+ * into its type family, length or precision, scale and unsigned flag.
+ *
+ * The classifications the analyzers ask for on every column are computed when the type is
+ * parsed, so they are plain field reads afterwards. Instances are immutable.
+ */
+public final class DataType {
+
+    /**
+     * The family of a data type, independent of its length and modifiers.
+     */
+    public enum Family {
+        INTEGER, DECIMAL, FLOAT, BIT, BOOLEAN,
+        CHAR, VARCHAR, TEXT, BINARY, BLOB,
+        DATE, TIME, DATETIME, TIMESTAMP, YEAR,
+        ENUM, SET, JSON, SPATIAL,
+        /** A type not known to the analyzer. */
+        OTHER
+    }
+
+    private static final Map<String, Family> FAMILIES = new HashMap<>();
+
+    static {
+        register(Family.INTEGER, "TINYINT", "SMALLINT", "MEDIUMINT", "INT", "INTEGER", "BIGINT", "SERIAL");
+        register(Family.DECIMAL, "DECIMAL", "DEC", "NUMERIC", "FIXED");
+        register(Family.FLOAT, "FLOAT", "DOUBLE", "REAL");
+        register(Family.BIT, "BIT");
+        register(Family.BOOLEAN, "BOOL", "BOOLEAN");
+        register(Family.CHAR, "CHAR", "NCHAR", "CHARACTER");
+        register(Family.VARCHAR, "VARCHAR", "NVARCHAR", "VARCHAR2");
+        register(Family.TEXT, "TINYTEXT", "TEXT", "MEDIUMTEXT", "LONGTEXT");
+        register(Family.BINARY, "BINARY", "VARBINARY");
+        register(Family.BLOB, "TINYBLOB", "BLOB", "MEDIUMBLOB", "LONGBLOB");
+        register(Family.DATE, "DATE");
+        register(Family.TIME, "TIME");
+        register(Family.DATETIME, "DATETIME");
+        register(Family.TIMESTAMP, "TIMESTAMP");
+        register(Family.YEAR, "YEAR");
+        register(Family.ENUM, "ENUM");
+        register(Family.SET, "SET");
+        register(Family.JSON, "JSON");
+        register(Family.SPATIAL, "GEOMETRY", "POINT", "LINESTRING", "POLYGON", "MULTIPOINT",
+                 "MULTILINESTRING", "MULTIPOLYGON", "GEOMETRYCOLLECTION");
+    }
+
+    private static final DataType UNKNOWN = new DataType(null, false);
+
+    private final String declaration;
+    private final Family family;
+    private final int length;
+    private final int scale;
+    private final boolean unsigned;
+    private final boolean multiValued;
+    private final boolean text;
+    private final boolean blob;
+    private final boolean structuredCandidate;
+
+    private DataType(String declaration, boolean declaredUnsigned) {
+        this.declaration = declaration;
+        if (declaration == null) {
+            family = Family.OTHER;
+            length = -1;
+            scale = -1;
+            unsigned = false;
+            multiValued = false;
+            text = false;
+            blob = false;
+            structuredCandidate = false;
+            return;
+        }
+
+        String type = declaration.toUpperCase(Locale.ROOT);
+        int nameEnd = 0;
+        while (nameEnd < type.length() && isNameChar(type.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        family = FAMILIES.getOrDefault(type.substring(0, nameEnd), Family.OTHER);
+
+        // Numeric arguments: length or precision, then scale; ENUM and SET values are not sizes
+        int[] sizes = {-1, -1};
+        int open = type.indexOf('(', nameEnd);
+        int close = open >= 0 ? type.indexOf(')', open) : -1;
+        if (close > open && family != Family.ENUM && family != Family.SET) {
+            String[] arguments = type.substring(open + 1, close).split(",");
+            for (int i = 0; i < Math.min(arguments.length, sizes.length); i++) {
+                sizes[i] = parseSize(arguments[i].trim());
+            }
+        }
+        length = sizes[0];
+        scale = sizes[1];
+        unsigned = declaredUnsigned || type.contains("UNSIGNED");
+
+        // The same tests the 1NF heuristics have always made on the declared type
+        multiValued = type.contains("SET") || type.contains("ENUM") ||
+                      type.contains("JSON") || type.contains("ARRAY");
+        text = type.contains("TEXT");
+        blob = type.contains("BLOB");
+        structuredCandidate = text || blob || type.contains("JSON") ||
+                              type.contains("VARCHAR") && type.contains("MAX");
+    }
+
+    /**
+     * Parses a declared data type; null parses to a type of family {@link Family#OTHER}.
+     */
+    public static DataType parse(String declaration) {
+        return parse(declaration, false);
+    }
+
+    /**
+     * Parses a declared data type whose UNSIGNED attribute the parser kept apart, as both
+     * schema parsers do; the type is also unsigned if the declaration says so itself.
+     */
+    public static DataType parse(String declaration, boolean unsigned) {
+        return declaration == null ? UNKNOWN : new DataType(declaration, unsigned);
+    }
+
+    /**
+     * Returns the type as declared.
+     */
+    public String getDeclaration() {
+        return declaration;
+    }
+
+    public Family getFamily() {
+        return family;
+    }
+
+    /**
+     * Returns the declared length, display width or precision, or -1 if none was declared.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the declared scale, or -1 if none was declared.
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    public boolean isUnsigned() {
+        return unsigned;
+    }
+
+    /**
+     * Returns true for types that can hold several values, such as SET, ENUM, JSON or arrays.
+     */
+    public boolean isMultiValued() {
+        return multiValued;
+    }
+
+    /**
+     * Returns true for the TEXT types.
+     */
+    public boolean isText() {
+        return text;
+    }
+
+    /**
+     * Returns true for the BLOB types.
+     */
+    public boolean isBlob() {
+        return blob;
+    }
+
+    /**
+     * Returns true for types that can store structured data: TEXT, BLOB, JSON and VARCHAR(MAX).
+     */
+    public boolean isStructuredCandidate() {
+        return structuredCandidate;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(declaration);
+    }
+
+    private static void register(Family family, String... names) {
+        for (String name : names) {
+            FAMILIES.put(name, family);
+        }
+    }
+
+    private static boolean isNameChar(char c) {
+        return c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+
+    private static int parseSize(String argument) {
+        if (argument.isEmpty() || argument.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < argument.length(); i++) {
+            if (argument.charAt(i) < '0' || argument.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(argument);
+    }
+}
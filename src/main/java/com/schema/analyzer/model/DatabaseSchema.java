@@ -1,12 +1,16 @@
 package com.schema.analyzer.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Represents a database schema consisting of tables and their relationships.
@@ -17,6 +21,39 @@ public class DatabaseSchema {
     private String name;
     private List<Table> tables = new ArrayList<>();
     
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final IdentifierTable identifiers = new IdentifierTable();
+    
+    /**
+     * Number of leading entries of {@link #tables} whose names have been interned.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int boundTables;
+    
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private SchemaGraph graph;
+    
+    /**
+     * True if parsing stopped before the end of the script, or skipped a statement it could
+     * not parse in time, so some tables may be missing.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean incomplete;
+    
     public DatabaseSchema(String name) {
         this.name = name;
     }
@@ -25,32 +62,51 @@ public class DatabaseSchema {
         this.tables.add(table);
     }
     
+    public void setTables(List<Table> tables) {
+        this.tables = tables;
+        this.boundTables = 0;
+    }
+    
     /**
-     * Identifies relationships between tables based on foreign key constraints.
+     * Returns the identifier table of this schema, first assigning ids to the names of any
+     * tables (and their columns) added since the last call. Call it before analyzing the schema
+     * from several threads; lookups on the returned table are safe to share.
      */
-    public void identifyRelationships() {
-        // Build a map of table name to table object for easy lookup
-        Map<String, Table> tableMap = new HashMap<>();
-        for (Table table : tables) {
-            tableMap.put(table.getName().toLowerCase(), table);
+    public synchronized IdentifierTable getIdentifiers() {
+        while (boundTables < tables.size()) {
+            identifiers.bind(tables.get(boundTables++));
         }
+        return identifiers;
+    }
+    
+    /**
+     * Returns the foreign key graph of this schema, rebuilding it if tables have been added,
+     * removed or replaced since it was last built. Changes to the foreign keys of existing
+     * tables are picked up by {@link #identifyRelationships()}.
+     */
+    public synchronized SchemaGraph getGraph() {
+        if (graph == null || !graph.isCurrent(tables)) {
+            graph = new SchemaGraph(tables, getIdentifiers());
+        }
+        return graph;
+    }
+    
+    /**
+     * Identifies relationships between tables based on foreign key constraints.
+     */
+    public synchronized void identifyRelationships() {
+        graph = new SchemaGraph(tables, getIdentifiers());
         
-        // Look for foreign key constraints in each table
-        for (Table table : tables) {
-            for (Constraint constraint : table.getConstraints()) {
-                if (constraint.getType() == ConstraintType.FOREIGN_KEY) {
-                    ForeignKeyConstraint fk = (ForeignKeyConstraint) constraint;
-                    Table referencedTable = tableMap.get(fk.getReferencedTable().toLowerCase());
-                    if (referencedTable != null) {
-                        table.addRelationship(new Relationship(
-                            table, 
-                            referencedTable, 
-                            fk.getColumns(), 
-                            fk.getReferencedColumns()
-                        ));
-                    }
-                }
-            }
+        // Edges are numbered in table and constraint order
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            Table table = graph.table(graph.edgeSource(edge));
+            ForeignKeyConstraint fk = graph.edgeConstraint(edge);
+            table.addRelationship(new Relationship(
+                table, 
+                graph.table(graph.edgeTarget(edge)), 
+                fk.getColumns(), 
+                fk.getReferencedColumns()
+            ));
         }
     }
-}
\ No newline at end of file
+}
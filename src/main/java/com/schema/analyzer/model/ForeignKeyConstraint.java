@@ -33,4 +33,10 @@ public class ForeignKeyConstraint extends Constraint {
         this.referencedTable = referencedTable;
         this.referencedColumns = referencedColumns;
     }
+    
+    @Override
+    public ForeignKeyConstraint copy() {
+        return new ForeignKeyConstraint(getName(), new ArrayList<>(columns),
+                                        referencedTable, new ArrayList<>(referencedColumns));
+    }
 }
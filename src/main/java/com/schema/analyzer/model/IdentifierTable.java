@@ -0,0 +1,128 @@
+package com.schema.analyzer.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Symbol table for the table and column names of a schema.
+ *
+ * Every distinct name gets a small int id; names that differ only in case share an id, as they
+ * do in MySQL. The case-folded form of each name is computed once and shared, so analyzers can
+ * compare ids and reuse folded names instead of calling {@code toLowerCase()} and
+ * {@code equalsIgnoreCase()} over and over.
+ *
+ * Ids are only meaningful within the schema that assigned them.
+ */
+public class IdentifierTable {
+
+    private final Map<String, Integer> idsBySpelling = new HashMap<>();
+    private final Map<String, Integer> idsByFoldedName = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<String> foldedNames = new ArrayList<>();
+
+    /**
+     * Returns the case-folded form of a name, as used for identifier comparison.
+     */
+    public static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the id of a name, assigning a new id if the name has not been seen before.
+     */
+    public int intern(String name) {
+        Integer id = idsBySpelling.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        String folded = fold(name);
+        id = idsByFoldedName.get(folded);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            foldedNames.add(folded);
+            idsByFoldedName.put(folded, id);
+        }
+        idsBySpelling.put(name, id);
+        return id;
+    }
+
+    /**
+     * Returns the id of a name, or -1 if the name is null or no name with the same folded form
+     * has been interned. Never modifies the table, so it is safe to call from several threads
+     * once the schema is built.
+     */
+    public int lookup(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer id = idsBySpelling.get(name);
+        if (id == null) {
+            id = idsByFoldedName.get(fold(name));
+        }
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the ids of the given names; names that were never interned are skipped.
+     */
+    public BitSet lookupAll(Collection<String> names) {
+        BitSet ids = new BitSet();
+        for (String name : names) {
+            int id = lookup(name);
+            if (id >= 0) {
+                ids.set(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the name ids of the given columns.
+     */
+    public BitSet idsOf(Collection<Column> columns) {
+        BitSet ids = new BitSet();
+        for (Column column : columns) {
+            ids.set(column.getNameId());
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the name as first interned.
+     */
+    public String name(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Returns the case-folded name for an id.
+     */
+    public String foldedName(int id) {
+        return foldedNames.get(id);
+    }
+
+    /**
+     * Returns the number of distinct names; ids range from 0 to size() - 1.
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Assigns ids to a table name and the names of all its columns.
+     */
+    void bind(Table table) {
+        table.bindNameId(intern(table.getName()));
+        for (Column column : table.getColumns()) {
+            int id = intern(column.getName());
+            column.bindNameId(id, foldedNames.get(id));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.schema.analyzer.model;
+
+/**
+ * The kinds of normalization issue the analyzers report, with the templates their
+ * descriptions and suggestions are rendered from.
+ *
+ * Templates refer to the parameters of an issue by position, {@code {0}} being the first.
+ * Warnings point out possible problems that do not decide which normal form is achieved.
+ */
+public enum IssueCode {
+    MISSING_PRIMARY_KEY(NormalizationForm.FIRST_NORMAL_FORM, Severity.CRITICAL,
+        "Table does not have a primary key",
+        "Add a primary key to the table"),
+    MULTI_VALUED_COLUMN(NormalizationForm.FIRST_NORMAL_FORM, Severity.CRITICAL,
+        "Column potentially contains multi-valued attributes",
+        "Create a separate table to store these values and establish a foreign key relationship"),
+    STRUCTURED_DATA(NormalizationForm.FIRST_NORMAL_FORM, Severity.WARNING,
+        "Column might contain structured data (non-atomic values)",
+        "Consider splitting this data into separate columns or tables if it contains multiple values"),
+    /** {0}: the base name of the numbered columns */
+    REPEATING_GROUP(NormalizationForm.FIRST_NORMAL_FORM, Severity.CRITICAL,
+        "Potential repeating group detected: {0} columns",
+        "Create a separate table to store these values"),
+    /**
+     * As {@link #REPEATING_GROUP}, for at most two numbered columns named like ids, which are
+     * more likely the columns of a composite key than a repeating group
+     */
+    NUMBERED_IDENTIFIERS(NormalizationForm.FIRST_NORMAL_FORM, Severity.WARNING,
+        "Potential repeating group detected: {0} columns",
+        "Create a separate table to store these values"),
+    /** {0}: the part of the primary key the columns may depend on */
+    KEY_PART_DEPENDENCY(NormalizationForm.SECOND_NORMAL_FORM, Severity.CRITICAL,
+        "Potential partial dependency detected: These columns may depend on {0} " +
+        "(part of the primary key) rather than the full primary key",
+        "Consider creating a separate table for these columns with {0} as the primary key"),
+    /** {0}: the foreign key the column may depend on */
+    FOREIGN_KEY_DEPENDENCY(NormalizationForm.SECOND_NORMAL_FORM, Severity.CRITICAL,
+        "Potential partial dependency detected: These columns may depend on {0} rather than the primary key",
+        "Consider creating a separate table for these columns with {0} as the primary key"),
+    /** {0}: the part of the primary key the column may depend on */
+    COLUMN_KEY_PART_DEPENDENCY(NormalizationForm.SECOND_NORMAL_FORM, Severity.CRITICAL,
+        "Potential partial dependency detected: This column may depend on {0} " +
+        "(part of the primary key) rather than the full primary key",
+        "Consider creating a separate table for this column with {0} as the primary key"),
+    /** {0}: the part of a candidate key, {1}: the non-prime columns that depend on it */
+    SAMPLE_PARTIAL_DEPENDENCY(NormalizationForm.SECOND_NORMAL_FORM, Severity.CRITICAL,
+        "Partial dependency on {0} (holds in the sample data), which is part of a candidate key: " +
+        "{1} depend on it rather than on the whole key",
+        "Decompose the table: move {1} into a separate table keyed by {0}"),
+    /** {0}: the non-key column the columns may depend on */
+    TRANSITIVE_DEPENDENCY(NormalizationForm.THIRD_NORMAL_FORM, Severity.CRITICAL,
+        "Potential transitive dependency detected: These columns may depend on non-key attribute {0} " +
+        "rather than directly on the primary key",
+        "Consider creating a separate table for {0} and its dependent columns"),
+    ADDRESS_COLUMNS(NormalizationForm.THIRD_NORMAL_FORM, Severity.CRITICAL,
+        "Address information should be normalized into a separate table",
+        "Create an address table and reference it with a foreign key"),
+    CALCULATED_FIELDS(NormalizationForm.THIRD_NORMAL_FORM, Severity.CRITICAL,
+        "Potentially calculated fields detected. These may be transitive dependencies.",
+        "Consider computing these values on demand rather than storing them, " +
+        "or ensure they are properly updated whenever their source values change."),
+    /** {0}: the non-key determinant, {1}: the non-prime columns that depend on it */
+    SAMPLE_TRANSITIVE_DEPENDENCY(NormalizationForm.THIRD_NORMAL_FORM, Severity.CRITICAL,
+        "Transitive dependency on {0} (holds in the sample data), which is not part of a candidate key: " +
+        "{1} depend on it rather than directly on a key",
+        "Decompose the table: move {1} into a separate table keyed by {0}"),
+    /** {0}: the determinant, {1}: the candidate keys, {2}: the columns it determines */
+    NON_KEY_DETERMINANT(NormalizationForm.BOYCE_CODD_NORMAL_FORM, Severity.CRITICAL,
+        "Functional dependency on {0}, which is not a candidate key of the table (candidate keys: {1})",
+        "Decompose the table: move {2} into a separate table keyed by {0}"),
+    /**
+     * As {@link #NON_KEY_DETERMINANT}, for a dependency found in sample data that determines
+     * only prime columns; the others are {@link #SAMPLE_PARTIAL_DEPENDENCY} or
+     * {@link #SAMPLE_TRANSITIVE_DEPENDENCY}
+     */
+    SAMPLE_NON_KEY_DETERMINANT(NormalizationForm.BOYCE_CODD_NORMAL_FORM, Severity.CRITICAL,
+        "Functional dependency on {0} (holds in the sample data), which is not a candidate key " +
+        "of the table (candidate keys: {1})",
+        "Decompose the table: move {2} into a separate table keyed by {0}");
+
+    private final NormalizationForm form;
+    private final int severity;
+    private final String descriptionTemplate;
+    private final String suggestionTemplate;
+
+    IssueCode(NormalizationForm form, int severity, String descriptionTemplate, String suggestionTemplate) {
+        this.form = form;
+        this.severity = severity;
+        this.descriptionTemplate = descriptionTemplate;
+        this.suggestionTemplate = suggestionTemplate;
+    }
+
+    /**
+     * Returns the severity of issues of this kind, one of the {@link Severity} bits.
+     */
+    public int getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Returns true if the severity of issues of this kind is one of the given severities.
+     */
+    public boolean hasSeverity(int severities) {
+        return (severity & severities) != 0;
+    }
+
+    /**
+     * Returns the normalization form issues of this kind violate.
+     */
+    public NormalizationForm getForm() {
+        return form;
+    }
+
+    public String renderDescription(String[] parameters) {
+        return render(descriptionTemplate, parameters);
+    }
+
+    public String renderSuggestion(String[] parameters) {
+        return render(suggestionTemplate, parameters);
+    }
+
+    /**
+     * Severities of issues, as bits that can be combined into a mask.
+     */
+    public static final class Severity {
+        /** Issues that keep a table from achieving the normal form they violate. */
+        public static final int CRITICAL = 1;
+        /** Issues that are reported but do not affect the achieved normal form. */
+        public static final int WARNING = 1 << 1;
+
+        private Severity() {
+        }
+    }
+
+    /**
+     * Replaces the {@code {n}} placeholders of a template with the parameters.
+     */
+    private static String render(String template, String[] parameters) {
+        int open = template.indexOf('{');
+        if (open < 0) {
+            return template;
+        }
+        StringBuilder text = new StringBuilder(template.length() + 32);
+        int start = 0;
+        while (open >= 0) {
+            int close = template.indexOf('}', open);
+            text.append(template, start, open);
+            int index = Integer.parseInt(template.substring(open + 1, close));
+            text.append(index < parameters.length ? parameters[index] : "");
+            start = close + 1;
+            open = template.indexOf('{', start);
+        }
+        return text.append(template, start, template.length()).toString();
+    }
+}
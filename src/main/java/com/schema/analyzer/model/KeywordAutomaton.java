@@ -0,0 +1,126 @@
+package com.schema.analyzer.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed list of keywords: feeding a text through
+ * {@link #next(int, char)} one character at a time visits, after each character, a state
+ * whose {@link #matches(int)} are all keywords ending at that character.
+ */
+final class KeywordAutomaton {
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final int[] keywordLengths;
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failure;
+    private final int[][] matches;
+
+    KeywordAutomaton(List<String> keywords) {
+        keywordLengths = keywords.stream().mapToInt(String::length).toArray();
+
+        // Trie of the keywords
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        for (int keyword = 0; keyword < keywords.size(); keyword++) {
+            int state = 0;
+            for (char c : keywords.get(keyword).toCharArray()) {
+                Integer child = children.get(state).get(c);
+                if (child == null) {
+                    child = children.size();
+                    children.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                    children.get(state).put(c, child);
+                }
+                state = child;
+            }
+            ends.get(state).add(keyword);
+        }
+
+        int states = children.size();
+        labels = new char[states][];
+        targets = new int[states][];
+        for (int state = 0; state < states; state++) {
+            Map<Character, Integer> transitions = children.get(state);
+            labels[state] = new char[transitions.size()];
+            targets[state] = new int[transitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+                labels[state][i] = transition.getKey();
+                targets[state][i] = transition.getValue();
+                i++;
+            }
+        }
+
+        // Failure links in breadth-first order, so a state's failure target is done before it.
+        // A state also matches everything its failure target matches.
+        failure = new int[states];
+        matches = new int[states][];
+        matches[0] = toArray(ends.get(0));
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] inherited = matches[failure[state]];
+            int[] own = toArray(ends.get(state));
+            matches[state] = own.length == 0 ? inherited : concat(own, inherited);
+
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = targets[state][i];
+                failure[child] = state == 0 ? 0 : next(failure[state], labels[state][i]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Returns the state after reading a character in the given state (0 is the start state).
+     */
+    int next(int state, char c) {
+        while (true) {
+            int i = Arrays.binarySearch(labels[state], c);
+            if (i >= 0) {
+                return targets[state][i];
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    /**
+     * Returns the indexes of the keywords that end at the last character read into the state.
+     */
+    int[] matches(int state) {
+        return matches[state];
+    }
+
+    /**
+     * Returns the length of a keyword.
+     */
+    int length(int keyword) {
+        return keywordLengths[keyword];
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.isEmpty() ? NO_MATCHES : values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
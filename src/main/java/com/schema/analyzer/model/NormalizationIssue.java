@@ -1,16 +1,51 @@
 package com.schema.analyzer.model;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Represents a normalization issue found during analysis.
+ *
+ * Issues reported by the analyzers carry an {@link IssueCode} and its parameters; their
+ * description, suggestion and fix SQL are rendered on first access, typically when the
+ * issue is serialized, so issues nobody reads cost no text. Equality, hash code and
+ * {@code toString} use the code and parameters and render nothing; only issues without
+ * a code are compared by their description.
  */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class NormalizationIssue {
+    /**
+     * Identifies the issue within its analysis result, e.g. "3NF-2".
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String id;
+    
+    /**
+     * The kind of issue, or null for an issue described by free text.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private IssueCode code;
+    
+    /**
+     * The values filled into the code's templates.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String[] parameters;
+    
     /**
      * The normalization form that is violated.
      */
@@ -29,18 +64,91 @@ public class NormalizationIssue {
     /**
      * A description of the issue.
      */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private String description;
     
     /**
      * A suggestion for resolving the issue.
      */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private String suggestion;
     
     /**
      * SQL code that would fix the issue, if available.
      */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private String fixSql;
     
+    /**
+     * Generates the fix SQL on first access, then is dropped.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile Supplier<String> fixSqlGenerator;
+    
+    /**
+     * Hash of the table, columns, code and parameters (or description) of the issue,
+     * computed when they are set; 0 until then.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int structuralHash;
+    
+    /**
+     * Columns of the determinant of the functional dependency behind the issue, if known.
+     */
+    @JsonIgnore
+    private List<String> determinantColumns;
+    
+    /**
+     * Columns that depend on the determinant, if known.
+     */
+    @JsonIgnore
+    private List<String> dependentColumns;
+    
+    /**
+     * Estimated share of the dependency's determinant values that have a single dependent
+     * value in the table data: 1.0 if the data confirms the dependency, lower the more
+     * rows contradict it. Null if the dependency was not checked against data.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double confidence;
+    
+    /**
+     * Creates an issue whose text is rendered from the code's templates when first read.
+     * 
+     * @param fixSqlGenerator Generates the fix SQL when first read, or null if there is none
+     * @param parameters The values of the templates' placeholders
+     */
+    public NormalizationIssue(IssueCode code, String tableName, String columnName,
+                              Supplier<String> fixSqlGenerator, String... parameters) {
+        this.code = code;
+        this.violatedForm = code.getForm();
+        this.tableName = tableName;
+        this.columnName = columnName;
+        this.fixSqlGenerator = fixSqlGenerator;
+        this.parameters = parameters;
+        this.structuralHash = computeStructuralHash();
+    }
+    
+    public NormalizationIssue(NormalizationForm violatedForm, String tableName, 
+                             String columnName, String description, String suggestion, String fixSql) {
+        this.violatedForm = violatedForm;
+        this.tableName = tableName;
+        this.columnName = columnName;
+        this.description = description;
+        this.suggestion = suggestion;
+        this.fixSql = fixSql;
+    }
+    
     public NormalizationIssue(NormalizationForm violatedForm, String tableName, String description) {
         this.violatedForm = violatedForm;
         this.tableName = tableName;
@@ -63,4 +171,123 @@ public class NormalizationIssue {
         this.description = description;
         this.suggestion = suggestion;
     }
-}
\ No newline at end of file
+    
+    public void setCode(IssueCode code) {
+        this.code = code;
+        this.structuralHash = 0;
+    }
+    
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+        this.structuralHash = 0;
+    }
+    
+    public void setColumnName(String columnName) {
+        this.columnName = columnName;
+        this.structuralHash = 0;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+        this.structuralHash = 0;
+    }
+    
+    public String getDescription() {
+        if (description == null && code != null) {
+            description = code.renderDescription(parameters);
+        }
+        return description;
+    }
+    
+    public String getSuggestion() {
+        if (suggestion == null && code != null) {
+            suggestion = code.renderSuggestion(parameters);
+        }
+        return suggestion;
+    }
+    
+    public String getFixSql() {
+        Supplier<String> generator = fixSqlGenerator;
+        if (generator != null) {
+            fixSql = generator.get();
+            fixSqlGenerator = null;
+        }
+        return fixSql;
+    }
+    
+    /**
+     * Replaces the fix SQL, discarding any pending generation.
+     */
+    public void setFixSql(String fixSql) {
+        this.fixSql = fixSql;
+        this.fixSqlGenerator = null;
+    }
+    
+    /**
+     * Returns true if the issue's severity is one of the given {@link IssueCode.Severity} bits.
+     * Issues without a code are critical.
+     */
+    public boolean hasSeverity(int severities) {
+        return code != null ? code.hasSeverity(severities) : (severities & IssueCode.Severity.CRITICAL) != 0;
+    }
+    
+    public int getStructuralHash() {
+        int hash = structuralHash;
+        if (hash == 0) {
+            hash = computeStructuralHash();
+            structuralHash = hash;
+        }
+        return hash;
+    }
+    
+    /**
+     * Returns true if the other issue reports the same problem: the same code with the same
+     * parameters (or the same description) for the same table and columns. Nothing is rendered.
+     */
+    public boolean isDuplicateOf(NormalizationIssue other) {
+        if (getStructuralHash() != other.getStructuralHash() || code != other.code
+            || !Objects.equals(tableName, other.tableName) || !Objects.equals(columnName, other.columnName)) {
+            return false;
+        }
+        return code != null ? Arrays.equals(parameters, other.parameters) : Objects.equals(description, other.description);
+    }
+    
+    /**
+     * The description of an issue without a code, which identifies it; null for coded issues,
+     * whose code and parameters identify them.
+     */
+    @EqualsAndHashCode.Include
+    @ToString.Include(name = "description")
+    private String freeTextDescription() {
+        return code == null ? description : null;
+    }
+    
+    private int computeStructuralHash() {
+        int hash = Objects.hashCode(tableName);
+        hash = 31 * hash + Objects.hashCode(columnName);
+        if (code != null) {
+            hash = 31 * hash + code.ordinal();
+            hash = 31 * hash + Arrays.hashCode(parameters);
+        } else {
+            hash = 31 * hash + Objects.hashCode(description);
+        }
+        // 0 means not computed
+        return hash != 0 ? hash : 1;
+    }
+    
+    /**
+     * Records the functional dependency behind the issue, determinant → dependents.
+     */
+    public void setDependency(List<String> determinantColumns, List<String> dependentColumns) {
+        this.determinantColumns = determinantColumns;
+        this.dependentColumns = dependentColumns;
+    }
+    
+    /**
+     * Returns true if the functional dependency behind the issue is known.
+     */
+    public boolean hasDependency() {
+        return determinantColumns != null && !determinantColumns.isEmpty()
+            && dependentColumns != null && !dependentColumns.isEmpty();
+    }
+}
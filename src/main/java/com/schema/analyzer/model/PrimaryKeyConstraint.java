@@ -25,4 +25,9 @@ public class PrimaryKeyConstraint extends Constraint {
         super(ConstraintType.PRIMARY_KEY);
         this.columns = columns;
     }
+    
+    @Override
+    public PrimaryKeyConstraint copy() {
+        return new PrimaryKeyConstraint(getName(), new ArrayList<>(columns));
+    }
 }
@@ -0,0 +1,43 @@
+package com.schema.analyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cost of one normalization rule during an analysis, summed over all tables it checked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleMetrics {
+    /**
+     * The id of the rule, e.g. "3nf.address".
+     */
+    private String ruleId;
+
+    /**
+     * The normalization form the rule checks.
+     */
+    private NormalizationForm form;
+
+    /**
+     * Number of tables the rule checked.
+     */
+    private long tablesChecked;
+
+    /**
+     * Number of issues the rule reported.
+     */
+    private long issuesFound;
+
+    /**
+     * Time spent in the rule, in nanoseconds (summed over threads).
+     */
+    private long timeNanos;
+
+    /**
+     * Bytes allocated by the rule, or -1 if the JVM does not measure allocation per thread.
+     */
+    private long allocatedBytes;
+}
@@ -0,0 +1,265 @@
+package com.schema.analyzer.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Foreign key graph of a schema.
+ *
+ * Tables are numbered by their position in the schema and every resolvable foreign key is an
+ * edge from the referencing table to the referenced one. Edges are stored in compressed
+ * adjacency arrays in both directions, so finding what a table references, what references
+ * it, or everything reachable from it costs time proportional to the answer rather than to
+ * the size of the schema. The graph is immutable once built.
+ */
+public class SchemaGraph {
+
+    private final Table[] tables;
+
+    /**
+     * Table index for each name id of the schema's {@link IdentifierTable}, or -1.
+     */
+    private final int[] tableIndexByNameId;
+    private final IdentifierTable identifiers;
+
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final ForeignKeyConstraint[] edgeConstraints;
+
+    /**
+     * Edges leaving table i are edge ids outOffsets[i] until outOffsets[i + 1]; since edges are
+     * numbered in source order these are the edge ids themselves.
+     */
+    private final int[] outOffsets;
+
+    /**
+     * Edges entering table i are inEdges[inOffsets[i]] until inEdges[inOffsets[i + 1] - 1].
+     */
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    /**
+     * Builds the graph of the given tables, whose names must already be bound in the identifier table.
+     * If several tables share a name, references resolve to the last one, as before.
+     */
+    SchemaGraph(List<Table> tables, IdentifierTable identifiers) {
+        int tableCount = tables.size();
+        this.tables = tables.toArray(new Table[0]);
+        this.identifiers = identifiers;
+
+        this.tableIndexByNameId = new int[identifiers.size()];
+        Arrays.fill(tableIndexByNameId, -1);
+        for (int i = 0; i < tableCount; i++) {
+            tableIndexByNameId[this.tables[i].getNameId()] = i;
+        }
+
+        // Resolve foreign keys in table order, which numbers edges by source
+        int edgeCapacity = 0;
+        for (Table table : this.tables) {
+            edgeCapacity += table.getForeignKeyConstraints().size();
+        }
+        int[] sources = new int[edgeCapacity];
+        int[] targets = new int[edgeCapacity];
+        ForeignKeyConstraint[] constraints = new ForeignKeyConstraint[edgeCapacity];
+        this.outOffsets = new int[tableCount + 1];
+        int edgeCount = 0;
+        for (int i = 0; i < tableCount; i++) {
+            outOffsets[i] = edgeCount;
+            for (ForeignKeyConstraint fk : this.tables[i].getForeignKeyConstraints()) {
+                int target = indexOf(fk.getReferencedTable());
+                if (target >= 0) {
+                    sources[edgeCount] = i;
+                    targets[edgeCount] = target;
+                    constraints[edgeCount] = fk;
+                    edgeCount++;
+                }
+            }
+        }
+        outOffsets[tableCount] = edgeCount;
+        this.edgeSources = Arrays.copyOf(sources, edgeCount);
+        this.edgeTargets = Arrays.copyOf(targets, edgeCount);
+        this.edgeConstraints = Arrays.copyOf(constraints, edgeCount);
+
+        // Counting sort of the edges by target gives the reverse adjacency
+        this.inOffsets = new int[tableCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            inOffsets[edgeTargets[e] + 1]++;
+        }
+        for (int i = 0; i < tableCount; i++) {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        this.inEdges = new int[edgeCount];
+        int[] next = Arrays.copyOf(inOffsets, tableCount);
+        for (int e = 0; e < edgeCount; e++) {
+            inEdges[next[edgeTargets[e]]++] = e;
+        }
+    }
+
+    /**
+     * Returns the number of tables.
+     */
+    public int size() {
+        return tables.length;
+    }
+
+    /**
+     * Returns the number of resolved foreign key edges.
+     */
+    public int edgeCount() {
+        return edgeSources.length;
+    }
+
+    /**
+     * Returns the table with the given index.
+     */
+    public Table table(int index) {
+        return tables[index];
+    }
+
+    /**
+     * Returns the index of the table with the given name (case-insensitive), or -1 if there is none.
+     */
+    public int indexOf(String tableName) {
+        int nameId = tableName != null ? identifiers.lookup(tableName) : -1;
+        return nameId >= 0 ? tableIndexByNameId[nameId] : -1;
+    }
+
+    /**
+     * Returns the index of the given table, or -1 if it is not part of this graph.
+     */
+    public int indexOf(Table table) {
+        int nameId = table.getNameId();
+        int index = nameId >= 0 && nameId < tableIndexByNameId.length ? tableIndexByNameId[nameId] : -1;
+        if (index >= 0 && tables[index] == table) {
+            return index;
+        }
+        // Shadowed by a later table of the same name
+        for (int i = 0; i < tables.length; i++) {
+            if (tables[i] == table) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the referencing table of an edge.
+     */
+    public int edgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    /**
+     * Returns the index of the referenced table of an edge.
+     */
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * Returns the foreign key constraint an edge was built from.
+     */
+    public ForeignKeyConstraint edgeConstraint(int edge) {
+        return edgeConstraints[edge];
+    }
+
+    public int outDegree(int table) {
+        return outOffsets[table + 1] - outOffsets[table];
+    }
+
+    public int inDegree(int table) {
+        return inOffsets[table + 1] - inOffsets[table];
+    }
+
+    /**
+     * Returns the ids of the edges leaving a table, in constraint order.
+     */
+    public int[] outgoingEdges(int table) {
+        int[] edges = new int[outDegree(table)];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = outOffsets[table] + i;
+        }
+        return edges;
+    }
+
+    /**
+     * Returns the ids of the edges entering a table, ordered by referencing table.
+     */
+    public int[] incomingEdges(int table) {
+        return Arrays.copyOfRange(inEdges, inOffsets[table], inOffsets[table + 1]);
+    }
+
+    /**
+     * Returns the indexes of the tables a table references.
+     */
+    public BitSet referencedTables(int table) {
+        BitSet result = new BitSet(tables.length);
+        for (int e = outOffsets[table]; e < outOffsets[table + 1]; e++) {
+            result.set(edgeTargets[e]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indexes of the tables that reference a table.
+     */
+    public BitSet referencingTables(int table) {
+        BitSet result = new BitSet(tables.length);
+        for (int i = inOffsets[table]; i < inOffsets[table + 1]; i++) {
+            result.set(edgeSources[inEdges[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indexes of all tables reachable from a table by following foreign keys,
+     * excluding the table itself unless it lies on a cycle.
+     */
+    public BitSet reachableFrom(int table) {
+        return traverse(table, true);
+    }
+
+    /**
+     * Returns the indexes of all tables from which a table can be reached by following foreign keys,
+     * excluding the table itself unless it lies on a cycle.
+     */
+    public BitSet reachingTo(int table) {
+        return traverse(table, false);
+    }
+
+    private BitSet traverse(int start, boolean forward) {
+        BitSet visited = new BitSet(tables.length);
+        int[] stack = new int[tables.length + 1];
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int current = stack[--top];
+            int from = forward ? outOffsets[current] : inOffsets[current];
+            int to = forward ? outOffsets[current + 1] : inOffsets[current + 1];
+            for (int i = from; i < to; i++) {
+                int next = forward ? edgeTargets[i] : edgeSources[inEdges[i]];
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    stack[top++] = next;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Returns true if the graph was built from exactly this list of tables.
+     */
+    boolean isCurrent(List<Table> tables) {
+        if (tables.size() != this.tables.length) {
+            return false;
+        }
+        for (int i = 0; i < this.tables.length; i++) {
+            if (tables.get(i) != this.tables[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
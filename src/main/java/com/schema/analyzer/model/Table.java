@@ -1,15 +1,23 @@
 package com.schema.analyzer.model;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Represents a database table with columns, constraints, and relationships.
@@ -24,76 +32,202 @@ public class Table {
     @JsonManagedReference
     private List<Relationship> relationships = new ArrayList<>();
     
+    /**
+     * Id of the name in the schema's {@link IdentifierTable}, or -1 while the table is not part of a schema.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int nameId = -1;
+    
+    /**
+     * Lookup structures derived from the columns and constraints, built on first use.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile Indexes indexes;
+    
     public Table(String name) {
         this.name = name;
     }
     
+    public void setName(String name) {
+        this.name = name;
+        this.nameId = -1;
+    }
+    
+    void bindNameId(int nameId) {
+        this.nameId = nameId;
+    }
+    
+    public void setColumns(List<Column> columns) {
+        this.columns = columns;
+        this.indexes = null;
+    }
+    
+    public void setConstraints(List<Constraint> constraints) {
+        this.constraints = constraints;
+        this.indexes = null;
+    }
+    
     public void addColumn(Column column) {
         this.columns.add(column);
+        this.indexes = null;
     }
     
     public void addConstraint(Constraint constraint) {
         this.constraints.add(constraint);
+        this.indexes = null;
     }
     
     public void addRelationship(Relationship relationship) {
         this.relationships.add(relationship);
     }
     
+    /**
+     * Returns a copy of this table's definition (columns and constraints).
+     * Relationships are not copied, since they refer to other tables of a schema.
+     */
+    public Table copy() {
+        Table copy = new Table(name);
+        columns.forEach(column -> copy.addColumn(column.copy()));
+        constraints.forEach(constraint -> copy.addConstraint(constraint.copy()));
+        return copy;
+    }
+    
+    /**
+     * Builds the column and constraint indexes now rather than on first use.
+     */
+    public void buildIndexes() {
+        indexes();
+    }
+    
+    /**
+     * Discards the column and constraint indexes. Changes made through this class's setters and
+     * add methods do this automatically; call it after renaming a column or modifying a
+     * constraint in place.
+     */
+    public void invalidateIndexes() {
+        this.indexes = null;
+    }
+    
     /**
      * Returns the columns that form the primary key of this table.
      */
     public Set<Column> getPrimaryKeyColumns() {
-        Set<Column> pkColumns = new HashSet<>();
-        for (Constraint constraint : constraints) {
-            if (constraint.getType() == ConstraintType.PRIMARY_KEY) {
-                PrimaryKeyConstraint pk = (PrimaryKeyConstraint) constraint;
-                for (String colName : pk.getColumns()) {
-                    columns.stream()
-                        .filter(col -> col.getName().equalsIgnoreCase(colName))
-                        .findFirst()
-                        .ifPresent(pkColumns::add);
-                }
-            }
-        }
-        return pkColumns;
+        return indexes().primaryKeyColumns;
     }
     
     /**
      * Returns true if this table has a primary key.
      */
     public boolean hasPrimaryKey() {
-        return constraints.stream()
-            .anyMatch(c -> c.getType() == ConstraintType.PRIMARY_KEY);
+        return indexes().hasPrimaryKey;
     }
     
     /**
      * Returns all unique constraints defined on this table.
      */
     public List<UniqueConstraint> getUniqueConstraints() {
-        return constraints.stream()
-            .filter(c -> c.getType() == ConstraintType.UNIQUE)
-            .map(c -> (UniqueConstraint) c)
-            .collect(Collectors.toList());
+        return indexes().uniqueConstraints;
     }
     
     /**
      * Returns all foreign key constraints defined on this table.
      */
     public List<ForeignKeyConstraint> getForeignKeyConstraints() {
-        return constraints.stream()
-            .filter(c -> c.getType() == ConstraintType.FOREIGN_KEY)
-            .map(c -> (ForeignKeyConstraint) c)
-            .collect(Collectors.toList());
+        return indexes().foreignKeyConstraints;
     }
     
     /**
-     * Finds a column by name (case-insensitive).
+     * Finds a column by name (case-insensitive), or returns null if there is none or the name is null.
      */
     public Column findColumnByName(String name) {
-        return columns.stream()
-            .filter(c -> c.getName().equalsIgnoreCase(name))
-            .findFirst()
-            .orElse(null);
+        if (name == null) {
+            return null;
+        }
+        return indexes().columnsByFoldedName.get(IdentifierTable.fold(name));
+    }
+    
+    private Indexes indexes() {
+        Indexes current = indexes;
+        if (current == null || !current.isCurrent(this)) {
+            current = new Indexes(this);
+            indexes = current;
+        }
+        return current;
+    }
+    
+    /**
+     * Immutable snapshot of the lookups derived from a table's columns and constraints, so a
+     * table can be read from several threads once built.
+     */
+    private static final class Indexes {
+        private final List<Column> columns;
+        private final List<Constraint> constraints;
+        private final int columnCount;
+        private final int constraintCount;
+        
+        private final Map<String, Column> columnsByFoldedName;
+        private final Set<Column> primaryKeyColumns;
+        private final boolean hasPrimaryKey;
+        private final List<UniqueConstraint> uniqueConstraints;
+        private final List<ForeignKeyConstraint> foreignKeyConstraints;
+        
+        Indexes(Table table) {
+            this.columns = table.columns;
+            this.constraints = table.constraints;
+            this.columnCount = columns.size();
+            this.constraintCount = constraints.size();
+            
+            Map<String, Column> byName = new HashMap<>();
+            for (Column column : columns) {
+                // The first column wins, as with a linear search
+                byName.putIfAbsent(column.getFoldedName(), column);
+            }
+            this.columnsByFoldedName = byName;
+            
+            Set<Column> pkColumns = new HashSet<>();
+            boolean pk = false;
+            List<UniqueConstraint> unique = new ArrayList<>();
+            List<ForeignKeyConstraint> foreignKeys = new ArrayList<>();
+            for (Constraint constraint : constraints) {
+                switch (constraint.getType()) {
+                    case PRIMARY_KEY:
+                        pk = true;
+                        for (String colName : ((PrimaryKeyConstraint) constraint).getColumns()) {
+                            Column column = byName.get(IdentifierTable.fold(colName));
+                            if (column != null) {
+                                pkColumns.add(column);
+                            }
+                        }
+                        break;
+                    case UNIQUE:
+                        unique.add((UniqueConstraint) constraint);
+                        break;
+                    case FOREIGN_KEY:
+                        foreignKeys.add((ForeignKeyConstraint) constraint);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            this.primaryKeyColumns = Collections.unmodifiableSet(pkColumns);
+            this.hasPrimaryKey = pk;
+            this.uniqueConstraints = Collections.unmodifiableList(unique);
+            this.foreignKeyConstraints = Collections.unmodifiableList(foreignKeys);
+        }
+        
+        /**
+         * Cheap guard against the lists having been replaced or grown behind the table's back.
+         */
+        boolean isCurrent(Table table) {
+            return columns == table.columns && constraints == table.constraints
+                && columnCount == columns.size() && constraintCount == constraints.size();
+        }
     }
-}
\ No newline at end of file
+}
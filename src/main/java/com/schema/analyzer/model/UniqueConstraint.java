@@ -25,4 +25,9 @@ public class UniqueConstraint extends Constraint {
         super(ConstraintType.UNIQUE);
         this.columns = columns;
     }
+    
+    @Override
+    public UniqueConstraint copy() {
+        return new UniqueConstraint(getName(), new ArrayList<>(columns));
+    }
 }
@@ -0,0 +1,274 @@
+package com.schema.analyzer.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The word lists the naming heuristics compare column names with, compiled into a single
+ * keyword automaton so that a column name is classified against all of them in one pass.
+ *
+ * The built-in terms are read from {@code vocabulary.properties} on the classpath; further
+ * terms can be added from a file in the same format with {@link #extendedWith(Properties)}.
+ * Each key has the form {@code <category>.<match>}, e.g. {@code address.equals}, and its
+ * value is a comma-separated list of terms. Terms are compared with case-folded names.
+ */
+public final class Vocabulary {
+
+    private static final String BUILT_IN_RESOURCE = "/vocabulary.properties";
+
+    /**
+     * What a column name is classified as.
+     */
+    public enum Category {
+        /** TEXT columns that usually hold atomic free text, e.g. description. */
+        TEXT_CONTENT,
+        /** BLOB columns that usually hold a single binary value, e.g. photo. */
+        BINARY_CONTENT,
+        /** Columns that identify an entity, e.g. customer_id. */
+        IDENTIFIER,
+        /** Common descriptive attributes of an entity, e.g. customer_name. */
+        ATTRIBUTE,
+        /** Columns naming or describing the entity a code or id column identifies. */
+        DESCRIPTION,
+        /** Parts of an address. */
+        ADDRESS,
+        /** Prices, costs and other amounts. */
+        AMOUNT,
+        /** Amounts that are usually calculated from others, e.g. subtotal. */
+        CALCULATED;
+
+        /**
+         * Returns true if the categories returned by {@link Vocabulary#classify} include this one.
+         */
+        public boolean in(int categories) {
+            return (categories & bit()) != 0;
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    /**
+     * How a term is compared with a column name.
+     */
+    public enum Match {
+        /** The name contains the term. */
+        CONTAINS,
+        /** The name is the term. */
+        EQUALS,
+        /** The name ends with "_" followed by the term, which must be a single word. */
+        LAST_WORD;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private static volatile Vocabulary defaults;
+
+    private final Map<Category, Map<Match, Set<String>>> terms;
+    private final KeywordAutomaton automaton;
+    private final int[] anywhere;
+    private final int[] wholeName;
+    private final int[] atEnd;
+
+    private Vocabulary(Map<Category, Map<Match, Set<String>>> terms) {
+        this.terms = terms;
+
+        // One keyword per distinct text; last words are matched as "_<word>" at the end of the name
+        Map<String, Integer> keywordIds = new LinkedHashMap<>();
+        List<int[]> masks = new ArrayList<>();
+        for (Map.Entry<Category, Map<Match, Set<String>>> category : terms.entrySet()) {
+            for (Map.Entry<Match, Set<String>> match : category.getValue().entrySet()) {
+                for (String term : match.getValue()) {
+                    String keyword = match.getKey() == Match.LAST_WORD ? "_" + term : term;
+                    int id = keywordIds.computeIfAbsent(keyword, k -> {
+                        masks.add(new int[Match.values().length]);
+                        return masks.size() - 1;
+                    });
+                    masks.get(id)[match.getKey().ordinal()] |= category.getKey().bit();
+                }
+            }
+        }
+
+        automaton = new KeywordAutomaton(new ArrayList<>(keywordIds.keySet()));
+        anywhere = new int[masks.size()];
+        wholeName = new int[masks.size()];
+        atEnd = new int[masks.size()];
+        for (int id = 0; id < masks.size(); id++) {
+            anywhere[id] = masks.get(id)[Match.CONTAINS.ordinal()];
+            wholeName[id] = masks.get(id)[Match.EQUALS.ordinal()];
+            atEnd[id] = masks.get(id)[Match.LAST_WORD.ordinal()];
+        }
+    }
+
+    /**
+     * Returns the built-in vocabulary.
+     */
+    public static Vocabulary defaults() {
+        Vocabulary vocabulary = defaults;
+        if (vocabulary == null) {
+            try (InputStream in = Vocabulary.class.getResourceAsStream(BUILT_IN_RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing " + BUILT_IN_RESOURCE);
+                }
+                vocabulary = fromProperties(load(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + BUILT_IN_RESOURCE, e);
+            }
+            defaults = vocabulary;
+        }
+        return vocabulary;
+    }
+
+    /**
+     * Reads vocabulary properties.
+     */
+    public static Properties load(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        return properties;
+    }
+
+    /**
+     * Creates a vocabulary from {@code <category>.<match>} properties.
+     *
+     * @throws IllegalArgumentException if a key names an unknown category or match, or a
+     *                                  last word contains "_"
+     */
+    public static Vocabulary fromProperties(Properties properties) {
+        return new Vocabulary(addTerms(new EnumMap<>(Category.class), properties));
+    }
+
+    /**
+     * Returns a vocabulary with the terms of this one and those of the given properties.
+     *
+     * @throws IllegalArgumentException if a key names an unknown category or match, or a
+     *                                  last word contains "_"
+     */
+    public Vocabulary extendedWith(Properties properties) {
+        Map<Category, Map<Match, Set<String>>> combined = new EnumMap<>(Category.class);
+        terms.forEach((category, byMatch) -> byMatch.forEach((match, words) ->
+            combined.computeIfAbsent(category, c -> new EnumMap<>(Match.class))
+                .computeIfAbsent(match, m -> new LinkedHashSet<>())
+                .addAll(words)));
+        return new Vocabulary(addTerms(combined, properties));
+    }
+
+    /**
+     * Returns the terms of a category that are compared in the given way.
+     */
+    public Set<String> getTerms(Category category, Match match) {
+        return Collections.unmodifiableSet(
+            terms.getOrDefault(category, Map.of()).getOrDefault(match, Set.of()));
+    }
+
+    /**
+     * Classifies the name of a column, remembering the result on the column so every
+     * column name is scanned once per vocabulary.
+     *
+     * @return The matching categories, to be tested with {@link Category#in(int)}
+     */
+    public int classify(Column column) {
+        Classification classification = column.getClassification();
+        if (classification == null || classification.vocabulary != this) {
+            classification = new Classification(this, classify(column.getFoldedName()));
+            column.setClassification(classification);
+        }
+        return classification.categories;
+    }
+
+    /**
+     * Classifies a case-folded column name against all categories in a single pass.
+     *
+     * @return The matching categories, to be tested with {@link Category#in(int)}
+     */
+    public int classify(String foldedName) {
+        int categories = 0;
+        int length = foldedName.length();
+        int state = 0;
+        for (int end = 1; end <= length; end++) {
+            state = automaton.next(state, foldedName.charAt(end - 1));
+            for (int keyword : automaton.matches(state)) {
+                categories |= anywhere[keyword];
+                if (end == length) {
+                    categories |= atEnd[keyword];
+                    if (automaton.length(keyword) == length) {
+                        categories |= wholeName[keyword];
+                    }
+                }
+            }
+        }
+        return categories;
+    }
+
+    private static Map<Category, Map<Match, Set<String>>> addTerms(Map<Category, Map<Match, Set<String>>> terms,
+                                                                   Properties properties) {
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            int dot = key.lastIndexOf('.');
+            Category category = dot > 0 ? findByKey(Category.values(), key.substring(0, dot)) : null;
+            Match match = dot > 0 ? findByKey(Match.values(), key.substring(dot + 1)) : null;
+            if (category == null || match == null) {
+                throw new IllegalArgumentException("Unknown vocabulary key: " + key);
+            }
+
+            Set<String> words = terms.computeIfAbsent(category, c -> new EnumMap<>(Match.class))
+                .computeIfAbsent(match, m -> new LinkedHashSet<>());
+            for (String term : properties.getProperty(key).split(",")) {
+                String word = IdentifierTable.fold(term.trim());
+                if (word.isEmpty()) {
+                    continue;
+                }
+                if (match == Match.LAST_WORD && word.indexOf('_') >= 0) {
+                    throw new IllegalArgumentException("Last word contains '_': " + key + "=" + word);
+                }
+                words.add(word);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The categories of a column name in a vocabulary. Immutable, so a column may be
+     * classified by several threads at once.
+     */
+    static final class Classification {
+        private final Vocabulary vocabulary;
+        private final int categories;
+
+        Classification(Vocabulary vocabulary, int categories) {
+            this.vocabulary = vocabulary;
+            this.categories = categories;
+        }
+    }
+
+    private static <E extends Enum<E>> E findByKey(E[] values, String key) {
+        for (E value : values) {
+            String valueKey = value instanceof Category ? ((Category) value).key() : ((Match) value).key();
+            if (valueKey.equals(key)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,324 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.DatabaseSchema;
+import com.schema.analyzer.model.NormalizationForm;
+import com.schema.analyzer.model.NormalizationIssue;
+import com.schema.analyzer.model.RuleMetrics;
+import com.schema.analyzer.model.Table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State shared by the normalization analyzers while analyzing one schema.
+ *
+ * Each normal form builds on the one below it, so the analyzers ask the context for the
+ * issues of the lower forms instead of calling the lower analyzers themselves. The context
+ * runs each analyzer at most once and hands out the same (unmodifiable) list afterwards.
+ * A context belongs to a single request and is not meant to be shared between threads;
+ * only the per-table checks passed to {@link #analyzeTables} may run on pool threads.
+ */
+public class AnalysisContext {
+
+    /**
+     * Smallest number of tables checked by one fork-join task. Checking a table takes
+     * microseconds, so smaller tasks would cost more to schedule than they save.
+     */
+    private static final int MIN_TABLES_PER_TASK = 32;
+
+    /**
+     * Tasks per pool thread, so that threads finishing early can steal work.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final DatabaseSchema schema;
+    private final ForkJoinPool pool;
+    private final RuleSelection ruleSelection;
+    private final boolean stopAtFirstViolation;
+    private volatile boolean violationFound;
+    private final Deadline deadline;
+    private volatile boolean outOfTime;
+    private NormalizationForm interruptedForm;
+    private final Map<NormalizationForm, List<NormalizationIssue>> issuesByForm = new EnumMap<>(NormalizationForm.class);
+    private final Map<String, RuleCounters> ruleCounters = new LinkedHashMap<>();
+
+    /**
+     * Creates a context that runs all rules and checks tables serially on the calling thread.
+     */
+    public AnalysisContext(DatabaseSchema schema) {
+        this(schema, null, RuleSelection.ALL);
+    }
+
+    /**
+     * Creates a context that runs all rules and spreads per-table checks over a fork-join pool.
+     *
+     * @param pool Pool to run per-table checks on; null checks tables on the calling thread
+     */
+    public AnalysisContext(DatabaseSchema schema, ForkJoinPool pool) {
+        this(schema, pool, RuleSelection.ALL);
+    }
+
+    /**
+     * Creates a context.
+     *
+     * @param pool Pool to run per-table checks on; null checks tables on the calling thread
+     * @param ruleSelection The rules to run
+     */
+    public AnalysisContext(DatabaseSchema schema, ForkJoinPool pool, RuleSelection ruleSelection) {
+        this(schema, pool, ruleSelection, false);
+    }
+
+    /**
+     * Creates a context, optionally for a compliance check.
+     *
+     * @param pool Pool to run per-table checks on; null checks tables on the calling thread
+     * @param ruleSelection The rules to run
+     * @param stopAtFirstViolation True to only decide whether each form is achieved: the
+     *                             analysis of a form stops at its first critical issue, so
+     *                             the issues found are incomplete
+     */
+    public AnalysisContext(DatabaseSchema schema, ForkJoinPool pool, RuleSelection ruleSelection,
+                           boolean stopAtFirstViolation) {
+        this(schema, pool, ruleSelection, stopAtFirstViolation, Deadline.NONE);
+    }
+
+    /**
+     * Creates a context whose analysis stops when a deadline passes.
+     *
+     * @param pool Pool to run per-table checks on; null checks tables on the calling thread
+     * @param ruleSelection The rules to run
+     * @param stopAtFirstViolation True to stop the analysis of each form at its first critical issue
+     * @param deadline Checked between tables and between rules; once it has passed, the
+     *                 remaining checks are skipped and the analysis is incomplete
+     */
+    public AnalysisContext(DatabaseSchema schema, ForkJoinPool pool, RuleSelection ruleSelection,
+                           boolean stopAtFirstViolation, Deadline deadline) {
+        this.schema = schema;
+        this.pool = pool;
+        this.ruleSelection = ruleSelection;
+        this.stopAtFirstViolation = stopAtFirstViolation;
+        this.deadline = deadline;
+    }
+
+    /**
+     * A check of a single table, adding any issues it finds to the given list.
+     * Checks run concurrently for different tables, so they must not share mutable state.
+     */
+    @FunctionalInterface
+    public interface TableCheck {
+        void analyze(Table table, List<NormalizationIssue> issues);
+    }
+
+    /**
+     * Returns the schema being analyzed.
+     */
+    public DatabaseSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the issues found by an analyzer, running it only if its form has not been
+     * analyzed in this context yet.
+     */
+    public List<NormalizationIssue> getIssues(NormalizationAnalyzer analyzer) {
+        List<NormalizationIssue> issues = issuesByForm.get(analyzer.getForm());
+        if (issues == null) {
+            issues = Collections.unmodifiableList(analyzer.analyze(this));
+            issuesByForm.put(analyzer.getForm(), issues);
+            if (outOfTime && interruptedForm == null) {
+                interruptedForm = analyzer.getForm();
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Returns true once the deadline has passed, which makes the analysis incomplete.
+     * Checked between tables, and by the analyzers between the rules run on a table.
+     * May be called from pool threads.
+     */
+    public boolean isOutOfTime() {
+        if (!outOfTime && deadline.isExpired()) {
+            outOfTime = true;
+        }
+        return outOfTime;
+    }
+
+    /**
+     * Returns the deadline of the analysis.
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Returns true if some check was skipped because the deadline passed.
+     */
+    public boolean isIncomplete() {
+        return outOfTime;
+    }
+
+    /**
+     * Returns the first form whose analysis the deadline cut short, or null if none was.
+     * Its issues, and those of the forms above it, are incomplete.
+     */
+    public NormalizationForm getInterruptedForm() {
+        return interruptedForm;
+    }
+
+    /**
+     * Returns true if the analysis of each form stops at its first critical issue.
+     */
+    public boolean isStopAtFirstViolation() {
+        return stopAtFirstViolation;
+    }
+
+    /**
+     * Records that a check found a critical issue. When stopping at the first violation,
+     * the tables of the current {@link #analyzeTables} call that have not been checked yet
+     * are skipped. May be called from pool threads.
+     */
+    public void reportViolation() {
+        violationFound = true;
+    }
+
+    private boolean shouldStop() {
+        return (stopAtFirstViolation && violationFound) || isOutOfTime();
+    }
+
+    /**
+     * Returns the rules this analysis runs.
+     */
+    public RuleSelection getRuleSelection() {
+        return ruleSelection;
+    }
+
+    /**
+     * Returns the time and allocation of each rule that ran, in the order the rules first ran.
+     */
+    public List<RuleMetrics> getRuleMetrics() {
+        List<RuleMetrics> metrics = new ArrayList<>();
+        for (RuleCounters counters : ruleCounters.values()) {
+            metrics.add(counters.toMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the counters of a rule, creating them on first use. Called before tables are
+     * handed to other threads; the counters themselves may be updated concurrently.
+     */
+    RuleCounters countersFor(NormalizationRule rule) {
+        return ruleCounters.computeIfAbsent(rule.getId(), id -> new RuleCounters(rule));
+    }
+
+    /**
+     * Returns true if the given form has already been analyzed in this context.
+     */
+    public boolean isAnalyzed(NormalizationForm form) {
+        return issuesByForm.containsKey(form);
+    }
+
+    /**
+     * Runs a check on every table of the schema and returns the issues found, in table order.
+     * With a pool the tables are split into ranges checked in parallel, and the issues of each
+     * range are concatenated in order, so the result is the same as checking them serially.
+     */
+    public List<NormalizationIssue> analyzeTables(TableCheck check) {
+        List<Table> tables = schema.getTables();
+        // Bind identifiers before tables are handed to other threads
+        schema.getIdentifiers();
+        // Each form's analysis stops at its own first violation
+        violationFound = false;
+        
+        if (pool == null || pool.getParallelism() < 2 || tables.size() < 2 * MIN_TABLES_PER_TASK) {
+            return checkTables(check, tables, 0, tables.size());
+        }
+        int tasks = pool.getParallelism() * TASKS_PER_THREAD;
+        int tablesPerTask = Math.max(MIN_TABLES_PER_TASK, (tables.size() + tasks - 1) / tasks);
+        return pool.invoke(new TableRangeTask(this, check, tables, 0, tables.size(), tablesPerTask));
+    }
+
+    private List<NormalizationIssue> checkTables(TableCheck check, List<Table> tables, int from, int to) {
+        List<NormalizationIssue> issues = new ArrayList<>();
+        for (int i = from; i < to && !shouldStop(); i++) {
+            check.analyze(tables.get(i), issues);
+        }
+        return issues;
+    }
+
+    /**
+     * Checks a range of tables, splitting it in halves until ranges are small enough.
+     */
+    private static final class TableRangeTask extends RecursiveTask<List<NormalizationIssue>> {
+        private final AnalysisContext context;
+        private final TableCheck check;
+        private final List<Table> tables;
+        private final int from;
+        private final int to;
+        private final int tablesPerTask;
+
+        TableRangeTask(AnalysisContext context, TableCheck check, List<Table> tables, int from, int to,
+                       int tablesPerTask) {
+            this.context = context;
+            this.check = check;
+            this.tables = tables;
+            this.from = from;
+            this.to = to;
+            this.tablesPerTask = tablesPerTask;
+        }
+
+        @Override
+        protected List<NormalizationIssue> compute() {
+            if (to - from <= tablesPerTask) {
+                return context.checkTables(check, tables, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            TableRangeTask right = new TableRangeTask(context, check, tables, middle, to, tablesPerTask);
+            right.fork();
+            List<NormalizationIssue> issues =
+                new TableRangeTask(context, check, tables, from, middle, tablesPerTask).compute();
+            issues.addAll(right.join());
+            return issues;
+        }
+    }
+
+    /**
+     * Running totals of one rule's cost.
+     */
+    static final class RuleCounters {
+        private final NormalizationRule rule;
+        private final LongAdder tables = new LongAdder();
+        private final LongAdder issues = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private volatile boolean allocationUnknown;
+
+        RuleCounters(NormalizationRule rule) {
+            this.rule = rule;
+        }
+
+        void record(int issuesFound, long elapsedNanos, long allocatedBytes) {
+            tables.increment();
+            issues.add(issuesFound);
+            nanos.add(elapsedNanos);
+            if (allocatedBytes >= 0) {
+                bytes.add(allocatedBytes);
+            } else {
+                allocationUnknown = true;
+            }
+        }
+
+        RuleMetrics toMetrics() {
+            return new RuleMetrics(rule.getId(), rule.getForm(), tables.sum(), issues.sum(), nanos.sum(),
+                                   allocationUnknown ? -1 : bytes.sum());
+        }
+    }
+}
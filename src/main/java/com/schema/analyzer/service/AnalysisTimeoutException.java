@@ -0,0 +1,12 @@
+package com.schema.analyzer.service;
+
+/**
+ * Exception thrown when the time budget of a request runs out before a result that cannot
+ * be partial, such as a compliance check, has been decided.
+ */
+public class AnalysisTimeoutException extends SchemaAnalysisException {
+    
+    public AnalysisTimeoutException(String message) {
+        super(message);
+    }
+}
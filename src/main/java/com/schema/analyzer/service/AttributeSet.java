@@ -0,0 +1,168 @@
+package com.schema.analyzer.service;
+
+import java.util.Arrays;
+
+/**
+ * Operations on sets of attributes (column positions) stored as {@code long[]} bitsets.
+ *
+ * All sets used together must be created with the same attribute count, so they have the
+ * same number of words; the operations do not check this. Unlike {@link java.util.BitSet}
+ * the arrays never grow, so the functional dependency algorithms can work on them without
+ * allocating.
+ */
+public final class AttributeSet {
+
+    private AttributeSet() {
+    }
+
+    /**
+     * Returns an empty set for the given number of attributes.
+     */
+    public static long[] empty(int attributeCount) {
+        return new long[(attributeCount + 63) >>> 6];
+    }
+
+    /**
+     * Returns the set of all attributes.
+     */
+    public static long[] all(int attributeCount) {
+        long[] set = empty(attributeCount);
+        for (int attribute = 0; attribute < attributeCount; attribute++) {
+            add(set, attribute);
+        }
+        return set;
+    }
+
+    /**
+     * Returns a set with the given attributes.
+     */
+    public static long[] of(int attributeCount, int... attributes) {
+        long[] set = empty(attributeCount);
+        for (int attribute : attributes) {
+            add(set, attribute);
+        }
+        return set;
+    }
+
+    public static void add(long[] set, int attribute) {
+        set[attribute >>> 6] |= 1L << attribute;
+    }
+
+    public static void remove(long[] set, int attribute) {
+        set[attribute >>> 6] &= ~(1L << attribute);
+    }
+
+    public static boolean contains(long[] set, int attribute) {
+        return (set[attribute >>> 6] & (1L << attribute)) != 0;
+    }
+
+    public static boolean isEmpty(long[] set) {
+        for (long word : set) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int size(long[] set) {
+        int size = 0;
+        for (long word : set) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * Returns true if every attribute of {@code subset} is in {@code set}.
+     */
+    public static boolean containsAll(long[] set, long[] subset) {
+        for (int i = 0; i < set.length; i++) {
+            if ((subset[i] & ~set[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the two sets have an attribute in common.
+     */
+    public static boolean intersects(long[] first, long[] second) {
+        for (int i = 0; i < first.length; i++) {
+            if ((first[i] & second[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the union of two sets as a new set.
+     */
+    public static long[] union(long[] first, long[] second) {
+        long[] result = first.clone();
+        for (int i = 0; i < result.length; i++) {
+            result[i] |= second[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the attributes in both sets as a new set.
+     */
+    public static long[] intersection(long[] first, long[] second) {
+        long[] result = first.clone();
+        for (int i = 0; i < result.length; i++) {
+            result[i] &= second[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the attributes of {@code set} that are not in {@code removed}, as a new set.
+     */
+    public static long[] difference(long[] set, long[] removed) {
+        long[] result = set.clone();
+        for (int i = 0; i < result.length; i++) {
+            result[i] &= ~removed[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first attribute at or after {@code from}, or -1 if there is none.
+     */
+    public static int next(long[] set, int from) {
+        int index = from >>> 6;
+        if (index >= set.length) {
+            return -1;
+        }
+        long word = set[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == set.length) {
+                return -1;
+            }
+            word = set[index];
+        }
+    }
+
+    /**
+     * Returns the attributes of a set in increasing order.
+     */
+    public static int[] toArray(long[] set) {
+        int[] attributes = new int[size(set)];
+        int i = 0;
+        for (int attribute = next(set, 0); attribute >= 0; attribute = next(set, attribute + 1)) {
+            attributes[i++] = attribute;
+        }
+        return attributes;
+    }
+
+    public static boolean equals(long[] first, long[] second) {
+        return Arrays.equals(first, second);
+    }
+}
@@ -0,0 +1,140 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Analyzer for Boyce-Codd Normal Form (BCNF).
+ *
+ * A table is in BCNF if:
+ * 1. It is in 3NF
+ * 2. The determinant of every non-trivial functional dependency is a superkey
+ *
+ * Unlike the lower forms, this analyzer reasons about functional dependencies rather than
+ * column names alone: the dependencies implied by the table's keys, those added by
+ * registered {@link DependencySource}s, and code/name dependencies inferred from the
+ * vocabulary. A 3NF table can still violate BCNF when part of a candidate key depends on
+ * a column that is not a key. Discovered and inferred dependencies that determine
+ * non-prime columns are left to the 2NF and 3NF analyzers, which report them as the
+ * partial or transitive dependencies they are.
+ */
+@Service
+@Slf4j
+public class BoyceCoddNormalFormAnalyzer extends RuleBasedAnalyzer {
+
+    private final ThirdNormalFormAnalyzer thirdNfAnalyzer;
+    private final List<DependencySource> dependencySources = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an analyzer using the built-in vocabulary.
+     */
+    public BoyceCoddNormalFormAnalyzer(ThirdNormalFormAnalyzer thirdNfAnalyzer) {
+        this(thirdNfAnalyzer, Vocabulary.defaults());
+    }
+
+    public BoyceCoddNormalFormAnalyzer(ThirdNormalFormAnalyzer thirdNfAnalyzer, Vocabulary vocabulary) {
+        this.thirdNfAnalyzer = thirdNfAnalyzer;
+
+        addDependencySource(new CodeNameDependencies(vocabulary));
+        addRule("bcnf.non-key-determinants", this::detectNonKeyDeterminants);
+    }
+
+    /**
+     * Creates an analyzer that also uses the dependency sources defined as beans, such as
+     * the dependencies discovered in sample data.
+     */
+    @Autowired
+    public BoyceCoddNormalFormAnalyzer(ThirdNormalFormAnalyzer thirdNfAnalyzer, Vocabulary vocabulary,
+                                       ObjectProvider<DependencySource> dependencySources) {
+        this(thirdNfAnalyzer, vocabulary);
+        dependencySources.orderedStream().forEach(this::addDependencySource);
+    }
+
+    @Override
+    public NormalizationForm getForm() {
+        return NormalizationForm.BOYCE_CODD_NORMAL_FORM;
+    }
+
+    @Override
+    protected List<NormalizationIssue> checkLowerForms(AnalysisContext context) {
+        // First, check if schema is in 3NF
+        List<NormalizationIssue> thirdNfIssues = context.getIssues(thirdNfAnalyzer);
+        if (!thirdNfIssues.isEmpty()) {
+            // If not in 3NF, report only 3NF issues (which include 1NF and 2NF issues)
+            return thirdNfIssues;
+        }
+        return null;
+    }
+
+
+    /**
+     * Registers a source of functional dependencies, used after the ones registered so far.
+     * A source of discovered dependencies should be registered with the 2NF and 3NF analyzers
+     * too, which report the ones this analyzer leaves out.
+     */
+    public void addDependencySource(DependencySource source) {
+        dependencySources.add(source);
+    }
+
+    /**
+     * Returns the functional dependencies of a table: those implied by its keys and those
+     * supplied by the registered sources.
+     */
+    public FunctionalDependencies dependenciesOf(TableContext tableContext) {
+        return DependencyIssues.dependenciesOf(tableContext, dependencySources);
+    }
+
+    /**
+     * Reports every dependency whose determinant is not a superkey of the table.
+     */
+    private void detectNonKeyDeterminants(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        FunctionalDependencies dependencies = dependenciesOf(tableContext);
+        List<FunctionalDependency> violations = dependencies.bcnfViolations();
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        List<long[]> keys = dependencies.candidateKeys();
+        String candidateKeys = keys.stream()
+            .map(key -> "(" + dependencies.namesOf(key) + ")")
+            .collect(Collectors.joining(", "));
+
+        for (FunctionalDependency violation : violations) {
+            boolean discovered = violation.getOrigin() == FunctionalDependency.Origin.DISCOVERED;
+            boolean inferred = violation.getOrigin() == FunctionalDependency.Origin.INFERRED;
+            if ((discovered || inferred) && dependencies.violatedForm(violation, keys) != getForm()) {
+                // A partial or transitive dependency, reported by the 2NF or 3NF analyzer
+                continue;
+            }
+            long[] determinant = violation.getDeterminant();
+            // Move everything the determinant determines, not just this dependency's columns
+            long[] dependents = AttributeSet.difference(dependencies.closure(determinant), determinant);
+            log.debug("Table {}: {} -> {} violates BCNF", table.getName(),
+                dependencies.namesOf(determinant), dependencies.namesOf(dependents));
+
+            List<Column> determinantColumns = dependencies.columnsOf(determinant);
+            List<Column> dependentColumns = dependencies.columnsOf(dependents);
+            NormalizationIssue issue = new NormalizationIssue(
+                discovered ? IssueCode.SAMPLE_NON_KEY_DETERMINANT : IssueCode.NON_KEY_DETERMINANT,
+                table.getName(),
+                dependencies.namesOf(AttributeSet.difference(violation.getDependent(), determinant)),
+                () -> DependencyIssues.decompositionSql(table, determinantColumns, dependentColumns),
+                dependencies.namesOf(determinant),
+                candidateKeys.isEmpty() ? "none" : candidateKeys,
+                dependencies.namesOf(dependents)
+            );
+            issue.setDependency(
+                determinantColumns.stream().map(Column::getName).collect(Collectors.toList()),
+                dependentColumns.stream().map(Column::getName).collect(Collectors.toList()));
+            issues.add(issue);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Vocabulary;
+
+import java.util.BitSet;
+
+/**
+ * Infers that an identifying column determines the columns naming or describing the same
+ * entity, e.g. category_code → category_name. Unlike the 3NF code/name rule this includes
+ * key columns, so the dependency may be partial, transitive or only violate BCNF.
+ */
+final class CodeNameDependencies implements DependencySource {
+
+    private final Vocabulary vocabulary;
+
+    CodeNameDependencies(Vocabulary vocabulary) {
+        this.vocabulary = vocabulary;
+    }
+
+    @Override
+    public void addDependencies(TableContext tableContext, FunctionalDependencies dependencies) {
+        ColumnNameIndex names = tableContext.getColumnNameIndex();
+        BitSet identifiers = new BitSet();
+        BitSet descriptions = new BitSet();
+        for (int i = 0; i < names.size(); i++) {
+            int categories = vocabulary.classify(names.getColumn(i));
+            if (Vocabulary.Category.IDENTIFIER.in(categories)) {
+                identifiers.set(i);
+            }
+            if (Vocabulary.Category.DESCRIPTION.in(categories)) {
+                descriptions.set(i);
+            }
+        }
+
+        for (int i = identifiers.nextSetBit(0); i >= 0; i = identifiers.nextSetBit(i + 1)) {
+            // Without a prefix (a column named just "code") there is no entity to match
+            String stem = names.getStem(i);
+            if (stem == null) {
+                continue;
+            }
+            BitSet described = names.withPrefix(stem);
+            described.and(descriptions);
+            described.clear(i);
+            if (described.isEmpty()) {
+                continue;
+            }
+            long[] dependent = dependencies.empty();
+            for (int j = described.nextSetBit(0); j >= 0; j = described.nextSetBit(j + 1)) {
+                AttributeSet.add(dependent, j);
+            }
+            dependencies.add(AttributeSet.of(names.size(), i), dependent, FunctionalDependency.Origin.INFERRED);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Index of the folded names of a list of columns, each split once on "_" into words, for
+ * the naming heuristics of the analyzers. For example order_line_total has the words
+ * order, line and total, the prefixes order and order_line, the stem order_line and the
+ * last word total.
+ *
+ * Lookups return the positions of the matching columns in the indexed list, so iterating a
+ * result visits the columns in table order. Results are new BitSets the caller may modify.
+ * Each part of the index is built on first use; an instance is used by a single thread.
+ */
+public class ColumnNameIndex {
+
+    private final List<Column> columns;
+    private final String[] names;
+
+    private String[] firstWords;
+    private String[] stems;
+    private String[] lastWords;
+    private Map<String, Positions> positionsByPrefix;
+    private Map<String, Positions> positionsByLastWord;
+    private Map<String, Positions> positionsByWord;
+    private int[] positionsByName;
+
+    public ColumnNameIndex(List<Column> columns) {
+        this.columns = columns;
+        this.names = new String[columns.size()];
+        for (int position = 0; position < names.length; position++) {
+            names[position] = columns.get(position).getFoldedName();
+        }
+    }
+
+    /**
+     * Returns the number of indexed columns.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the column at the given position.
+     */
+    public Column getColumn(int position) {
+        return columns.get(position);
+    }
+
+    /**
+     * Returns the columns at the given positions, in table order.
+     */
+    public List<Column> getColumns(BitSet positions) {
+        List<Column> result = new ArrayList<>(positions.cardinality());
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            result.add(columns.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the folded name of the column at the given position.
+     */
+    public String getName(int position) {
+        return names[position];
+    }
+
+    /**
+     * Returns the word before the first "_" (order for order_line_total), or null if the
+     * name has no "_".
+     */
+    public String getFirstWord(int position) {
+        splitNames();
+        return firstWords[position];
+    }
+
+    /**
+     * Returns the name without its last word (order_line for order_line_total), or null if
+     * the name has no "_".
+     */
+    public String getStem(int position) {
+        splitNames();
+        return stems[position];
+    }
+
+    /**
+     * Returns the word after the last "_" (total for order_line_total), or null if the name
+     * has no "_".
+     */
+    public String getLastWord(int position) {
+        splitNames();
+        return lastWords[position];
+    }
+
+    /**
+     * Returns the names that start with the given prefix followed by "_", e.g. order_line
+     * matches order_line_total but not order_lines.
+     */
+    public BitSet withPrefix(String prefix) {
+        splitNames();
+        return lookup(positionsByPrefix, prefix);
+    }
+
+    /**
+     * Returns the names that end with "_" followed by the given word, e.g. total matches
+     * order_total but not subtotal.
+     */
+    public BitSet withLastWord(String word) {
+        splitNames();
+        return lookup(positionsByLastWord, word);
+    }
+
+    /**
+     * Returns the names that contain the given words as whole words, e.g. order_line matches
+     * order_line and sales_order_line_total but not reorder_line.
+     */
+    public BitSet containingWords(String words) {
+        return findWords(words, false);
+    }
+
+    /**
+     * Returns the names in which the given words are followed by another word, e.g. order
+     * matches order_date and sales_order_total but not customer_order.
+     */
+    public BitSet withQualifier(String words) {
+        return findWords(words, true);
+    }
+
+    /**
+     * Returns the names that start with the given text, whether or not it ends on a word.
+     */
+    public BitSet startingWith(String prefix) {
+        if (positionsByName == null) {
+            positionsByName = IntStream.range(0, names.length)
+                .boxed()
+                .sorted(Comparator.comparing(position -> names[position]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+
+        int low = 0;
+        int high = positionsByName.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (names[positionsByName[middle]].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        BitSet positions = new BitSet();
+        for (int i = low; i < positionsByName.length && names[positionsByName[i]].startsWith(prefix); i++) {
+            positions.set(positionsByName[i]);
+        }
+        return positions;
+    }
+
+    private BitSet findWords(String words, boolean followedByWord) {
+        if (positionsByWord == null) {
+            positionsByWord = new HashMap<>();
+            for (int position = 0; position < names.length; position++) {
+                String name = names[position];
+                int wordStart = 0;
+                for (int end = name.indexOf('_'); end >= 0; end = name.indexOf('_', wordStart)) {
+                    add(positionsByWord, name.substring(wordStart, end), position);
+                    wordStart = end + 1;
+                }
+                add(positionsByWord, name.substring(wordStart), position);
+            }
+        }
+
+        int firstWordEnd = words.indexOf('_');
+        BitSet positions = lookup(positionsByWord, firstWordEnd < 0 ? words : words.substring(0, firstWordEnd));
+        if (firstWordEnd < 0 && !followedByWord) {
+            return positions;
+        }
+
+        // Candidates contain the first word; check the words really follow each other
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            if (!containsWords(names[position], words, followedByWord)) {
+                positions.clear(position);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Splits every name into its first word, stem and last word and indexes the prefixes
+     * and last words.
+     */
+    private void splitNames() {
+        if (positionsByPrefix != null) {
+            return;
+        }
+        firstWords = new String[names.length];
+        stems = new String[names.length];
+        lastWords = new String[names.length];
+        positionsByPrefix = new HashMap<>();
+        positionsByLastWord = new HashMap<>();
+
+        for (int position = 0; position < names.length; position++) {
+            String name = names[position];
+            int firstEnd = name.indexOf('_');
+            if (firstEnd < 0) {
+                continue;
+            }
+            int lastEnd = firstEnd;
+            for (int end = firstEnd; end >= 0; end = name.indexOf('_', end + 1)) {
+                add(positionsByPrefix, name.substring(0, end), position);
+                lastEnd = end;
+            }
+            firstWords[position] = name.substring(0, firstEnd);
+            stems[position] = name.substring(0, lastEnd);
+            lastWords[position] = name.substring(lastEnd + 1);
+            add(positionsByLastWord, lastWords[position], position);
+        }
+    }
+
+    /**
+     * Returns true if the words occur in the name starting on a word, and followed by "_"
+     * (or, unless followedByWord, by the end of the name).
+     */
+    private static boolean containsWords(String name, String words, boolean followedByWord) {
+        for (int start = name.indexOf(words); start >= 0; start = name.indexOf(words, start + 1)) {
+            int end = start + words.length();
+            if ((start == 0 || name.charAt(start - 1) == '_')
+                && (end < name.length() ? name.charAt(end) == '_' : !followedByWord)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void add(Map<String, Positions> index, String key, int position) {
+        Positions positions = index.get(key);
+        if (positions == null) {
+            index.put(key, new Positions(position));
+        } else {
+            positions.add(position);
+        }
+    }
+
+    private static BitSet lookup(Map<String, Positions> index, String key) {
+        BitSet result = new BitSet();
+        Positions positions = index.get(key);
+        if (positions != null) {
+            for (int i = 0; i < positions.size; i++) {
+                result.set(positions.values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Positions of the names with the same key, in increasing order. Most keys belong to a
+     * single column, so this stays smaller than a BitSet sized to the position.
+     */
+    private static final class Positions {
+        private int[] values;
+        private int size;
+
+        Positions(int position) {
+            values = new int[] {position};
+            size = 1;
+        }
+
+        void add(int position) {
+            if (values[size - 1] == position) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+}
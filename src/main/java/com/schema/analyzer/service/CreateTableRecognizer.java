@@ -0,0 +1,611 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Hand-written recursive-descent recognizer for the common subset of MySQL CREATE TABLE statements.
+ *
+ * Builds Table, Column and Constraint models directly from the statement text, without going through
+ * JSqlParser. The recognizer is deliberately strict: it only accepts statements made of
+ * 1. Column definitions with a plain data type and simple column options
+ *    (NOT NULL, DEFAULT literal, AUTO_INCREMENT, PRIMARY KEY, COMMENT, COLLATE, ...)
+ * 2. PRIMARY KEY, UNIQUE [KEY|INDEX], KEY/INDEX and [CONSTRAINT ...] FOREIGN KEY definitions
+ * 3. Simple {@code name=value} table options
+ *
+ * Anything else makes {@link #parse(String)} return null, so the caller can fall back to JSqlParser.
+ * For every statement it accepts, the resulting model matches what the JSqlParser route produces,
+ * including quoted identifiers being kept as written.
+ */
+final class CreateTableRecognizer {
+
+    /**
+     * Data types the recognizer understands. Multi-word types (DOUBLE PRECISION, NATIONAL CHAR, ...)
+     * are left to JSqlParser.
+     */
+    private static final Set<String> DATA_TYPES = Set.of(
+        "TINYINT", "SMALLINT", "MEDIUMINT", "INT", "INTEGER", "BIGINT",
+        "DECIMAL", "NUMERIC", "FLOAT", "DOUBLE", "REAL", "BIT",
+        "DATE", "DATETIME", "TIMESTAMP", "TIME", "YEAR",
+        "CHAR", "VARCHAR", "BINARY", "VARBINARY",
+        "TINYTEXT", "TEXT", "MEDIUMTEXT", "LONGTEXT",
+        "TINYBLOB", "BLOB", "MEDIUMBLOB", "LONGBLOB",
+        "ENUM", "SET", "JSON"
+    );
+
+    /**
+     * Unquoted words that cannot be used as column or table names in the recognized subset.
+     */
+    private static final Set<String> RESERVED_WORDS = Set.of(
+        "PRIMARY", "KEY", "INDEX", "UNIQUE", "CONSTRAINT", "FOREIGN", "CHECK", "FULLTEXT", "SPATIAL",
+        "REFERENCES", "NOT", "NULL", "DEFAULT", "TABLE", "CREATE", "SELECT", "FROM", "WHERE", "LIKE", "AS",
+        "ON", "AND", "OR", "IS", "IN", "BY", "ORDER", "GROUP", "HAVING", "LIMIT", "INTO", "VALUES", "SET",
+        "ALL", "ANY", "CASE", "WHEN", "THEN", "ELSE", "END", "JOIN", "INNER", "OUTER", "LEFT", "RIGHT",
+        "CROSS", "NATURAL", "USING", "UNION", "EXCEPT", "INTERSECT", "DISTINCT", "BETWEEN", "EXISTS",
+        "WITH", "FOR", "TO", "OF", "TRUE", "FALSE", "INTERVAL", "DATE", "TIME", "TIMESTAMP", "DOUBLE",
+        "CHAR", "CHARACTER", "COLLATE", "COMMENT", "UPDATE", "DELETE", "INSERT", "DROP", "ALTER",
+        "CASCADE", "RESTRICT", "TOP", "FIRST", "LAST", "IF", "MINUS",
+        "GLOBAL", "TEMPORARY", "UNSIGNED", "SIGNED", "ZEROFILL", "AUTO_INCREMENT", "GENERATED"
+    );
+
+    /**
+     * Words after the closing parenthesis that start something other than a table option.
+     */
+    private static final Set<String> TABLE_OPTION_STOP_WORDS = Set.of(
+        "AS", "SELECT", "WITH", "LIKE", "IGNORE", "REPLACE", "PARTITION", "PARTITIONS", "SUBPARTITION"
+    );
+
+    private static final Set<String> REFERENTIAL_ACTIONS = Set.of("CASCADE", "RESTRICT");
+
+    private final String sql;
+    private int position;
+    private String tableName;
+
+    private CreateTableRecognizer(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Recognizes a CREATE TABLE statement.
+     *
+     * @param statement The statement text, without the trailing delimiter
+     * @return The table model, or null if the statement is outside the supported subset
+     */
+    static Table parse(String statement) {
+        try {
+            return new CreateTableRecognizer(statement).createTable();
+        } catch (UnsupportedSyntaxException e) {
+            return null;
+        }
+    }
+
+    // ---- Grammar ------------------------------------------------------------------------------
+
+    /**
+     * CREATE [TEMPORARY] TABLE [IF NOT EXISTS] name ( element [, element]* ) [table options]
+     */
+    private Table createTable() {
+        expectKeyword("CREATE");
+        acceptKeyword("TEMPORARY");
+        expectKeyword("TABLE");
+        if (acceptKeyword("IF")) {
+            expectKeyword("NOT");
+            expectKeyword("EXISTS");
+        }
+
+        tableName = qualifiedName();
+        Table table = new Table(tableName);
+        List<String> inlinePrimaryKey = new ArrayList<>();
+        List<Constraint> constraints = new ArrayList<>();
+
+        expect('(');
+        do {
+            tableElement(table, inlinePrimaryKey, constraints);
+        } while (accept(','));
+        expect(')');
+
+        tableOptions();
+        skipWhitespace();
+        accept(';');
+        skipWhitespace();
+        if (position < sql.length()) {
+            throw unsupported();
+        }
+
+        // Same constraint order as the JSqlParser route: inline primary key first, then table constraints
+        if (!inlinePrimaryKey.isEmpty()) {
+            table.addConstraint(new PrimaryKeyConstraint("pk_" + tableName, inlinePrimaryKey));
+        }
+        constraints.forEach(table::addConstraint);
+        return table;
+    }
+
+    private void tableElement(Table table, List<String> inlinePrimaryKey, List<Constraint> constraints) {
+        String word = peekWord();
+        String keyword = word != null ? word.toUpperCase(Locale.ROOT) : null;
+
+        if (keyword == null || !RESERVED_WORDS.contains(keyword)) {
+            columnDefinition(table, inlinePrimaryKey);
+            return;
+        }
+
+        switch (keyword) {
+            case "PRIMARY":
+                nextWord();
+                expectKeyword("KEY");
+                constraints.add(new PrimaryKeyConstraint(null, indexColumns()));
+                break;
+            case "UNIQUE":
+                nextWord();
+                constraints.add(uniqueConstraint(null));
+                break;
+            case "KEY":
+            case "INDEX":
+                nextWord();
+                identifier();
+                indexColumns();
+                break;
+            case "FULLTEXT":
+            case "SPATIAL":
+                nextWord();
+                if (!acceptKeyword("KEY")) {
+                    acceptKeyword("INDEX");
+                }
+                identifier();
+                indexColumns();
+                break;
+            case "FOREIGN":
+                constraints.add(foreignKey(null));
+                break;
+            case "CONSTRAINT":
+                nextWord();
+                constraints.add(namedConstraint());
+                break;
+            default:
+                throw unsupported();
+        }
+    }
+
+    /**
+     * CONSTRAINT [name] (PRIMARY KEY | UNIQUE | FOREIGN KEY) ...
+     */
+    private Constraint namedConstraint() {
+        String name = null;
+        String word = peekWord();
+        if (word == null || !RESERVED_WORDS.contains(word.toUpperCase(Locale.ROOT))) {
+            name = identifier();
+        }
+
+        if (acceptKeyword("PRIMARY")) {
+            expectKeyword("KEY");
+            return new PrimaryKeyConstraint(name, indexColumns());
+        }
+        if (acceptKeyword("UNIQUE")) {
+            return uniqueConstraint(name);
+        }
+        if (peekKeyword("FOREIGN")) {
+            return foreignKey(name);
+        }
+        throw unsupported();
+    }
+
+    /**
+     * UNIQUE [KEY|INDEX] [name] (columns), with the UNIQUE keyword already consumed.
+     */
+    private UniqueConstraint uniqueConstraint(String constraintName) {
+        boolean keyOrIndex = acceptKeyword("KEY") || acceptKeyword("INDEX");
+        String name = constraintName;
+        if (!peek('(')) {
+            if (constraintName != null || !keyOrIndex) {
+                throw unsupported();
+            }
+            name = identifier();
+        }
+        return new UniqueConstraint(name, indexColumns());
+    }
+
+    /**
+     * FOREIGN KEY (columns) REFERENCES table (columns) [ON {DELETE|UPDATE} action]*
+     */
+    private ForeignKeyConstraint foreignKey(String name) {
+        expectKeyword("FOREIGN");
+        expectKeyword("KEY");
+        List<String> columns = indexColumns();
+        expectKeyword("REFERENCES");
+        String referencedTable = qualifiedName();
+        List<String> referencedColumns = indexColumns();
+
+        while (acceptKeyword("ON")) {
+            if (!acceptKeyword("DELETE")) {
+                expectKeyword("UPDATE");
+            }
+            referentialAction();
+        }
+
+        return new ForeignKeyConstraint(name, columns, referencedTable, referencedColumns);
+    }
+
+    private void referentialAction() {
+        if (acceptKeyword("SET")) {
+            if (!acceptKeyword("NULL")) {
+                expectKeyword("DEFAULT");
+            }
+        } else if (acceptKeyword("NO")) {
+            expectKeyword("ACTION");
+        } else {
+            String word = nextWord();
+            if (word == null || !REFERENTIAL_ACTIONS.contains(word.toUpperCase(Locale.ROOT))) {
+                throw unsupported();
+            }
+        }
+    }
+
+    /**
+     * ( name [(length)] [, name [(length)]]* )
+     */
+    private List<String> indexColumns() {
+        List<String> columns = new ArrayList<>();
+        expect('(');
+        do {
+            columns.add(identifier());
+            if (accept('(')) {
+                number();
+                expect(')');
+            }
+        } while (accept(','));
+        expect(')');
+        return columns;
+    }
+
+    /**
+     * name data_type [column option]*
+     */
+    private void columnDefinition(Table table, List<String> inlinePrimaryKey) {
+        String name = identifier();
+        String dataType = dataType();
+        boolean nullable = true;
+        boolean unsigned = false;
+        String defaultValue = null;
+        boolean hasDefault = false;
+
+        // CHARACTER SET directly after the type is folded into the type by JSqlParser and dropped
+        if (acceptKeyword("CHARACTER")) {
+            expectKeyword("SET");
+            identifier();
+        } else if (acceptKeyword("CHARSET")) {
+            identifier();
+        }
+
+        while (true) {
+            skipWhitespace();
+            if (peek(',') || peek(')')) {
+                break;
+            }
+
+            String word = nextWord();
+            if (word == null) {
+                throw unsupported();
+            }
+
+            switch (word.toUpperCase(Locale.ROOT)) {
+                case "NOT":
+                    expectKeyword("NULL");
+                    nullable = false;
+                    break;
+                case "UNSIGNED":
+                    unsigned = true;
+                    break;
+                case "NULL":
+                case "AUTO_INCREMENT":
+                case "SIGNED":
+                case "ZEROFILL":
+                    break;
+                case "DEFAULT":
+                    String value = defaultValue();
+                    if (!hasDefault) {
+                        defaultValue = value;
+                        hasDefault = true;
+                    }
+                    break;
+                case "PRIMARY":
+                    expectKeyword("KEY");
+                    if (!inlinePrimaryKey.contains(name)) {
+                        inlinePrimaryKey.add(name);
+                    }
+                    break;
+                case "UNIQUE":
+                    acceptKeyword("KEY");
+                    break;
+                case "COMMENT":
+                    string();
+                    break;
+                case "COLLATE":
+                    identifier();
+                    break;
+                case "ON":
+                    expectKeyword("UPDATE");
+                    functionCall();
+                    break;
+                default:
+                    throw unsupported();
+            }
+        }
+
+        table.addColumn(new Column(name, dataType, nullable, defaultValue, unsigned));
+    }
+
+    /**
+     * type [( argument [, argument]* )]
+     */
+    private String dataType() {
+        String type = nextWord();
+        if (type == null || !DATA_TYPES.contains(type.toUpperCase(Locale.ROOT))) {
+            throw unsupported();
+        }
+        if (!accept('(')) {
+            return type;
+        }
+
+        StringBuilder dataType = new StringBuilder(type).append('(');
+        do {
+            if (dataType.charAt(dataType.length() - 1) != '(') {
+                dataType.append(',');
+            }
+            skipWhitespace();
+            dataType.append(peek('\'') ? string() : number());
+        } while (accept(','));
+        expect(')');
+        return dataType.append(')').toString();
+    }
+
+    /**
+     * Literal or niladic function used as a column default, as JSqlParser reports it.
+     */
+    private String defaultValue() {
+        skipWhitespace();
+        if (peek('\'')) {
+            return string();
+        }
+        if (position < sql.length() && (Character.isDigit(sql.charAt(position)) || sql.charAt(position) == '-')) {
+            return number();
+        }
+        String word = peekWord();
+        if (word == null || word.equalsIgnoreCase("NOT") || word.equalsIgnoreCase("DEFAULT")) {
+            throw unsupported();
+        }
+        return functionCall();
+    }
+
+    /**
+     * NAME [( [precision] )]; only the name is returned.
+     */
+    private String functionCall() {
+        String name = nextWord();
+        if (name == null) {
+            throw unsupported();
+        }
+        if (accept('(')) {
+            if (!peek(')')) {
+                number();
+            }
+            expect(')');
+        }
+        return name;
+    }
+
+    /**
+     * [IDENT [=] value [,]]* - a trailing query (CREATE TABLE ... AS SELECT) or partitioning clause is not supported
+     */
+    private void tableOptions() {
+        while (true) {
+            skipWhitespace();
+            if (position >= sql.length() || peek(';')) {
+                return;
+            }
+            if (accept(',') || accept('=')) {
+                continue;
+            }
+            if (peek('\'')) {
+                string();
+            } else if (Character.isDigit(sql.charAt(position))) {
+                number();
+            } else {
+                String word = nextWord();
+                if (word == null || TABLE_OPTION_STOP_WORDS.contains(word.toUpperCase(Locale.ROOT))) {
+                    throw unsupported();
+                }
+            }
+        }
+    }
+
+    private String qualifiedName() {
+        String name = identifier();
+        while (accept('.')) {
+            name = identifier();
+        }
+        return name;
+    }
+
+    // ---- Lexical helpers ----------------------------------------------------------------------
+
+    /**
+     * Reads a quoted identifier (kept with its quotes) or an unreserved bare identifier.
+     */
+    private String identifier() {
+        skipWhitespace();
+        if (position >= sql.length()) {
+            throw unsupported();
+        }
+
+        char c = sql.charAt(position);
+        if (c == '`' || c == '"') {
+            int start = position;
+            int end = sql.indexOf(c, position + 1);
+            if (end < 0 || end == start + 1) {
+                throw unsupported();
+            }
+            position = end + 1;
+            if (position < sql.length() && sql.charAt(position) == c) {
+                throw unsupported();
+            }
+            return sql.substring(start, position);
+        }
+
+        String word = nextWord();
+        if (word == null || RESERVED_WORDS.contains(word.toUpperCase(Locale.ROOT))) {
+            throw unsupported();
+        }
+        return word;
+    }
+
+    /**
+     * Reads a single-quoted string literal, returned as written (including quotes).
+     */
+    private String string() {
+        skipWhitespace();
+        if (!peek('\'')) {
+            throw unsupported();
+        }
+        int start = position++;
+        while (position < sql.length()) {
+            char c = sql.charAt(position++);
+            if (c == '\\') {
+                throw unsupported();
+            }
+            if (c == '\'') {
+                if (position < sql.length() && sql.charAt(position) == '\'') {
+                    position++;
+                } else {
+                    return sql.substring(start, position);
+                }
+            }
+        }
+        throw unsupported();
+    }
+
+    /**
+     * Reads an optionally negative integer or decimal number.
+     */
+    private String number() {
+        skipWhitespace();
+        int start = position;
+        if (position < sql.length() && sql.charAt(position) == '-') {
+            position++;
+        }
+        int digitsStart = position;
+        while (position < sql.length() && Character.isDigit(sql.charAt(position))) {
+            position++;
+        }
+        if (position == digitsStart) {
+            throw unsupported();
+        }
+        if (position < sql.length() && sql.charAt(position) == '.') {
+            position++;
+            int fractionStart = position;
+            while (position < sql.length() && Character.isDigit(sql.charAt(position))) {
+                position++;
+            }
+            if (position == fractionStart) {
+                throw unsupported();
+            }
+        }
+        if (position < sql.length() && isWordChar(sql.charAt(position))) {
+            throw unsupported();
+        }
+        return sql.substring(start, position);
+    }
+
+    /**
+     * Reads a bare word ([A-Za-z_][A-Za-z0-9_$]*), or returns null if none starts here.
+     * Words immediately followed by a quote (charset introducers, b'0' literals) are not supported.
+     */
+    private String nextWord() {
+        skipWhitespace();
+        int start = position;
+        if (position >= sql.length() || !(Character.isLetter(sql.charAt(position)) || sql.charAt(position) == '_')) {
+            return null;
+        }
+        while (position < sql.length() && isWordChar(sql.charAt(position))) {
+            position++;
+        }
+        if (position < sql.length() && sql.charAt(position) == '\'') {
+            throw unsupported();
+        }
+        return sql.substring(start, position);
+    }
+
+    private String peekWord() {
+        int saved = position;
+        try {
+            return nextWord();
+        } finally {
+            position = saved;
+        }
+    }
+
+    private boolean peekKeyword(String keyword) {
+        String word = peekWord();
+        return word != null && word.equalsIgnoreCase(keyword);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (peekKeyword(keyword)) {
+            nextWord();
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw unsupported();
+        }
+    }
+
+    private boolean peek(char c) {
+        skipWhitespace();
+        return position < sql.length() && sql.charAt(position) == c;
+    }
+
+    private boolean accept(char c) {
+        if (peek(c)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw unsupported();
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < sql.length() && Character.isWhitespace(sql.charAt(position))) {
+            position++;
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private UnsupportedSyntaxException unsupported() {
+        return new UnsupportedSyntaxException();
+    }
+
+    /**
+     * Signals that the statement is outside the recognized subset. Carries no stack trace,
+     * since it is used for control flow on the fast path.
+     */
+    private static final class UnsupportedSyntaxException extends RuntimeException {
+        UnsupportedSyntaxException() {
+            super(null, null, false, false);
+        }
+    }
+}
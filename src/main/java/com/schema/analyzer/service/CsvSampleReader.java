@@ -0,0 +1,282 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.Table;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams a CSV sample of a table into a dictionary-encoded {@link DataSample}.
+ *
+ * The first record names the columns; columns the table does not have are skipped. Fields
+ * follow RFC 4180: separated by commas, optionally enclosed in double quotes, with quotes
+ * doubled inside quoted fields, which may span lines. A byte order mark at the start of the
+ * input is skipped. Empty lines are ignored, except in a sample of a single column, where
+ * they hold an empty value.
+ *
+ * Fields are never materialized as strings: each is hashed as its characters are read,
+ * and a per-column dictionary maps the 64-bit hashes to dense integers. Memory is bounded
+ * by the number of rows kept, which is derived from a memory budget; rows past it are
+ * skipped and the sample is marked truncated.
+ */
+public final class CsvSampleReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Estimated memory per sampled value: the encoded value, plus a dictionary entry when
+     * every value is distinct.
+     */
+    private static final int BYTES_PER_VALUE = 4 + 16;
+
+    private static final int INITIAL_ROWS = 1024;
+
+    /**
+     * Rows read between checks of the deadline.
+     */
+    private static final int ROWS_PER_DEADLINE_CHECK = 4096;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean emptyLinesAreRecords;
+
+    private CsvSampleReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads a CSV sample of a table. The reader is not closed.
+     *
+     * @param reader Reader supplying the CSV text
+     * @param table The table the sample belongs to
+     * @param memoryBudgetBytes Memory the encoded sample may use; determines how many rows are kept
+     * @return The sample; it has no columns if the header names none of the table's columns
+     */
+    public static DataSample read(Reader reader, Table table, long memoryBudgetBytes) throws IOException {
+        return read(reader, table, memoryBudgetBytes, Deadline.NONE);
+    }
+
+    /**
+     * Reads a CSV sample of a table until a deadline, checked every few thousand rows.
+     * The reader is not closed.
+     *
+     * @return The sample, or null if the deadline passed before it was read
+     */
+    public static DataSample read(Reader reader, Table table, long memoryBudgetBytes, Deadline deadline)
+            throws IOException {
+        CsvSampleReader csv = new CsvSampleReader(reader);
+        if (csv.peek() == '\uFEFF') {
+            csv.read(); // Byte order mark
+        }
+        List<String> header = new ArrayList<>();
+        if (!csv.nextRecord(null, header)) {
+            return new DataSample(table, new int[0], new int[0][], new int[0], 0, false);
+        }
+
+        // Map the header's fields to sampled columns, the first field of a name winning
+        List<Column> columns = table.getColumns();
+        int[] columnByField = new int[header.size()];
+        boolean[] sampled = new boolean[columns.size()];
+        int[] positions = new int[header.size()];
+        int columnCount = 0;
+        for (int field = 0; field < header.size(); field++) {
+            columnByField[field] = -1;
+            Column column = table.findColumnByName(header.get(field).trim());
+            int position = column != null ? columns.indexOf(column) : -1;
+            if (position >= 0 && !sampled[position]) {
+                sampled[position] = true;
+                positions[columnCount] = position;
+                columnByField[field] = columnCount++;
+            }
+        }
+        positions = Arrays.copyOf(positions, columnCount);
+        if (columnCount == 0) {
+            return new DataSample(table, positions, new int[0][], new int[0], 0, false);
+        }
+
+        long maxRows = Math.max(1, memoryBudgetBytes / ((long) columnCount * BYTES_PER_VALUE));
+        int rowLimit = (int) Math.min(Integer.MAX_VALUE - 8, maxRows);
+        int[][] values = new int[columnCount][Math.min(rowLimit, INITIAL_ROWS)];
+        ValueDictionary[] dictionaries = new ValueDictionary[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            dictionaries[column] = new ValueDictionary();
+        }
+
+        csv.emptyLinesAreRecords = header.size() == 1;
+        long[] hashes = new long[header.size()];
+        int rows = 0;
+        boolean truncated = false;
+        while (csv.nextRecord(hashes, null)) {
+            if (rows == rowLimit) {
+                truncated = true;
+                break;
+            }
+            if (rows % ROWS_PER_DEADLINE_CHECK == 0 && deadline.isExpired()) {
+                return null;
+            }
+            if (rows == values[0].length) {
+                int capacity = (int) Math.min(rowLimit, (long) rows * 2);
+                for (int column = 0; column < columnCount; column++) {
+                    values[column] = Arrays.copyOf(values[column], capacity);
+                }
+            }
+            for (int field = 0; field < hashes.length; field++) {
+                int column = columnByField[field];
+                if (column >= 0) {
+                    values[column][rows] = dictionaries[column].idOf(hashes[field]);
+                }
+            }
+            rows++;
+        }
+
+        int[] distinctCounts = new int[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            distinctCounts[column] = dictionaries[column].size();
+        }
+        return new DataSample(table, positions, values, distinctCounts, rows, truncated);
+    }
+
+    /**
+     * Reads the next record, either hashing its fields or collecting them as text. Empty
+     * lines are skipped unless they are records.
+     * Fields beyond {@code hashes} are ignored, and missing ones are hashed as empty.
+     *
+     * @return false at the end of the input
+     */
+    private boolean nextRecord(long[] hashes, List<String> texts) throws IOException {
+        StringBuilder text = texts != null ? new StringBuilder() : null;
+        int field = 0;
+        int length = 0;
+        long hash = ValueHash.SEED;
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (c < 0 || (c == '\n' && !quoted)) {
+                if (length == 0) {
+                    if (c < 0) {
+                        return false;
+                    }
+                    if (!emptyLinesAreRecords) {
+                        continue; // Blank line
+                    }
+                }
+                field = endField(hashes, texts, text, field, hash);
+                if (hashes != null) {
+                    Arrays.fill(hashes, Math.min(field, hashes.length), hashes.length, ValueHash.finish(ValueHash.SEED));
+                }
+                return true;
+            }
+            if (c == '\r' && !quoted) {
+                continue;
+            }
+            length++;
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                    } else {
+                        quoted = false;
+                        continue;
+                    }
+                }
+            } else if (c == '"') {
+                quoted = true;
+                continue;
+            } else if (c == ',') {
+                field = endField(hashes, texts, text, field, hash);
+                hash = ValueHash.SEED;
+                continue;
+            }
+            hash = ValueHash.add(hash, c);
+            if (text != null) {
+                text.append((char) c);
+            }
+        }
+    }
+
+    private static int endField(long[] hashes, List<String> texts, StringBuilder text, int field, long hash) {
+        if (hashes != null && field < hashes.length) {
+            hashes[field] = ValueHash.finish(hash);
+        }
+        if (texts != null) {
+            texts.add(text.toString());
+            text.setLength(0);
+        }
+        return field + 1;
+    }
+
+    private int read() throws IOException {
+        return fill() ? buffer[position++] : -1;
+    }
+
+    private int peek() throws IOException {
+        return fill() ? buffer[position] : -1;
+    }
+
+    private boolean fill() throws IOException {
+        while (position == limit) {
+            int count = reader.read(buffer, 0, buffer.length);
+            if (count < 0) {
+                return false;
+            }
+            position = 0;
+            limit = count;
+        }
+        return true;
+    }
+
+    /**
+     * Maps value hashes to dense integers, using open addressing over primitive arrays.
+     */
+    private static final class ValueDictionary {
+        private long[] keys = new long[16];
+        private int[] ids = new int[16]; // id + 1, 0 for a free slot
+        private int size;
+
+        int idOf(long hash) {
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (ids[slot] != 0) {
+                if (keys[slot] == hash) {
+                    return ids[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int id = size++;
+            keys[slot] = hash;
+            ids[slot] = id + 1;
+            if (size * 4 > keys.length * 3) {
+                grow();
+            }
+            return id;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldIds = ids;
+            keys = new long[oldKeys.length * 2];
+            ids = new int[oldIds.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldIds[i] != 0) {
+                    int slot = (int) oldKeys[i] & mask;
+                    while (ids[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    ids[slot] = oldIds[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Table;
+
+/**
+ * Sample rows of a table, dictionary-encoded: every value of a column is replaced by a
+ * small integer, equal values getting equal integers. Only equality of values matters to
+ * dependency discovery, so this is all it needs, at four bytes per value.
+ */
+public final class DataSample {
+
+    private final Table table;
+    private final int[] positions;
+    private final int[][] values;
+    private final int[] distinctCounts;
+    private final int rowCount;
+    private final boolean truncated;
+
+    DataSample(Table table, int[] positions, int[][] values, int[] distinctCounts, int rowCount, boolean truncated) {
+        this.table = table;
+        this.positions = positions;
+        this.values = values;
+        this.distinctCounts = distinctCounts;
+        this.rowCount = rowCount;
+        this.truncated = truncated;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the number of sampled columns.
+     */
+    public int getColumnCount() {
+        return positions.length;
+    }
+
+    /**
+     * Returns the position in the table of a sampled column.
+     */
+    public int getPosition(int column) {
+        return positions[column];
+    }
+
+    /**
+     * Returns the encoded values of a sampled column, one per row; only the first
+     * {@link #getRowCount()} entries are used and the array must not be modified.
+     */
+    public int[] getValues(int column) {
+        return values[column];
+    }
+
+    /**
+     * Returns the number of distinct values of a sampled column; encoded values are below it.
+     */
+    public int getDistinctCount(int column) {
+        return distinctCounts[column];
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns true if the sample had more rows than were read.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,51 @@
+package com.schema.analyzer.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time by which a request must be done. Parsing and analysis check it between units of
+ * work (statements, tables, rules) and stop early once it has passed, returning what they
+ * have so far; nothing is interrupted.
+ */
+public final class Deadline {
+
+    /**
+     * A deadline that never passes.
+     */
+    public static final Deadline NONE = new Deadline(0);
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * Returns a deadline the given number of milliseconds from now, or {@link #NONE}
+     * if the budget is 0 or less.
+     */
+    public static Deadline after(long budgetMillis) {
+        if (budgetMillis <= 0) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+    }
+
+    public boolean isBounded() {
+        return this != NONE;
+    }
+
+    public boolean isExpired() {
+        return this != NONE && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * Returns the milliseconds left, 0 once expired, or {@link Long#MAX_VALUE} for {@link #NONE}.
+     */
+    public long remainingMillis() {
+        if (this == NONE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+}
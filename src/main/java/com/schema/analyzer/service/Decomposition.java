@@ -0,0 +1,153 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.Table;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A proposed decomposition of one table into several, as produced by
+ * {@link DecompositionSynthesizer}. One relation keeps the table's name and key; the others
+ * are new tables, each keyed by the determinant of the dependencies it holds.
+ */
+public class Decomposition {
+
+    /**
+     * One table of a decomposition.
+     */
+    public static final class Relation {
+        private final String name;
+        private final List<Column> columns;
+        private final List<Column> key;
+        private final boolean original;
+
+        Relation(String name, List<Column> columns, List<Column> key, boolean original) {
+            this.name = name;
+            this.columns = Collections.unmodifiableList(columns);
+            this.key = Collections.unmodifiableList(key);
+            this.original = original;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the columns of the relation, in the order of the original table.
+         */
+        public List<Column> getColumns() {
+            return columns;
+        }
+
+        /**
+         * Returns the columns of the relation's primary key.
+         */
+        public List<Column> getKey() {
+            return key;
+        }
+
+        /**
+         * Returns true for the relation that keeps the original table's name.
+         */
+        public boolean isOriginal() {
+            return original;
+        }
+
+        boolean hasColumns(List<Column> wanted) {
+            return columns.containsAll(wanted);
+        }
+    }
+
+    private final Table table;
+    private final List<Relation> relations;
+
+    Decomposition(Table table, List<Relation> relations) {
+        this.table = table;
+        this.relations = Collections.unmodifiableList(relations);
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * Returns all relations, the one keeping the original table's name first.
+     */
+    public List<Relation> getRelations() {
+        return relations;
+    }
+
+    /**
+     * Returns the relations that would be new tables.
+     */
+    public List<Relation> getNewRelations() {
+        return relations.stream().filter(relation -> !relation.isOriginal()).collect(Collectors.toList());
+    }
+
+    /**
+     * Generates SQL that creates the new tables, migrates their data and, as comments,
+     * links them to the original table and drops the moved columns.
+     */
+    public String toSql() {
+        Relation original = relations.get(0);
+        List<Relation> newRelations = getNewRelations();
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("-- Consolidated decomposition of ").append(table.getName()).append(" into ")
+           .append(relations.size()).append(" tables\n");
+        sql.append("-- ").append(table.getName()).append(" keeps: ").append(names(original.getColumns())).append("\n\n");
+
+        for (Relation relation : newRelations) {
+            sql.append("CREATE TABLE ").append(relation.getName()).append(" (\n");
+            for (Column col : relation.getColumns()) {
+                sql.append("    ").append(col.getName()).append(" ").append(col.getDataType());
+                if (!col.isNullable() || relation.getKey().contains(col)) {
+                    sql.append(" NOT NULL");
+                }
+                sql.append(",\n");
+            }
+            sql.append("    PRIMARY KEY (").append(names(relation.getKey())).append(")\n");
+            sql.append(");\n\n");
+        }
+
+        // Add instructions for data migration
+        sql.append("-- Data migration instructions:\n");
+        for (Relation relation : newRelations) {
+            sql.append("-- INSERT INTO ").append(relation.getName()).append(" (")
+               .append(names(relation.getColumns())).append(")\n");
+            sql.append("-- SELECT DISTINCT ").append(names(relation.getColumns()))
+               .append(" FROM ").append(table.getName()).append(";\n");
+        }
+        sql.append("\n");
+
+        // Each table references the new tables whose keys it holds
+        sql.append("-- Add foreign keys\n");
+        for (Relation relation : relations) {
+            for (Relation referenced : newRelations) {
+                if (referenced != relation && relation.hasColumns(referenced.getKey())) {
+                    sql.append("-- ALTER TABLE ").append(relation.getName()).append(" ADD FOREIGN KEY (")
+                       .append(names(referenced.getKey())).append(") REFERENCES ")
+                       .append(referenced.getName()).append("(").append(names(referenced.getKey())).append(");\n");
+                }
+            }
+        }
+        sql.append("\n");
+
+        // Drop the columns from the original table
+        sql.append("-- After migration, drop the moved columns from the original table\n");
+        for (Column col : table.getColumns()) {
+            if (!original.getColumns().contains(col)) {
+                sql.append("-- ALTER TABLE ").append(table.getName()).append(" DROP COLUMN ")
+                   .append(col.getName()).append(";\n");
+            }
+        }
+
+        return sql.toString();
+    }
+
+    private static String names(List<Column> columns) {
+        return columns.stream().map(Column::getName).collect(Collectors.joining(", "));
+    }
+}
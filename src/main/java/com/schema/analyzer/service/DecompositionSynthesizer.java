@@ -0,0 +1,185 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.IdentifierTable;
+import com.schema.analyzer.model.NormalizationIssue;
+import com.schema.analyzer.model.Table;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Combines the dependencies behind all issues of a table into a single decomposition, using
+ * Bernstein's 3NF synthesis: the table's key dependencies and the issues' dependencies are
+ * reduced to a minimal cover, each group of dependencies with equivalent determinants becomes
+ * one table, tables contained in others are dropped, and a table holding a candidate key
+ * keeps the original name so that the decomposition is lossless.
+ *
+ * The per-issue fixes each move one dependency into its own table, so a table with several
+ * issues gets overlapping tables; the synthesized decomposition preserves every dependency
+ * with the fewest tables this construction allows.
+ */
+public class DecompositionSynthesizer {
+
+    /**
+     * Synthesizes the decomposition of a table that resolves the given issues.
+     *
+     * @param table The table to decompose
+     * @param issues Issues of the table; those without a {@link NormalizationIssue#hasDependency() dependency} are ignored
+     * @return The decomposition, or null if the issues imply no dependencies beyond the table's keys
+     */
+    public Decomposition synthesize(Table table, Collection<NormalizationIssue> issues) {
+        FunctionalDependencies dependencies = FunctionalDependencies.ofKeys(table);
+        int keyDependencies = dependencies.getDependencies().size();
+        for (NormalizationIssue issue : issues) {
+            if (issue.hasDependency()) {
+                // Columns the schema no longer has are skipped rather than failing the whole table
+                dependencies.add(issue.getDeterminantColumns(), issue.getDependentColumns(),
+                                 FunctionalDependency.Origin.INFERRED);
+            }
+        }
+        if (dependencies.getDependencies().size() == keyDependencies) {
+            return null;
+        }
+
+        FunctionalDependencies cover = dependencies.minimalCover();
+
+        // Group the dependencies by determinant, merging determinants that determine each other
+        List<long[]> keys = new ArrayList<>();
+        List<long[]> attributes = new ArrayList<>();
+        List<long[]> alternateKeys = new ArrayList<>();
+        for (FunctionalDependency dependency : cover.getDependencies()) {
+            long[] determinant = dependency.getDeterminant();
+            int group = findEquivalent(dependencies, keys, determinant);
+            if (group < 0) {
+                keys.add(determinant);
+                attributes.add(AttributeSet.union(determinant, dependency.getDependent()));
+            } else {
+                attributes.set(group, AttributeSet.union(attributes.get(group),
+                    AttributeSet.union(determinant, dependency.getDependent())));
+                if (!AttributeSet.equals(keys.get(group), determinant)) {
+                    alternateKeys.add(determinant);
+                    alternateKeys.add(keys.get(group));
+                }
+            }
+        }
+
+        // A group may refer to another by one of its alternate keys; use the key of that
+        // group instead, so the reference becomes a foreign key. Both determine each other,
+        // so no dependency is lost.
+        for (int i = 0; i < attributes.size(); i++) {
+            for (int k = 0; k < alternateKeys.size(); k += 2) {
+                long[] alternate = alternateKeys.get(k);
+                long[] key = alternateKeys.get(k + 1);
+                long[] relation = attributes.get(i);
+                if (AttributeSet.containsAll(relation, alternate) && !AttributeSet.containsAll(relation, key)
+                    && !AttributeSet.intersects(alternate, keys.get(i))) {
+                    attributes.set(i, AttributeSet.union(AttributeSet.difference(relation, alternate), key));
+                }
+            }
+        }
+
+        // Drop groups whose columns all belong to another group
+        for (int i = attributes.size() - 1; i >= 0; i--) {
+            for (int j = 0; j < attributes.size(); j++) {
+                if (j != i && AttributeSet.containsAll(attributes.get(j), attributes.get(i))
+                    && (j < i || !AttributeSet.equals(attributes.get(j), attributes.get(i)))) {
+                    keys.remove(i);
+                    attributes.remove(i);
+                    break;
+                }
+            }
+        }
+
+        // The table that keeps the original name must hold a candidate key, or joining the
+        // tables back could produce rows that were never there
+        long[] primaryKey = dependencies.attributesOf(primaryKeyNames(table));
+        if (primaryKey == null) {
+            primaryKey = dependencies.empty();
+        }
+        int original = -1;
+        for (int i = 0; i < attributes.size() && original < 0; i++) {
+            if (!AttributeSet.isEmpty(primaryKey) && AttributeSet.containsAll(attributes.get(i), primaryKey)) {
+                original = i;
+            }
+        }
+        for (int i = 0; i < attributes.size() && original < 0; i++) {
+            if (dependencies.isSuperkey(attributes.get(i))) {
+                original = i;
+            }
+        }
+        if (original < 0) {
+            long[] key = !AttributeSet.isEmpty(primaryKey) ? primaryKey : dependencies.candidateKeys(1).get(0);
+            keys.add(key);
+            attributes.add(key);
+            original = keys.size() - 1;
+        }
+
+        List<Decomposition.Relation> relations = new ArrayList<>();
+        long[] originalKey = AttributeSet.isEmpty(primaryKey) ? keys.get(original) : primaryKey;
+        relations.add(new Decomposition.Relation(table.getName(), dependencies.columnsOf(attributes.get(original)),
+                                                 dependencies.columnsOf(originalKey), true));
+
+        Set<String> usedNames = new HashSet<>();
+        usedNames.add(IdentifierTable.fold(table.getName()));
+        for (int i = 0; i < keys.size(); i++) {
+            if (i != original) {
+                List<Column> key = dependencies.columnsOf(keys.get(i));
+                relations.add(new Decomposition.Relation(nameFor(table, key, usedNames),
+                    dependencies.columnsOf(attributes.get(i)), key, false));
+            }
+        }
+        return new Decomposition(table, relations);
+    }
+
+    /**
+     * Returns the index of the group whose determinant is equivalent to the given one, or -1.
+     */
+    private static int findEquivalent(FunctionalDependencies dependencies, List<long[]> keys, long[] determinant) {
+        long[] closure = dependencies.closure(determinant);
+        for (int i = 0; i < keys.size(); i++) {
+            long[] key = keys.get(i);
+            if (AttributeSet.equals(key, determinant)
+                || (AttributeSet.containsAll(closure, key) && AttributeSet.containsAll(dependencies.closure(key), determinant))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> primaryKeyNames(Table table) {
+        List<String> names = new ArrayList<>();
+        for (Column column : table.getPrimaryKeyColumns()) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Names a new table after its key, as the 3NF fixes do: customer_id gives customer.
+     * Composite keys, and names already taken, fall back to the table name and key columns.
+     */
+    private static String nameFor(Table table, List<Column> key, Set<String> usedNames) {
+        String name = null;
+        if (key.size() == 1 && key.get(0).getName().contains("_")) {
+            String columnName = key.get(0).getName();
+            name = columnName.substring(0, columnName.lastIndexOf('_'));
+        }
+        if (name == null || usedNames.contains(IdentifierTable.fold(name))) {
+            StringBuilder joined = new StringBuilder(table.getName());
+            for (Column column : key) {
+                joined.append('_').append(column.getName());
+            }
+            name = joined.toString();
+        }
+        String unique = name;
+        for (int suffix = 2; usedNames.contains(IdentifierTable.fold(unique)); suffix++) {
+            unique = name + "_" + suffix;
+        }
+        usedNames.add(IdentifierTable.fold(unique));
+        return unique;
+    }
+}
@@ -0,0 +1,306 @@
+package com.schema.analyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Discovers the minimal functional dependencies that hold in a {@link DataSample}, with the
+ * level-wise search of TANE (Huhtala et al.).
+ *
+ * Level l holds the column sets of size l, each with its stripped partition, computed as
+ * the product of two partitions of level l - 1. X \ {A} → A holds when the partitions by
+ * X \ {A} and by X have the same error. The candidate sets C+(X) prune dependents already
+ * determined by a subset, and sets that are empty or keys of the sample are not extended.
+ *
+ * Only dependencies with evidence in the sample are reported: a column that is constant in
+ * the sample, or a determinant whose values are all distinct, says nothing about the table.
+ * The search stops at {@code maxDeterminantSize} columns, or earlier when the next level's
+ * partitions would not fit the memory budget, which also covers the scratch arrays of the
+ * threads computing partitions. The partitions of a level are computed in parallel when a
+ * pool is given. A deadline is checked between levels.
+ */
+@Slf4j
+public class DependencyDiscovery {
+
+    private final int maxDeterminantSize;
+    private final long memoryBudgetBytes;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param maxDeterminantSize The largest determinant searched for
+     * @param memoryBudgetBytes Memory the partitions of two consecutive levels, and the scratch
+     *                          arrays of the threads computing them, may use
+     * @param pool Pool the partitions are computed on, or null to compute them on the calling thread
+     */
+    public DependencyDiscovery(int maxDeterminantSize, long memoryBudgetBytes, ForkJoinPool pool) {
+        this.maxDeterminantSize = maxDeterminantSize;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the minimal dependencies of the sample, over the positions of the table's
+     * columns, one per determinant, with origin {@link FunctionalDependency.Origin#DISCOVERED}.
+     */
+    public List<FunctionalDependency> discover(DataSample sample) {
+        return discover(sample, Deadline.NONE);
+    }
+
+    /**
+     * Returns the minimal dependencies of the sample as {@link #discover(DataSample)} does,
+     * or null if the deadline passed before the search finished.
+     */
+    public List<FunctionalDependency> discover(DataSample sample, Deadline deadline) {
+        int columnCount = sample.getColumnCount();
+        int rowCount = sample.getRowCount();
+        if (columnCount == 0 || rowCount < 2 || maxDeterminantSize < 1) {
+            return new ArrayList<>();
+        }
+        long[] all = AttributeSet.all(columnCount);
+        // Scratch arrays for partition products, at most one per thread; dropped with this call
+        Queue<int[]> owners = new ConcurrentLinkedQueue<>();
+        Queue<long[][]> found = new ConcurrentLinkedQueue<>();
+
+        // Level 0 is the empty set, whose partition is a single group
+        Node empty = new Node(AttributeSet.empty(columnCount), StrippedPartition.ofAll(rowCount));
+        empty.candidates = all;
+        Map<Key, Node> previous = new HashMap<>();
+        previous.put(new Key(empty.attributes), empty);
+
+        List<Node> level = new ArrayList<>();
+        for (int column = 0; column < columnCount; column++) {
+            level.add(new Node(AttributeSet.of(columnCount, column), null));
+        }
+        forEach(level, node -> {
+            int column = AttributeSet.next(node.attributes, 0);
+            node.partition = StrippedPartition.of(sample.getValues(column), rowCount, sample.getDistinctCount(column));
+        });
+
+        for (int size = 1; !level.isEmpty(); size++) {
+            if (deadline.isExpired()) {
+                return null;
+            }
+            Map<Key, Node> lower = previous;
+            forEach(level, node -> computeDependencies(node, lower, columnCount, found));
+
+            // Sets that determine nothing new, or are keys of the sample, are not extended
+            List<Node> kept = new ArrayList<>();
+            for (Node node : level) {
+                if (!AttributeSet.isEmpty(node.candidates) && node.partition.error() > 0) {
+                    kept.add(node);
+                }
+            }
+            if (size > maxDeterminantSize) {
+                break;
+            }
+            if (deadline.isExpired()) {
+                return null;
+            }
+            previous = new HashMap<>();
+            for (Node node : kept) {
+                previous.put(new Key(node.attributes), node);
+            }
+            level = nextLevel(kept, previous, owners, rowCount);
+            if (level == null) {
+                log.debug("Table {}: stopping dependency discovery at {} columns, the partitions would exceed the memory budget",
+                          sample.getTable().getName(), size);
+                break;
+            }
+        }
+        return toDependencies(sample, found);
+    }
+
+    /**
+     * Computes C+(X) and reports the dependencies X \ {A} → A that hold.
+     */
+    private static void computeDependencies(Node node, Map<Key, Node> lower, int columnCount, Queue<long[][]> found) {
+        long[] candidates = AttributeSet.all(columnCount);
+        for (int attribute = AttributeSet.next(node.attributes, 0); attribute >= 0; attribute = AttributeSet.next(node.attributes, attribute + 1)) {
+            candidates = AttributeSet.intersection(candidates, lower.get(new Key(without(node.attributes, attribute))).candidates);
+        }
+
+        long[] checked = AttributeSet.intersection(node.attributes, candidates);
+        long error = node.partition.error();
+        for (int attribute = AttributeSet.next(checked, 0); attribute >= 0; attribute = AttributeSet.next(checked, attribute + 1)) {
+            Node subset = lower.get(new Key(without(node.attributes, attribute)));
+            if (subset.partition.error() == error) {
+                // Skip dependencies without evidence: constant columns and unique determinants
+                if (!AttributeSet.isEmpty(subset.attributes) && error > 0) {
+                    found.add(new long[][] {subset.attributes, AttributeSet.of(columnCount, attribute)});
+                }
+                AttributeSet.remove(candidates, attribute);
+                candidates = AttributeSet.intersection(candidates, node.attributes);
+            }
+        }
+        node.candidates = candidates;
+    }
+
+    /**
+     * Generates the next level from pairs of sets that differ only in their last column,
+     * keeping the sets whose subsets are all in this level.
+     *
+     * @return The next level, or null if its partitions would exceed the memory budget
+     */
+    private List<Node> nextLevel(List<Node> level, Map<Key, Node> index, Queue<int[]> owners, int rowCount) {
+        Map<Key, List<Node>> blocks = new LinkedHashMap<>();
+        for (Node node : level) {
+            blocks.computeIfAbsent(new Key(without(node.attributes, last(node.attributes))), prefix -> new ArrayList<>())
+                  .add(node);
+        }
+
+        List<Node[]> pairs = new ArrayList<>();
+        List<Node> next = new ArrayList<>();
+        for (List<Node> block : blocks.values()) {
+            for (int i = 0; i < block.size(); i++) {
+                for (int j = i + 1; j < block.size(); j++) {
+                    long[] attributes = AttributeSet.union(block.get(i).attributes, block.get(j).attributes);
+                    if (allSubsetsIn(attributes, index)) {
+                        pairs.add(new Node[] {block.get(i), block.get(j)});
+                        next.add(new Node(attributes, null));
+                    }
+                }
+            }
+        }
+
+        int threads = pool != null ? pool.getParallelism() : 1;
+        long levelBytes = (long) threads * rowCount * Integer.BYTES;
+        for (Node node : level) {
+            levelBytes += node.partition.memoryBytes();
+        }
+        AtomicLong used = new AtomicLong(levelBytes);
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < next.size(); i++) {
+            indexes.add(i);
+        }
+        forEach(indexes, i -> {
+            if (used.get() > memoryBudgetBytes) {
+                return;
+            }
+            Node[] pair = pairs.get(i);
+            long scratchBytes = pair[0].partition.productScratchBytes(pair[1].partition);
+            if (used.addAndGet(scratchBytes) > memoryBudgetBytes) {
+                return;
+            }
+            int[] owner = owners.poll();
+            if (owner == null) {
+                owner = new int[rowCount];
+                Arrays.fill(owner, -1);
+            }
+            StrippedPartition partition = pair[0].partition.product(pair[1].partition, owner);
+            owners.add(owner);
+            next.get(i).partition = partition;
+            used.addAndGet(partition.memoryBytes() - scratchBytes);
+        });
+        return used.get() > memoryBudgetBytes ? null : next;
+    }
+
+    private static boolean allSubsetsIn(long[] attributes, Map<Key, Node> index) {
+        for (int attribute = AttributeSet.next(attributes, 0); attribute >= 0; attribute = AttributeSet.next(attributes, attribute + 1)) {
+            if (!index.containsKey(new Key(without(attributes, attribute)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merges the dependencies found by determinant and maps them to the table's columns.
+     */
+    private static List<FunctionalDependency> toDependencies(DataSample sample, Queue<long[][]> found) {
+        int tableSize = sample.getTable().getColumns().size();
+        Map<Key, long[]> dependentsByDeterminant = new HashMap<>();
+        for (long[][] dependency : found) {
+            dependentsByDeterminant.merge(new Key(toTable(sample, dependency[0], tableSize)),
+                                          toTable(sample, dependency[1], tableSize), AttributeSet::union);
+        }
+
+        List<FunctionalDependency> dependencies = new ArrayList<>();
+        for (Map.Entry<Key, long[]> entry : dependentsByDeterminant.entrySet()) {
+            dependencies.add(new FunctionalDependency(entry.getKey().attributes, entry.getValue(),
+                                                      FunctionalDependency.Origin.DISCOVERED));
+        }
+        // Smaller determinants first, then by their columns, so results do not depend on timing
+        dependencies.sort(Comparator.comparingInt((FunctionalDependency dependency) -> AttributeSet.size(dependency.getDeterminant()))
+            .thenComparing(dependency -> AttributeSet.toArray(dependency.getDeterminant()), Arrays::compare));
+        return dependencies;
+    }
+
+    private static long[] toTable(DataSample sample, long[] attributes, int tableSize) {
+        long[] positions = AttributeSet.empty(tableSize);
+        for (int column = AttributeSet.next(attributes, 0); column >= 0; column = AttributeSet.next(attributes, column + 1)) {
+            AttributeSet.add(positions, sample.getPosition(column));
+        }
+        return positions;
+    }
+
+    private static long[] without(long[] attributes, int attribute) {
+        long[] result = attributes.clone();
+        AttributeSet.remove(result, attribute);
+        return result;
+    }
+
+    private static int last(long[] attributes) {
+        int last = -1;
+        for (int attribute = AttributeSet.next(attributes, 0); attribute >= 0; attribute = AttributeSet.next(attributes, attribute + 1)) {
+            last = attribute;
+        }
+        return last;
+    }
+
+    private <T> void forEach(List<T> items, Consumer<T> action) {
+        if (pool == null || items.size() < 2) {
+            items.forEach(action);
+        } else {
+            pool.submit(() -> items.parallelStream().forEach(action)).join();
+        }
+    }
+
+    /**
+     * A column set of the search, with its partition and C+.
+     */
+    private static final class Node {
+        final long[] attributes;
+        StrippedPartition partition;
+        long[] candidates;
+
+        Node(long[] attributes, StrippedPartition partition) {
+            this.attributes = attributes;
+            this.partition = partition;
+        }
+    }
+
+    /**
+     * An attribute set usable as a map key.
+     */
+    private static final class Key {
+        final long[] attributes;
+        private final int hash;
+
+        Key(long[] attributes) {
+            this.attributes = attributes;
+            this.hash = Arrays.hashCode(attributes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(attributes, ((Key) other).attributes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.IssueCode;
+import com.schema.analyzer.model.NormalizationForm;
+import com.schema.analyzer.model.NormalizationIssue;
+import com.schema.analyzer.model.Table;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the functional dependencies supplied by {@link DependencySource}s into issues of the
+ * normal form they violate, and generates the SQL that decomposes a table along one.
+ */
+@Slf4j
+final class DependencyIssues {
+
+    private DependencyIssues() {
+    }
+
+    /**
+     * Returns the functional dependencies of a table: those implied by its keys and those
+     * supplied by the sources.
+     */
+    static FunctionalDependencies dependenciesOf(TableContext tableContext, List<DependencySource> sources) {
+        FunctionalDependencies dependencies = FunctionalDependencies.ofKeys(tableContext.getTable());
+        for (DependencySource source : sources) {
+            source.addDependencies(tableContext, dependencies);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Reports the dependencies of the given origin whose lowest violated form is the given
+     * code's, one issue per determinant. The issue names the non-prime columns the
+     * determinant determines, which are the ones to move out of the table. Inferred
+     * dependencies restate what the naming heuristics look for, so one whose determinant an
+     * earlier rule already reported for the table is left out.
+     */
+    static void report(TableContext tableContext, List<DependencySource> sources, FunctionalDependency.Origin origin,
+                       IssueCode code, List<NormalizationIssue> issues) {
+        if (sources.isEmpty()) {
+            return;
+        }
+        FunctionalDependencies dependencies = dependenciesOf(tableContext, sources);
+        List<FunctionalDependency> found = dependencies.getDependencies().stream()
+            .filter(dependency -> dependency.getOrigin() == origin)
+            .collect(Collectors.toList());
+        if (found.isEmpty()) {
+            return;
+        }
+
+        Table table = tableContext.getTable();
+        List<long[]> keys = dependencies.candidateKeys();
+        long[] prime = dependencies.primeAttributes(keys);
+        List<long[]> reported = new ArrayList<>();
+        for (FunctionalDependency dependency : found) {
+            long[] determinant = dependency.getDeterminant();
+            if (dependencies.violatedForm(dependency, keys) != code.getForm() || contains(reported, determinant)) {
+                continue;
+            }
+            reported.add(determinant);
+            List<Column> determinantColumns = dependencies.columnsOf(determinant);
+            if (origin == FunctionalDependency.Origin.INFERRED && isReported(issues, determinantColumns)) {
+                continue;
+            }
+            long[] dependents = AttributeSet.difference(
+                AttributeSet.difference(dependencies.closure(determinant), determinant), prime);
+            log.debug("Table {}: {} -> {} violates {}", table.getName(),
+                dependencies.namesOf(determinant), dependencies.namesOf(dependents), code.getForm());
+
+            List<Column> dependentColumns = dependencies.columnsOf(dependents);
+            NormalizationIssue issue = new NormalizationIssue(
+                code,
+                table.getName(),
+                dependencies.namesOf(dependents),
+                () -> decompositionSql(table, determinantColumns, dependentColumns),
+                dependencies.namesOf(determinant),
+                dependencies.namesOf(dependents)
+            );
+            issue.setDependency(
+                determinantColumns.stream().map(Column::getName).collect(Collectors.toList()),
+                dependentColumns.stream().map(Column::getName).collect(Collectors.toList()));
+            issues.add(issue);
+        }
+    }
+
+    /**
+     * Generates SQL to decompose a table along a dependency: the determinant and its
+     * dependents move into a new table keyed by the determinant.
+     */
+    static String decompositionSql(Table table, List<Column> determinant, List<Column> dependents) {
+        String determinantNames = determinant.stream().map(Column::getName).collect(Collectors.joining(", "));
+        String dependentNames = dependents.stream().map(Column::getName).collect(Collectors.joining(", "));
+        String newTableName = table.getName() + "_" + determinant.stream()
+            .map(Column::getName)
+            .collect(Collectors.joining("_"));
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("-- Create a new table keyed by the determinant\n");
+        sql.append("CREATE TABLE ").append(newTableName).append(" (\n");
+        for (Column col : determinant) {
+            sql.append("    ").append(col.getName()).append(" ").append(col.getDataType()).append(" NOT NULL,\n");
+        }
+        for (Column col : dependents) {
+            sql.append("    ").append(col.getName()).append(" ").append(col.getDataType());
+            if (!col.isNullable()) {
+                sql.append(" NOT NULL");
+            }
+            sql.append(",\n");
+        }
+        sql.append("    PRIMARY KEY (").append(determinantNames).append(")\n");
+        sql.append(");\n\n");
+
+        // Add instructions for data migration
+        sql.append("-- Data migration instructions:\n");
+        sql.append("-- INSERT INTO ").append(newTableName).append(" (")
+           .append(determinantNames).append(", ").append(dependentNames).append(")\n");
+        sql.append("-- SELECT DISTINCT ").append(determinantNames).append(", ").append(dependentNames)
+           .append(" FROM ").append(table.getName()).append(";\n\n");
+
+        // Add foreign key to original table
+        sql.append("-- Add foreign key to original table\n");
+        sql.append("-- ALTER TABLE ").append(table.getName()).append(" ADD FOREIGN KEY (")
+           .append(determinantNames).append(") REFERENCES ")
+           .append(newTableName).append("(").append(determinantNames).append(");\n\n");
+
+        // Drop the columns from the original table
+        sql.append("-- After migration, drop the dependent columns from the original table\n");
+        for (Column col : dependents) {
+            sql.append("-- ALTER TABLE ").append(table.getName()).append(" DROP COLUMN ")
+               .append(col.getName()).append(";\n");
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * Returns true if one of the issues is a dependency on exactly the given columns.
+     */
+    private static boolean isReported(List<NormalizationIssue> issues, List<Column> determinant) {
+        for (NormalizationIssue issue : issues) {
+            List<String> columns = issue.getDeterminantColumns();
+            if (columns != null && columns.size() == determinant.size()
+                && determinant.stream().allMatch(column -> columns.stream().anyMatch(column.getName()::equalsIgnoreCase))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(List<long[]> sets, long[] set) {
+        for (long[] other : sets) {
+            if (AttributeSet.equals(other, set)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.schema.analyzer.service;
+
+/**
+ * Supplies functional dependencies of a table beyond those implied by its keys, e.g. ones
+ * declared by the user or inferred from column names. Sources are called concurrently for
+ * different tables and must not keep mutable state. A source whose work can take long, such
+ * as discovering dependencies in sample data, stops once the table's
+ * {@link TableContext#getDeadline() deadline} passes and adds nothing it has not finished.
+ */
+@FunctionalInterface
+public interface DependencySource {
+
+    /**
+     * Adds the dependencies this source knows of for a table.
+     *
+     * @param table The table, with lookups shared by the rules of an analyzer
+     * @param dependencies The dependencies of the table found so far
+     */
+    void addDependencies(TableContext table, FunctionalDependencies dependencies);
+}
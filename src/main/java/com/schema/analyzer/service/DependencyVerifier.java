@@ -0,0 +1,268 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.AnalysisResult;
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.IdentifierTable;
+import com.schema.analyzer.model.NormalizationIssue;
+import com.schema.analyzer.model.SchemaGraph;
+import com.schema.analyzer.model.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the functional dependencies behind normalization issues against the table data
+ * in a SQL dump, and attaches an estimated confidence to each issue.
+ *
+ * The rows of the dump's INSERT statements are streamed once by {@link InsertValuesScanner}.
+ * For every suspected dependency X → Y two {@link HyperLogLog} sketches count the distinct
+ * values of X and of (X, Y); the dependency holds exactly when the counts are equal, so their
+ * ratio estimates the share of X values with a single Y value. Memory is a fixed number of
+ * sketches per dependency, whatever the size of the tables.
+ */
+@Service
+@Slf4j
+public class DependencyVerifier {
+
+    private final boolean enabled;
+    private final int precision;
+
+    /**
+     * Creates an enabled verifier with sketches of 4 KB (precision 12).
+     */
+    public DependencyVerifier() {
+        this(true, 12);
+    }
+
+    /**
+     * @param enabled Whether issues are verified at all
+     * @param precision Precision of the sketches: each takes 2^precision bytes and has a
+     *                  relative error of about 1.04 / sqrt(2^precision)
+     */
+    @Autowired
+    public DependencyVerifier(@Value("${schema.analyzer.verification.enabled:true}") boolean enabled,
+                              @Value("${schema.analyzer.verification.precision:12}") int precision) {
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("schema.analyzer.verification.precision must be between " +
+                                               HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION);
+        }
+        this.enabled = enabled;
+        this.precision = precision;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns true if some issue of the result is caused by a known functional dependency,
+     * i.e. verification could attach a confidence to it.
+     */
+    public boolean hasDependencies(AnalysisResult result) {
+        return enabled && result.getIssuesByForm() != null && result.getIssuesByForm().values().stream()
+            .flatMap(List::stream)
+            .anyMatch(NormalizationIssue::hasDependency);
+    }
+
+    /**
+     * Streams the table data of a dump and sets the confidence of the issues whose
+     * dependency could be checked: those of tables with rows in the dump. If the deadline
+     * passes first, no confidence is set and the result is marked incomplete. The reader is
+     * not closed.
+     */
+    public void verify(Reader dump, AnalysisResult result, Deadline deadline) throws IOException {
+        if (!hasDependencies(result) || result.getSchema() == null) {
+            return;
+        }
+        Map<String, TableDependencies> tables = suspectedDependencies(result);
+        if (tables.isEmpty()) {
+            return;
+        }
+
+        boolean scanned = InsertValuesScanner.scan(dump, new InsertValuesScanner.RowHandler() {
+            private TableDependencies current;
+
+            @Override
+            public boolean startInsert(String table, List<String> columns) {
+                current = tables.get(IdentifierTable.fold(table));
+                return current != null && current.startInsert(columns);
+            }
+
+            @Override
+            public void row(long[] hashes, int valueCount) {
+                current.row(hashes, valueCount);
+            }
+        }, deadline);
+        if (!scanned) {
+            log.warn("Deadline passed while verifying dependencies; issues are left without a confidence");
+            result.setIncomplete(true);
+            return;
+        }
+
+        for (TableDependencies table : tables.values()) {
+            for (Dependency dependency : table.dependencies) {
+                if (dependency.rows == 0) {
+                    continue;
+                }
+                double confidence = Math.min(1.0, dependency.determinants.estimate() / dependency.pairs.estimate());
+                log.debug("Table {}: {} -> {} has confidence {} over {} rows", table.table.getName(),
+                          dependency.issues.get(0).getDeterminantColumns(), dependency.issues.get(0).getDependentColumns(),
+                          confidence, dependency.rows);
+                for (NormalizationIssue issue : dependency.issues) {
+                    issue.setConfidence(confidence);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the dependencies of the issues by table, one per distinct dependency.
+     */
+    private Map<String, TableDependencies> suspectedDependencies(AnalysisResult result) {
+        SchemaGraph graph = result.getSchema().getGraph();
+        Map<String, TableDependencies> tables = new HashMap<>();
+        for (List<NormalizationIssue> issues : result.getIssuesByForm().values()) {
+            for (NormalizationIssue issue : issues) {
+                if (!issue.hasDependency()) {
+                    continue;
+                }
+                int index = graph.indexOf(issue.getTableName());
+                if (index < 0) {
+                    continue;
+                }
+                Table table = graph.table(index);
+                int[] determinant = positionsOf(table, issue.getDeterminantColumns());
+                int[] dependent = positionsOf(table, issue.getDependentColumns());
+                if (determinant == null || dependent == null) {
+                    continue;
+                }
+                tables.computeIfAbsent(IdentifierTable.fold(table.getName()), name -> new TableDependencies(table))
+                      .add(determinant, dependent, issue, precision);
+            }
+        }
+        return tables;
+    }
+
+    private static int[] positionsOf(Table table, List<String> columnNames) {
+        int[] positions = new int[columnNames.size()];
+        for (int i = 0; i < positions.length; i++) {
+            Column column = table.findColumnByName(columnNames.get(i));
+            positions[i] = column != null ? table.getColumns().indexOf(column) : -1;
+            if (positions[i] < 0) {
+                return null;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * The suspected dependencies of one table, with the mapping from the values of the
+     * current INSERT statement to the table's columns.
+     */
+    private static final class TableDependencies {
+        final Table table;
+        final List<Dependency> dependencies = new ArrayList<>();
+        private final Map<String, Dependency> byColumns = new LinkedHashMap<>();
+        private final int[] valueIndexes;
+
+        TableDependencies(Table table) {
+            this.table = table;
+            this.valueIndexes = new int[table.getColumns().size()];
+        }
+
+        void add(int[] determinant, int[] dependent, NormalizationIssue issue, int precision) {
+            String key = Arrays.toString(determinant) + Arrays.toString(dependent);
+            Dependency dependency = byColumns.get(key);
+            if (dependency == null) {
+                dependency = new Dependency(determinant, dependent, precision);
+                byColumns.put(key, dependency);
+                dependencies.add(dependency);
+            }
+            dependency.issues.add(issue);
+        }
+
+        /**
+         * Maps the statement's values to the table's columns.
+         *
+         * @return false if the statement names none of the table's columns
+         */
+        boolean startInsert(List<String> columns) {
+            if (columns == null) {
+                for (int position = 0; position < valueIndexes.length; position++) {
+                    valueIndexes[position] = position;
+                }
+                return true;
+            }
+            Arrays.fill(valueIndexes, -1);
+            boolean any = false;
+            for (int value = 0; value < columns.size(); value++) {
+                Column column = table.findColumnByName(columns.get(value));
+                int position = column != null ? table.getColumns().indexOf(column) : -1;
+                if (position >= 0) {
+                    valueIndexes[position] = value;
+                    any = true;
+                }
+            }
+            return any;
+        }
+
+        void row(long[] hashes, int valueCount) {
+            for (Dependency dependency : dependencies) {
+                long determinant = combine(dependency.determinant, hashes, valueCount, ValueHash.SEED);
+                if (determinant == 0) {
+                    continue;
+                }
+                long pair = combine(dependency.dependent, hashes, valueCount, determinant);
+                if (pair == 0) {
+                    continue;
+                }
+                dependency.determinants.add(ValueHash.finish(determinant));
+                dependency.pairs.add(ValueHash.finish(pair));
+                dependency.rows++;
+            }
+        }
+
+        /**
+         * Combines the hashes of the values of some columns, or returns 0 if the row lacks one.
+         */
+        private long combine(int[] positions, long[] hashes, int valueCount, long hash) {
+            for (int position : positions) {
+                int value = valueIndexes[position];
+                if (value < 0 || value >= valueCount) {
+                    return 0;
+                }
+                hash = ValueHash.combine(hash, hashes[value]);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * A suspected dependency X → Y with its sketches and the issues it causes.
+     */
+    private static final class Dependency {
+        final int[] determinant;
+        final int[] dependent;
+        final HyperLogLog determinants;
+        final HyperLogLog pairs;
+        final List<NormalizationIssue> issues = new ArrayList<>();
+        long rows;
+
+        Dependency(int[] determinant, int[] dependent, int precision) {
+            this.determinant = determinant;
+            this.dependent = dependent;
+            this.determinants = new HyperLogLog(precision);
+            this.pairs = new HyperLogLog(precision);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.schema.analyzer.service;
 
 import com.schema.analyzer.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,150 +18,160 @@ import java.util.stream.Collectors;
  */
 @Service
 @Slf4j
-public class FirstNormalFormAnalyzer implements NormalizationAnalyzer {
+public class FirstNormalFormAnalyzer extends RuleBasedAnalyzer {
 
-    @Override
-    public List<NormalizationIssue> analyze(DatabaseSchema schema) {
-        List<NormalizationIssue> issues = new ArrayList<>();
+    private final Vocabulary vocabulary;
+
+    /**
+     * Creates an analyzer using the built-in vocabulary.
+     */
+    public FirstNormalFormAnalyzer() {
+        this(Vocabulary.defaults());
+    }
+
+    @Autowired
+    public FirstNormalFormAnalyzer(Vocabulary vocabulary) {
+        this.vocabulary = vocabulary;
         
-        for (Table table : schema.getTables()) {
-            log.debug("Analyzing table {} for 1NF compliance", table.getName());
-            
-            // Check for primary key
-            if (!table.hasPrimaryKey()) {
-                log.debug("Table {} does not have a primary key", table.getName());
+        addRule("1nf.primary-key", this::detectMissingPrimaryKey);
+        addRule("1nf.atomic-values", this::detectNonAtomicColumns);
+        addRule("1nf.repeating-groups", this::detectRepeatingGroups);
+    }
+
+    @Override
+    public NormalizationForm getForm() {
+        return NormalizationForm.FIRST_NORMAL_FORM;
+    }
+
+    
+    @Override
+    protected boolean appliesTo(TableContext table) {
+        log.debug("Analyzing table {} for 1NF compliance", table.getTable().getName());
+        return true;
+    }
+    
+    /**
+     * Reports a table without a primary key.
+     */
+    private void detectMissingPrimaryKey(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        if (!table.hasPrimaryKey()) {
+            log.debug("Table {} does not have a primary key", table.getName());
+            issues.add(new NormalizationIssue(
+                IssueCode.MISSING_PRIMARY_KEY,
+                table.getName(),
+                null,
+                () -> "ALTER TABLE " + table.getName() + " ADD COLUMN id INT AUTO_INCREMENT PRIMARY KEY;"
+            ));
+        } else {
+            log.debug("Table {} has a primary key: {}", table.getName(), 
+                table.getPrimaryKeyColumns().stream().map(Column::getName).toList());
+        }
+    }
+    
+    /**
+     * Reports columns with multi-valued attributes or possibly structured data.
+     */
+    private void detectNonAtomicColumns(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        for (Column column : table.getColumns()) {
+            if (column.isMultiValued()) {
+                log.debug("Column {} in table {} contains multi-valued attributes", 
+                    column.getName(), table.getName());
                 issues.add(new NormalizationIssue(
-                    NormalizationForm.FIRST_NORMAL_FORM,
+                    IssueCode.MULTI_VALUED_COLUMN,
                     table.getName(),
-                    "Table does not have a primary key",
-                    "Add a primary key to the table",
-                    "ALTER TABLE " + table.getName() + " ADD COLUMN id INT AUTO_INCREMENT PRIMARY KEY;"
+                    column.getName(),
+                    () -> generateSeparateTableSql(table.getName(), column)
+                ));
+            } else if (column.mightContainStructuredData(vocabulary)) {
+                log.debug("Column {} in table {} might contain structured data", 
+                    column.getName(), table.getName());
+                issues.add(new NormalizationIssue(
+                    IssueCode.STRUCTURED_DATA,
+                    table.getName(),
+                    column.getName(),
+                    null
                 ));
-            } else {
-                log.debug("Table {} has a primary key: {}", table.getName(), 
-                    table.getPrimaryKeyColumns().stream().map(Column::getName).toList());
-            }
-            
-            // Check for multi-valued attributes
-            for (Column column : table.getColumns()) {
-                if (column.isMultiValued()) {
-                    log.debug("Column {} in table {} contains multi-valued attributes", 
-                        column.getName(), table.getName());
-                    issues.add(new NormalizationIssue(
-                        NormalizationForm.FIRST_NORMAL_FORM,
-                        table.getName(),
-                        column.getName(),
-                        "Column potentially contains multi-valued attributes",
-                        "Create a separate table to store these values and establish a foreign key relationship",
-                        generateSeparateTableSql(table.getName(), column)
-                    ));
-                } else if (column.mightContainStructuredData()) {
-                    log.debug("Column {} in table {} might contain structured data", 
-                        column.getName(), table.getName());
-                    issues.add(new NormalizationIssue(
-                        NormalizationForm.FIRST_NORMAL_FORM,
-                        table.getName(),
-                        column.getName(),
-                        "Column might contain structured data (non-atomic values)",
-                        "Consider splitting this data into separate columns or tables if it contains multiple values",
-                        null
-                    ));
-                }
             }
-            
-            // Check for repeating groups
-            detectRepeatingGroups(table, issues);
         }
-        
-        return issues;
-    }
-
-    @Override
-    public boolean isCompliant(DatabaseSchema schema) {
-        return analyze(schema).isEmpty();
     }
     
     /**
      * Detects potential repeating groups in a table based on column naming patterns.
+     *
+     * Each column name is split once into a base and a trailing number, and columns are
+     * bucketed by base, so the check is linear in the number of columns.
      */
-    private void detectRepeatingGroups(Table table, List<NormalizationIssue> issues) {
-        List<String> columnNames = table.getColumns().stream().map(Column::getName).toList();
+    private void detectRepeatingGroups(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
         
         // Get primary key column names to avoid flagging them
         Set<String> pkColumnNames = table.getPrimaryKeyColumns().stream()
             .map(Column::getName)
             .collect(Collectors.toSet());
         
-        // Look for numbered columns (e.g., address1, address2, address3)
-        for (String baseColumnName : findPotentialBaseColumnNames(columnNames, pkColumnNames)) {
-            List<String> numberedColumns = findNumberedColumns(columnNames, baseColumnName);
+        // Group numbered columns (e.g., address1, address2, address3) by base name, in column order.
+        // Base names are only taken from columns outside the primary key, but primary key
+        // columns still count as members of a group.
+        Map<String, List<String>> numberedColumnsByBase = new HashMap<>();
+        Set<String> baseColumnNames = new LinkedHashSet<>();
+        for (Column column : table.getColumns()) {
+            String name = column.getName();
+            int baseLength = numberSuffixStart(name);
+            if (baseLength == name.length()) {
+                continue;
+            }
+            String baseName = name.substring(0, baseLength);
+            List<String> numberedColumns = numberedColumnsByBase.get(baseName);
+            if (numberedColumns == null) {
+                numberedColumns = new ArrayList<>(2);
+                numberedColumnsByBase.put(baseName, numberedColumns);
+            }
+            numberedColumns.add(name);
+            
+            // Skip very short column names and primary key columns as base candidates, and
+            // require a base name of at least 3 characters
+            if (name.length() > 2 && baseName.length() >= 3 && !pkColumnNames.contains(name)) {
+                baseColumnNames.add(baseName);
+            }
+        }
+        
+        for (String baseColumnName : baseColumnNames) {
+            List<String> numberedColumns = numberedColumnsByBase.get(baseColumnName);
             
             if (numberedColumns.size() >= 2) {
-                // Check if these columns are part of primary key
-                boolean allArePartOfPK = true;
-                for (String col : numberedColumns) {
-                    if (!pkColumnNames.contains(col)) {
-                        allArePartOfPK = false;
-                        break;
-                    }
-                }
-                
                 // Skip if all columns are part of the primary key
-                if (allArePartOfPK) {
+                if (pkColumnNames.containsAll(numberedColumns)) {
                     continue;
                 }
                 
                 log.debug("Found repeating group in table {}: {} columns", 
                     table.getName(), baseColumnName);
+                // Two numbered columns named like ids are more likely a composite key (a warning)
+                String columnNames = String.join(", ", numberedColumns);
+                IssueCode code = numberedColumns.size() <= 2 && columnNames.contains("id")
+                    ? IssueCode.NUMBERED_IDENTIFIERS : IssueCode.REPEATING_GROUP;
                 issues.add(new NormalizationIssue(
-                    NormalizationForm.FIRST_NORMAL_FORM,
+                    code,
                     table.getName(),
-                    String.join(", ", numberedColumns),
-                    "Potential repeating group detected: " + baseColumnName + " columns",
-                    "Create a separate table to store these values",
-                    generateRepeatingGroupFixSql(table.getName(), baseColumnName, numberedColumns)
+                    columnNames,
+                    () -> generateRepeatingGroupFixSql(table.getName(), baseColumnName, numberedColumns),
+                    baseColumnName
                 ));
             }
         }
     }
     
     /**
-     * Finds potential base column names by removing trailing numbers.
-     * Excludes primary key columns to avoid false positives.
+     * Returns the length of the name without its trailing digits (address12 -> 7).
      */
-    private List<String> findPotentialBaseColumnNames(List<String> columnNames, Set<String> pkColumnNames) {
-        List<String> baseNames = new ArrayList<>();
-        
-        for (String name : columnNames) {
-            // Skip very short column names and primary key columns
-            if (name.length() <= 2 || pkColumnNames.contains(name)) {
-                continue;
-            }
-            
-            String baseName = name.replaceAll("\\d+$", "");
-            // Only consider it a base name if removing numbers actually changed something
-            // and the resulting base name is at least 3 characters long
-            if (!baseName.equals(name) && baseName.length() >= 3 && !baseNames.contains(baseName)) {
-                baseNames.add(baseName);
-            }
-        }
-        
-        return baseNames;
-    }
-    
-    /**
-     * Finds columns that appear to be numbered variations of a base name.
-     */
-    private List<String> findNumberedColumns(List<String> columnNames, String baseName) {
-        List<String> numberedColumns = new ArrayList<>();
-        
-        for (String name : columnNames) {
-            if (name.matches(baseName + "\\d+")) {
-                numberedColumns.add(name);
-            }
+    private static int numberSuffixStart(String name) {
+        int end = name.length();
+        while (end > 0 && name.charAt(end - 1) >= '0' && name.charAt(end - 1) <= '9') {
+            end--;
         }
-        
-        return numberedColumns;
+        return end;
     }
     
     /**
@@ -178,9 +189,10 @@ public class FirstNormalFormAnalyzer implements NormalizationAnalyzer {
         sql.append("    ").append(column.getName()).append("_value ");
         
         // Determine appropriate data type for the values
-        if (column.getDataType().toUpperCase().contains("VARCHAR")) {
+        DataType.Family family = column.getType().getFamily();
+        if (family == DataType.Family.VARCHAR) {
             sql.append("VARCHAR(255)");
-        } else if (column.getDataType().toUpperCase().contains("INT")) {
+        } else if (family == DataType.Family.INTEGER) {
             sql.append("INT");
         } else {
             sql.append("TEXT");
@@ -0,0 +1,463 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.IdentifierTable;
+import com.schema.analyzer.model.NormalizationForm;
+import com.schema.analyzer.model.Table;
+import com.schema.analyzer.model.UniqueConstraint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * The functional dependencies of one table, over the positions of its columns, with the
+ * algorithms the analyzers reason with: attribute closure, superkey test, candidate key
+ * enumeration and the BCNF check.
+ *
+ * Closures are computed with the counting algorithm of Beeri and Bernstein, in time linear
+ * in the total size of the dependencies. An instance belongs to a single thread.
+ */
+public class FunctionalDependencies {
+
+    /**
+     * Default bound on the candidate keys enumerated for a table; a table can have
+     * exponentially many.
+     */
+    public static final int MAX_CANDIDATE_KEYS = 64;
+
+    private final Table table;
+    private final List<Column> columns;
+    private final Map<String, Integer> positionsByFoldedName = new HashMap<>();
+    private final long[] allAttributes;
+    private final List<FunctionalDependency> dependencies = new ArrayList<>();
+
+    // Closure index, rebuilt after dependencies are added
+    private int[][] dependenciesByAttribute;
+    private int[] determinantSizes;
+    private int[][] dependentAttributes;
+    private int[] alwaysFiring;
+
+    public FunctionalDependencies(Table table) {
+        this.table = table;
+        this.columns = table.getColumns();
+        for (int position = 0; position < columns.size(); position++) {
+            // The first column wins, as with Table.findColumnByName
+            positionsByFoldedName.putIfAbsent(columns.get(position).getFoldedName(), position);
+        }
+        this.allAttributes = AttributeSet.all(columns.size());
+    }
+
+    /**
+     * Returns the dependencies implied by a table's primary key and by its unique constraints
+     * on NOT NULL columns. A unique constraint on nullable columns is not a key, since MySQL
+     * allows several rows with NULL in them.
+     */
+    public static FunctionalDependencies ofKeys(Table table) {
+        FunctionalDependencies dependencies = new FunctionalDependencies(table);
+        if (!table.getPrimaryKeyColumns().isEmpty()) {
+            long[] key = dependencies.empty();
+            for (Column column : table.getPrimaryKeyColumns()) {
+                AttributeSet.add(key, dependencies.positionOf(column.getName()));
+            }
+            dependencies.add(key, dependencies.allAttributes.clone(), FunctionalDependency.Origin.PRIMARY_KEY);
+        }
+        for (UniqueConstraint unique : table.getUniqueConstraints()) {
+            long[] key = dependencies.attributesOf(unique.getColumns());
+            if (key != null && !AttributeSet.isEmpty(key) && dependencies.allNotNull(key)) {
+                dependencies.add(key, dependencies.allAttributes.clone(), FunctionalDependency.Origin.UNIQUE);
+            }
+        }
+        return dependencies;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the number of attributes (columns) of the table.
+     */
+    public int getAttributeCount() {
+        return columns.size();
+    }
+
+    /**
+     * Returns the column at a position.
+     */
+    public Column getColumn(int position) {
+        return columns.get(position);
+    }
+
+    /**
+     * Returns the position of a column, or -1 if the table has no column with that name.
+     */
+    public int positionOf(String columnName) {
+        Integer position = positionsByFoldedName.get(IdentifierTable.fold(columnName));
+        return position != null ? position : -1;
+    }
+
+    /**
+     * Returns an empty attribute set sized for this table.
+     */
+    public long[] empty() {
+        return AttributeSet.empty(columns.size());
+    }
+
+    /**
+     * Returns the set of all attributes of the table.
+     */
+    public long[] all() {
+        return allAttributes.clone();
+    }
+
+    /**
+     * Returns the attributes of the named columns, or null if a name is not a column of the table.
+     */
+    public long[] attributesOf(Collection<String> columnNames) {
+        long[] attributes = empty();
+        for (String name : columnNames) {
+            int position = positionOf(name);
+            if (position < 0) {
+                return null;
+            }
+            AttributeSet.add(attributes, position);
+        }
+        return attributes;
+    }
+
+    /**
+     * Returns the names of the columns of an attribute set, in table order, separated by ", ".
+     */
+    public String namesOf(long[] attributes) {
+        StringJoiner names = new StringJoiner(", ");
+        for (int position = AttributeSet.next(attributes, 0); position >= 0; position = AttributeSet.next(attributes, position + 1)) {
+            names.add(columns.get(position).getName());
+        }
+        return names.toString();
+    }
+
+    /**
+     * Returns the columns of an attribute set, in table order.
+     */
+    public List<Column> columnsOf(long[] attributes) {
+        List<Column> result = new ArrayList<>(AttributeSet.size(attributes));
+        for (int position = AttributeSet.next(attributes, 0); position >= 0; position = AttributeSet.next(attributes, position + 1)) {
+            result.add(columns.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * Adds a dependency; trivial dependencies are ignored.
+     */
+    public void add(long[] determinant, long[] dependent, FunctionalDependency.Origin origin) {
+        FunctionalDependency dependency = new FunctionalDependency(determinant, dependent, origin);
+        if (!dependency.isTrivial()) {
+            dependencies.add(dependency);
+            dependenciesByAttribute = null;
+        }
+    }
+
+    /**
+     * Adds a dependency between named columns.
+     *
+     * @return false if a name is not a column of the table, in which case nothing is added
+     */
+    public boolean add(Collection<String> determinant, Collection<String> dependent, FunctionalDependency.Origin origin) {
+        long[] left = attributesOf(determinant);
+        long[] right = attributesOf(dependent);
+        if (left == null || right == null) {
+            return false;
+        }
+        add(left, right, origin);
+        return true;
+    }
+
+    /**
+     * Returns the dependencies added so far, in the order they were added.
+     */
+    public List<FunctionalDependency> getDependencies() {
+        return Collections.unmodifiableList(dependencies);
+    }
+
+    /**
+     * Returns the closure of a set of attributes: every attribute it determines.
+     */
+    public long[] closure(long[] attributes) {
+        return closure(attributes, null);
+    }
+
+    /**
+     * Returns the closure of a set of attributes under the dependencies that are not disabled.
+     *
+     * @param disabled Flags by dependency index of the dependencies to leave out, or null
+     */
+    private long[] closure(long[] attributes, boolean[] disabled) {
+        buildClosureIndex();
+        long[] closure = attributes.clone();
+        int[] missing = determinantSizes.clone();
+        int[] queue = new int[columns.size()];
+        int head = 0;
+        int tail = 0;
+        for (int position = AttributeSet.next(attributes, 0); position >= 0; position = AttributeSet.next(attributes, position + 1)) {
+            queue[tail++] = position;
+        }
+        for (int dependency : alwaysFiring) {
+            if (disabled == null || !disabled[dependency]) {
+                tail = fire(dependency, closure, queue, tail);
+            }
+        }
+
+        // Each attribute enters the queue once and each dependency fires once
+        while (head < tail) {
+            for (int dependency : dependenciesByAttribute[queue[head++]]) {
+                if (--missing[dependency] == 0 && (disabled == null || !disabled[dependency])) {
+                    tail = fire(dependency, closure, queue, tail);
+                }
+            }
+        }
+        return closure;
+    }
+
+    /**
+     * Returns true if a set of attributes determines every attribute of the table.
+     */
+    public boolean isSuperkey(long[] attributes) {
+        return AttributeSet.equals(closure(attributes), allAttributes);
+    }
+
+    /**
+     * Returns the candidate keys of the table (the minimal superkeys), at most
+     * {@link #MAX_CANDIDATE_KEYS} of them.
+     */
+    public List<long[]> candidateKeys() {
+        return candidateKeys(MAX_CANDIDATE_KEYS);
+    }
+
+    /**
+     * Returns the candidate keys of the table, using the algorithm of Lucchesi and Osborn:
+     * starting from one key, every key K and dependency X → Y give the superkey X ∪ (K − Y),
+     * which is reduced to a new key unless it contains a known one.
+     *
+     * @param limit The maximum number of keys to return
+     */
+    public List<long[]> candidateKeys(int limit) {
+        List<long[]> keys = new ArrayList<>();
+        if (columns.isEmpty() || limit <= 0) {
+            return keys;
+        }
+        keys.add(minimize(allAttributes.clone()));
+
+        Deque<long[]> pending = new ArrayDeque<>(keys);
+        while (!pending.isEmpty() && keys.size() < limit) {
+            long[] key = pending.poll();
+            for (FunctionalDependency dependency : dependencies) {
+                long[] superkey = AttributeSet.union(dependency.getDeterminant(),
+                                                     AttributeSet.difference(key, dependency.getDependent()));
+                if (containsKey(superkey, keys)) {
+                    continue;
+                }
+                long[] newKey = minimize(superkey);
+                keys.add(newKey);
+                pending.add(newKey);
+                if (keys.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the attributes that are part of at least one of the given keys.
+     */
+    public long[] primeAttributes(List<long[]> keys) {
+        long[] prime = empty();
+        for (long[] key : keys) {
+            prime = AttributeSet.union(prime, key);
+        }
+        return prime;
+    }
+
+    /**
+     * Returns a minimal cover of the dependencies: an equivalent set in which every dependent
+     * is a single attribute, no determinant has an extraneous attribute and no dependency
+     * follows from the others.
+     */
+    public FunctionalDependencies minimalCover() {
+        // Split dependents into single attributes and drop extraneous determinant attributes.
+        // Every step keeps the set equivalent, so closures under this set stay valid.
+        FunctionalDependencies reduced = new FunctionalDependencies(table);
+        for (FunctionalDependency dependency : dependencies) {
+            long[] dependent = AttributeSet.difference(dependency.getDependent(), dependency.getDeterminant());
+            for (int attribute = AttributeSet.next(dependent, 0); attribute >= 0; attribute = AttributeSet.next(dependent, attribute + 1)) {
+                long[] determinant = dependency.getDeterminant().clone();
+                for (int position = AttributeSet.next(determinant, 0); position >= 0; position = AttributeSet.next(determinant, position + 1)) {
+                    AttributeSet.remove(determinant, position);
+                    if (!AttributeSet.contains(closure(determinant), attribute)) {
+                        AttributeSet.add(determinant, position);
+                    }
+                }
+                if (!reduced.containsDependency(determinant, attribute)) {
+                    reduced.add(determinant, AttributeSet.of(columns.size(), attribute), dependency.getOrigin());
+                }
+            }
+        }
+
+        // Drop dependencies implied by the ones that remain
+        List<FunctionalDependency> candidates = reduced.dependencies;
+        boolean[] disabled = new boolean[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            disabled[i] = true;
+            FunctionalDependency dependency = candidates.get(i);
+            int attribute = AttributeSet.next(dependency.getDependent(), 0);
+            if (!AttributeSet.contains(reduced.closure(dependency.getDeterminant(), disabled), attribute)) {
+                disabled[i] = false;
+            }
+        }
+
+        FunctionalDependencies cover = new FunctionalDependencies(table);
+        for (int i = 0; i < candidates.size(); i++) {
+            if (!disabled[i]) {
+                cover.dependencies.add(candidates.get(i));
+            }
+        }
+        return cover;
+    }
+
+    /**
+     * Returns the dependencies whose determinant is not a superkey. The table is in BCNF
+     * if and only if there are none.
+     */
+    public List<FunctionalDependency> bcnfViolations() {
+        List<FunctionalDependency> violations = new ArrayList<>();
+        for (FunctionalDependency dependency : dependencies) {
+            if (!isSuperkey(dependency.getDeterminant())) {
+                violations.add(dependency);
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Returns the lowest normal form a dependency violates: 2NF if its determinant is part of
+     * a candidate key and it determines a non-prime attribute, 3NF if its determinant is not
+     * part of a key and it determines a non-prime attribute, BCNF if it only determines prime
+     * attributes. Returns null if its determinant is a superkey.
+     *
+     * @param keys The candidate keys of the table
+     */
+    public NormalizationForm violatedForm(FunctionalDependency dependency, List<long[]> keys) {
+        long[] determinant = dependency.getDeterminant();
+        if (isSuperkey(determinant)) {
+            return null;
+        }
+        long[] nonPrime = AttributeSet.difference(
+            AttributeSet.difference(dependency.getDependent(), determinant), primeAttributes(keys));
+        if (AttributeSet.isEmpty(nonPrime)) {
+            return NormalizationForm.BOYCE_CODD_NORMAL_FORM;
+        }
+        for (long[] key : keys) {
+            if (AttributeSet.containsAll(key, determinant)) {
+                return NormalizationForm.SECOND_NORMAL_FORM;
+            }
+        }
+        return NormalizationForm.THIRD_NORMAL_FORM;
+    }
+
+    /**
+     * Removes attributes from a superkey as long as it stays a superkey.
+     */
+    private long[] minimize(long[] superkey) {
+        for (int position = AttributeSet.next(superkey, 0); position >= 0; position = AttributeSet.next(superkey, position + 1)) {
+            AttributeSet.remove(superkey, position);
+            if (!isSuperkey(superkey)) {
+                AttributeSet.add(superkey, position);
+            }
+        }
+        return superkey;
+    }
+
+    private static boolean containsKey(long[] attributes, List<long[]> keys) {
+        for (long[] key : keys) {
+            if (AttributeSet.containsAll(attributes, key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsDependency(long[] determinant, int attribute) {
+        for (FunctionalDependency dependency : dependencies) {
+            if (AttributeSet.equals(dependency.getDeterminant(), determinant)
+                && AttributeSet.contains(dependency.getDependent(), attribute)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean allNotNull(long[] attributes) {
+        for (int position = AttributeSet.next(attributes, 0); position >= 0; position = AttributeSet.next(attributes, position + 1)) {
+            if (columns.get(position).isNullable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int fire(int dependency, long[] closure, int[] queue, int tail) {
+        for (int position : dependentAttributes[dependency]) {
+            if (!AttributeSet.contains(closure, position)) {
+                AttributeSet.add(closure, position);
+                queue[tail++] = position;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Indexes the dependencies by the attributes of their determinants.
+     */
+    private void buildClosureIndex() {
+        if (dependenciesByAttribute != null) {
+            return;
+        }
+        int[] counts = new int[columns.size()];
+        determinantSizes = new int[dependencies.size()];
+        dependentAttributes = new int[dependencies.size()][];
+        List<Integer> firing = new ArrayList<>();
+        for (int i = 0; i < dependencies.size(); i++) {
+            int[] determinant = AttributeSet.toArray(dependencies.get(i).getDeterminant());
+            determinantSizes[i] = determinant.length;
+            dependentAttributes[i] = AttributeSet.toArray(dependencies.get(i).getDependent());
+            if (determinant.length == 0) {
+                firing.add(i);
+            }
+            for (int position : determinant) {
+                counts[position]++;
+            }
+        }
+
+        int[][] byAttribute = new int[columns.size()][];
+        for (int position = 0; position < byAttribute.length; position++) {
+            byAttribute[position] = new int[counts[position]];
+            counts[position] = 0;
+        }
+        for (int i = 0; i < dependencies.size(); i++) {
+            long[] determinant = dependencies.get(i).getDeterminant();
+            for (int position = AttributeSet.next(determinant, 0); position >= 0; position = AttributeSet.next(determinant, position + 1)) {
+                byAttribute[position][counts[position]++] = i;
+            }
+        }
+        alwaysFiring = firing.stream().mapToInt(Integer::intValue).toArray();
+        dependenciesByAttribute = byAttribute;
+    }
+}
@@ -0,0 +1,55 @@
+package com.schema.analyzer.service;
+
+/**
+ * A functional dependency X → Y between columns of one table: rows that agree on the
+ * determinant X agree on the dependent Y. Both sides are {@link AttributeSet}s of column
+ * positions in the table. Instances are immutable; the arrays must not be modified.
+ */
+public final class FunctionalDependency {
+
+    /**
+     * Where a dependency comes from.
+     */
+    public enum Origin {
+        /** The primary key determines every column. */
+        PRIMARY_KEY,
+        /** A unique constraint on NOT NULL columns determines every column. */
+        UNIQUE,
+        /** Declared by a {@link DependencySource}. */
+        DECLARED,
+        /** Guessed from column names. */
+        INFERRED,
+        /** Holds in sample data of the table. */
+        DISCOVERED
+    }
+
+    private final long[] determinant;
+    private final long[] dependent;
+    private final Origin origin;
+
+    public FunctionalDependency(long[] determinant, long[] dependent, Origin origin) {
+        this.determinant = determinant;
+        this.dependent = dependent;
+        this.origin = origin;
+    }
+
+    public long[] getDeterminant() {
+        return determinant;
+    }
+
+    public long[] getDependent() {
+        return dependent;
+    }
+
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Returns true if the dependent is part of the determinant, so the dependency holds in
+     * every table.
+     */
+    public boolean isTrivial() {
+        return AttributeSet.containsAll(determinant, dependent);
+    }
+}
@@ -0,0 +1,447 @@
+package com.schema.analyzer.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams the rows of the {@code INSERT ... VALUES} (and {@code REPLACE}) statements of a SQL
+ * dump, such as those written by mysqldump, without materializing statements or values.
+ *
+ * Each value is reduced to a 64-bit hash of its text as it is read, so memory use does not
+ * depend on the size of statements or tables: an extended INSERT holding a whole table
+ * costs no more than one holding a single row. Equal values written the same way hash the
+ * same, which is what dependency checks need. Other statements are skipped by the same
+ * lexical rules as {@link SqlStatementReader}: quoted text, comments and {@code DELIMITER}
+ * directives are honoured.
+ */
+final class InsertValuesScanner {
+
+    /**
+     * Receives the rows of the scanned INSERT statements.
+     */
+    interface RowHandler {
+
+        /**
+         * Called at the start of each INSERT statement.
+         *
+         * @param table The table name, without schema qualifier or quotes
+         * @param columns The statement's column list, or null if it has none
+         * @return false to skip the statement's rows
+         */
+        boolean startInsert(String table, List<String> columns);
+
+        /**
+         * Called for each row of an accepted statement.
+         *
+         * @param hashes The hashes of the row's values, in statement order; only valid during the call
+         * @param valueCount The number of values in the row
+         */
+        void row(long[] hashes, int valueCount);
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String DELIMITER_DIRECTIVE = "DELIMITER";
+
+    /**
+     * Rows read between deadline checks within one statement; an extended INSERT may hold a whole table.
+     */
+    private static final int ROWS_PER_DEADLINE_CHECK = 4096;
+
+    private final Reader reader;
+    private final Deadline deadline;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private String delimiter = ";";
+    private long[] hashes = new long[16];
+
+    private InsertValuesScanner(Reader reader, Deadline deadline) {
+        this.reader = reader;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Scans a SQL script, passing the rows of its INSERT statements to a handler, until the
+     * script ends or the deadline passes. The deadline is checked between statements and
+     * every few thousand rows. The reader is not closed.
+     *
+     * @return false if the deadline stopped the scan before the end of the script
+     */
+    static boolean scan(Reader reader, RowHandler handler, Deadline deadline) throws IOException {
+        return new InsertValuesScanner(reader, deadline).scan(handler);
+    }
+
+    private boolean scan(RowHandler handler) throws IOException {
+        while (true) {
+            skipSpaceAndComments();
+            if (!ensureAvailable(1)) {
+                return true;
+            }
+            if (deadline.isExpired()) {
+                return false;
+            }
+            if (isDelimiterDirective()) {
+                readDelimiterDirective();
+            } else if (matchesDelimiter()) {
+                position += delimiter.length();
+            } else {
+                String keyword = readWord();
+                if (keyword.equalsIgnoreCase("INSERT") || keyword.equalsIgnoreCase("REPLACE")) {
+                    if (!readInsert(handler)) {
+                        return false;
+                    }
+                } else {
+                    skipStatement();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads an INSERT statement after its first keyword, up to and including its delimiter.
+     *
+     * @return false if the deadline passed before all of its rows were read
+     */
+    private boolean readInsert(RowHandler handler) throws IOException {
+        String word = nextWord();
+        while (word.equalsIgnoreCase("LOW_PRIORITY") || word.equalsIgnoreCase("DELAYED")
+               || word.equalsIgnoreCase("HIGH_PRIORITY") || word.equalsIgnoreCase("IGNORE")) {
+            word = nextWord();
+        }
+        String table = word.equalsIgnoreCase("INTO") || word.isEmpty() ? readQualifiedName() : qualifiedName(word);
+        if (table.isEmpty()) {
+            skipStatement();
+            return true;
+        }
+
+        List<String> columns = null;
+        skipSpaceAndComments();
+        if (ensureAvailable(1) && buffer[position] == '(') {
+            position++;
+            columns = new ArrayList<>();
+            while (true) {
+                skipSpaceAndComments();
+                columns.add(readName());
+                skipSpaceAndComments();
+                if (!ensureAvailable(1) || buffer[position] != ',') {
+                    break;
+                }
+                position++;
+            }
+            if (!ensureAvailable(1) || buffer[position] != ')') {
+                skipStatement();
+                return true;
+            }
+            position++;
+        }
+
+        // INSERT ... SELECT and INSERT ... SET have no rows to read
+        String values = nextWord();
+        if (!values.equalsIgnoreCase("VALUES") && !values.equalsIgnoreCase("VALUE")) {
+            skipStatement();
+            return true;
+        }
+
+        boolean accepted = handler.startInsert(table, columns);
+        int rows = 0;
+        while (true) {
+            if (++rows % ROWS_PER_DEADLINE_CHECK == 0 && deadline.isExpired()) {
+                return false;
+            }
+            skipSpaceAndComments();
+            if (!ensureAvailable(1) || buffer[position] != '(') {
+                break;
+            }
+            position++;
+            int valueCount = readRow();
+            if (accepted) {
+                handler.row(hashes, valueCount);
+            }
+            skipSpaceAndComments();
+            if (!ensureAvailable(1) || buffer[position] != ',') {
+                break;
+            }
+            position++;
+        }
+        // The delimiter, or a trailing clause such as ON DUPLICATE KEY UPDATE
+        skipStatement();
+        return true;
+    }
+
+    /**
+     * Reads the values of a row after its opening parenthesis, hashing each one's text
+     * outside whitespace. Parentheses of function calls nest.
+     *
+     * @return The number of values
+     */
+    private int readRow() throws IOException {
+        int valueCount = 0;
+        int depth = 0;
+        long hash = ValueHash.SEED;
+        while (ensureAvailable(1)) {
+            char c = buffer[position];
+            if (c == '\'' || c == '"') {
+                hash = readQuoted(c, hash);
+                continue;
+            }
+            position++;
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (depth == 0 && (c == ',' || c == ')')) {
+                if (valueCount == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, valueCount * 2);
+                }
+                hashes[valueCount++] = ValueHash.finish(hash);
+                hash = ValueHash.SEED;
+                if (c == ')') {
+                    break;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            }
+            hash = ValueHash.add(hash, c);
+        }
+        return valueCount;
+    }
+
+    /**
+     * Reads quoted text, quotes included, honouring doubled quotes and backslash escapes
+     * (backslashes are not escapes inside backtick identifiers).
+     *
+     * @return The hash with the text's characters added
+     */
+    private long readQuoted(char quote, long hash) throws IOException {
+        hash = ValueHash.add(hash, quote);
+        position++;
+        while (ensureAvailable(1)) {
+            char c = buffer[position++];
+            hash = ValueHash.add(hash, c);
+            if (c == '\\' && quote != '`') {
+                if (ensureAvailable(1)) {
+                    hash = ValueHash.add(hash, buffer[position++]);
+                }
+            } else if (c == quote) {
+                if (ensureAvailable(1) && buffer[position] == quote) {
+                    hash = ValueHash.add(hash, buffer[position++]);
+                } else {
+                    break;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Skips to the end of the current statement, past its delimiter.
+     */
+    private void skipStatement() throws IOException {
+        while (ensureAvailable(1)) {
+            if (matchesDelimiter()) {
+                position += delimiter.length();
+                return;
+            }
+            char c = buffer[position];
+            if (c == '\'' || c == '"' || c == '`') {
+                readQuoted(c, ValueHash.SEED);
+            } else if (!skipComment()) {
+                position++;
+            }
+        }
+    }
+
+    private void skipSpaceAndComments() throws IOException {
+        while (ensureAvailable(1)) {
+            if (Character.isWhitespace(buffer[position])) {
+                position++;
+            } else if (!skipComment()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Skips a comment starting at the current position, including MySQL executable
+     * comments ({@code /*!40101 ... *}{@code /}), which are dropped as SqlStatementReader does.
+     *
+     * @return false if no comment starts there
+     */
+    private boolean skipComment() throws IOException {
+        char c = buffer[position];
+        if (c == '#' || (c == '-' && ensureAvailable(2) && buffer[position + 1] == '-'
+                         && (!ensureAvailable(3) || Character.isWhitespace(buffer[position + 2])))) {
+            while (ensureAvailable(1)) {
+                if (buffer[position++] == '\n') {
+                    break;
+                }
+            }
+            return true;
+        }
+        if (c == '/' && ensureAvailable(2) && buffer[position + 1] == '*') {
+            position += 2;
+            while (ensureAvailable(1)) {
+                if (buffer[position] == '*' && ensureAvailable(2) && buffer[position + 1] == '/') {
+                    position += 2;
+                    break;
+                }
+                position++;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads the next word after whitespace and comments, or returns "" if none starts there.
+     */
+    private String nextWord() throws IOException {
+        skipSpaceAndComments();
+        return readWord();
+    }
+
+    private String readWord() throws IOException {
+        StringBuilder word = new StringBuilder();
+        while (ensureAvailable(1)) {
+            char c = buffer[position];
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '$') {
+                break;
+            }
+            word.append(c);
+            position++;
+        }
+        return word.toString();
+    }
+
+    /**
+     * Reads a possibly backtick- or double-quoted name.
+     */
+    private String readName() throws IOException {
+        if (!ensureAvailable(1) || (buffer[position] != '`' && buffer[position] != '"')) {
+            return readWord();
+        }
+        char quote = buffer[position++];
+        StringBuilder name = new StringBuilder();
+        while (ensureAvailable(1)) {
+            char c = buffer[position++];
+            if (c == quote) {
+                if (ensureAvailable(1) && buffer[position] == quote) {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            name.append(c);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Reads a name that may be qualified by a schema, returning its last part.
+     */
+    private String readQualifiedName() throws IOException {
+        skipSpaceAndComments();
+        return qualifiedName(readName());
+    }
+
+    private String qualifiedName(String name) throws IOException {
+        while (ensureAvailable(1) && buffer[position] == '.') {
+            position++;
+            name = readName();
+        }
+        return name;
+    }
+
+    private boolean matchesDelimiter() throws IOException {
+        int length = delimiter.length();
+        if (!ensureAvailable(length)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[position + i] != delimiter.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isDelimiterDirective() throws IOException {
+        int length = DELIMITER_DIRECTIVE.length();
+        if (!ensureAvailable(length + 1)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase(buffer[position + i]) != DELIMITER_DIRECTIVE.charAt(i)) {
+                return false;
+            }
+        }
+        char next = buffer[position + length];
+        return next == ' ' || next == '\t';
+    }
+
+    /**
+     * Consumes a {@code DELIMITER <token>} line and switches to the new delimiter.
+     */
+    private void readDelimiterDirective() throws IOException {
+        position += DELIMITER_DIRECTIVE.length();
+        StringBuilder token = new StringBuilder();
+        while (ensureAvailable(1)) {
+            char c = buffer[position++];
+            if (c == '\n') {
+                break;
+            }
+            if (!Character.isWhitespace(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                // Ignore anything after the delimiter token on the same line
+                while (ensureAvailable(1) && buffer[position++] != '\n') {
+                    // Skip
+                }
+                break;
+            }
+        }
+        if (token.length() > 0) {
+            delimiter = token.toString();
+        }
+    }
+
+    /**
+     * Makes sure at least {@code count} characters are buffered from the current position,
+     * compacting and refilling the buffer as needed.
+     *
+     * @return false if the input ends before that many characters are available
+     */
+    private boolean ensureAvailable(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        if (endOfInput) {
+            return false;
+        }
+
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        while (limit < count) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,153 @@
+package com.schema.analyzer.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader over a UTF-8 file that is memory-mapped one window at a time.
+ *
+ * Bytes are decoded lazily, straight from the mapped window into the caller's buffer, so
+ * reading a file of any size needs no heap beyond the caller's own buffer. Combined with
+ * {@link SqlStatementReader} this lets multi-gigabyte dumps be scanned in a fixed-size heap.
+ * Malformed input (e.g. binary data in INSERT statements) is replaced rather than rejected.
+ */
+public class MappedFileReader extends Reader {
+
+    /**
+     * Bytes mapped at a time. A single mapping cannot exceed 2GB, and smaller windows keep
+     * the address space used by one request modest.
+     */
+    private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Smallest usable window: must hold the longest UTF-8 sequence.
+     */
+    private static final int MIN_WINDOW_SIZE = 16;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean flushed;
+
+    /**
+     * Chars decoded for a read of a single char but not yet returned: the low surrogate
+     * of a supplementary character.
+     */
+    private final CharBuffer pending = (CharBuffer) CharBuffer.allocate(2).limit(0);
+
+    public MappedFileReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedFileReader(Path file, int windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.windowSize = Math.max(MIN_WINDOW_SIZE, windowSize);
+        try {
+            this.size = channel.size();
+            map(0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (window == null) {
+            throw new IOException("Reader closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (pending.hasRemaining()) {
+            int count = Math.min(len, pending.remaining());
+            pending.get(cbuf, off, count);
+            return count;
+        }
+        if (flushed) {
+            return -1;
+        }
+        if (len >= 2) {
+            return decode(CharBuffer.wrap(cbuf, off, len));
+        }
+
+        // A supplementary character decodes to a surrogate pair, which does not fit in a single
+        // char: decode into the pending buffer and hand out its chars one at a time
+        pending.clear();
+        int count = decode(pending);
+        pending.flip();
+        if (count < 0) {
+            return -1;
+        }
+        cbuf[off] = pending.get();
+        return 1;
+    }
+
+    /**
+     * Decodes into a buffer with room for at least two chars, mapping further windows as
+     * needed, until some chars have been decoded or the input ends.
+     *
+     * @return The number of chars decoded, or -1 at the end of the input
+     */
+    private int decode(CharBuffer out) throws IOException {
+        int start = out.position();
+        while (true) {
+            boolean lastWindow = windowStart + window.limit() >= size;
+            CoderResult result = decoder.decode(window, out, lastWindow);
+            if (lastWindow && !window.hasRemaining() && !flushed) {
+                decoder.flush(out);
+                flushed = true;
+            }
+
+            int count = out.position() - start;
+            if (count > 0) {
+                return count;
+            }
+            if (!result.isUnderflow()) {
+                // Cannot happen with room for a surrogate pair; never remap over undecoded input
+                throw new IOException("Cannot decode " + result + " at byte " + (windowStart + window.position()));
+            }
+            if (lastWindow) {
+                return -1;
+            }
+            // Window exhausted (possibly in the middle of a multi-byte sequence): map the next one
+            // starting at the first byte not yet decoded
+            map(windowStart + window.position());
+        }
+    }
+
+    /**
+     * Returns the size of the underlying file in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mapping itself is released once the buffer is garbage collected
+        window = null;
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        long length = Math.min(windowSize, size - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        windowStart = start;
+    }
+}
@@ -1,6 +1,7 @@
 package com.schema.analyzer.service;
 
 import com.schema.analyzer.model.DatabaseSchema;
+import com.schema.analyzer.model.NormalizationForm;
 import com.schema.analyzer.model.NormalizationIssue;
 
 import java.util.List;
@@ -9,20 +10,37 @@ import java.util.List;
  * Interface for normalization analyzers to implement.
  */
 public interface NormalizationAnalyzer {
-    
+
+    /**
+     * Returns the normalization form this analyzer checks.
+     */
+    NormalizationForm getForm();
+
+    /**
+     * Analyzes the schema of a context for a specific normalization form.
+     * Results for lower forms are taken from the context, so that each form is analyzed
+     * only once; callers should normally go through {@link AnalysisContext#getIssues}.
+     *
+     * @param context The analysis context holding the schema and the results so far
+     * @return A list of normalization issues found
+     */
+    List<NormalizationIssue> analyze(AnalysisContext context);
+
     /**
      * Analyzes a database schema for a specific normalization form.
-     * 
+     *
      * @param schema The database schema to analyze
      * @return A list of normalization issues found
      */
-    List<NormalizationIssue> analyze(DatabaseSchema schema);
-    
+    default List<NormalizationIssue> analyze(DatabaseSchema schema) {
+        return new AnalysisContext(schema).getIssues(this);
+    }
+
     /**
      * Determines if the schema complies with this normalization form.
-     * 
+     *
      * @param schema The database schema to check
      * @return true if the schema complies with this normalization form
      */
     boolean isCompliant(DatabaseSchema schema);
-}
\ No newline at end of file
+}
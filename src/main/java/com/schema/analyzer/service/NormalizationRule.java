@@ -0,0 +1,34 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.NormalizationForm;
+import com.schema.analyzer.model.NormalizationIssue;
+
+import java.util.List;
+
+/**
+ * A single normalization check, run on every table of a schema by a {@link RuleBasedAnalyzer}.
+ *
+ * Rule ids have the form {@code <form>.<name>}, e.g. {@code 3nf.address}, so a request can
+ * enable or disable single rules or all rules of a form (see {@link RuleSelection}).
+ * Rules run concurrently on different tables and must not keep mutable state.
+ */
+public interface NormalizationRule {
+
+    /**
+     * Returns the unique id of this rule.
+     */
+    String getId();
+
+    /**
+     * Returns the normalization form this rule checks.
+     */
+    NormalizationForm getForm();
+
+    /**
+     * Checks one table, adding any issues found to the given list.
+     *
+     * @param table The table to check, with lookups shared by the rules of an analyzer
+     * @param issues The issues found for this table so far
+     */
+    void check(TableContext table, List<NormalizationIssue> issues);
+}
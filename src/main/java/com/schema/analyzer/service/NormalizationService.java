@@ -3,9 +3,16 @@ package com.schema.analyzer.service;
 import com.schema.analyzer.model.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -19,68 +26,88 @@ public class NormalizationService {
     private final FirstNormalFormAnalyzer firstNfAnalyzer;
     private final SecondNormalFormAnalyzer secondNfAnalyzer;
     private final ThirdNormalFormAnalyzer thirdNfAnalyzer;
+    private final BoyceCoddNormalFormAnalyzer bcnfAnalyzer;
+    private final DependencyVerifier dependencyVerifier;
+    private final ForkJoinPool analysisPool;
+    private final long timeBudgetMs;
     
+    /**
+     * Creates a normalization service.
+     * 
+     * @param dependencyVerifier Checks the dependencies behind issues against the INSERT data of scripts
+     * @param analysisParallelism Number of threads the tables of a schema are analyzed on;
+     *                            1 (or less) analyzes them serially on the calling thread
+     * @param timeBudgetMs Time each call may spend parsing and analyzing a schema before it
+     *                     returns partial results marked incomplete; 0 (or less) for no limit
+     */
     @Autowired
     public NormalizationService(
             SQLParserService sqlParserService,
             FirstNormalFormAnalyzer firstNfAnalyzer,
             SecondNormalFormAnalyzer secondNfAnalyzer,
-            ThirdNormalFormAnalyzer thirdNfAnalyzer) {
+            ThirdNormalFormAnalyzer thirdNfAnalyzer,
+            BoyceCoddNormalFormAnalyzer bcnfAnalyzer,
+            DependencyVerifier dependencyVerifier,
+            @Value("${schema.analyzer.analysis.parallelism:1}") int analysisParallelism,
+            @Value("${schema.analyzer.time-budget-ms:30000}") long timeBudgetMs) {
         this.sqlParserService = sqlParserService;
         this.firstNfAnalyzer = firstNfAnalyzer;
         this.secondNfAnalyzer = secondNfAnalyzer;
         this.thirdNfAnalyzer = thirdNfAnalyzer;
+        this.bcnfAnalyzer = bcnfAnalyzer;
+        this.dependencyVerifier = dependencyVerifier;
+        this.analysisPool = analysisParallelism > 1 ? new ForkJoinPool(analysisParallelism) : null;
+        this.timeBudgetMs = Math.max(0, timeBudgetMs);
+        log.debug("Analysis parallelism: {}, time budget: {} ms", Math.max(1, analysisParallelism), this.timeBudgetMs);
+    }
+    
+    /**
+     * Returns a builder for normalization services outside the application context, e.g. in
+     * tests. The parser and all four analyzers must be given; unless set, tables are analyzed
+     * serially, without a time budget, and dependencies are not verified.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (analysisPool != null) {
+            analysisPool.shutdownNow();
+        }
     }
     
     /**
-     * Analyzes a SQL schema for normalization issues.
+     * Analyzes a SQL schema for normalization issues. If the script also holds table data,
+     * as a dump does, the dependencies behind the issues are checked against its INSERT
+     * statements and the issues get a confidence.
      * 
      * @param sqlScript The SQL CREATE TABLE statements to analyze
      * @return The analysis result containing the highest achieved normalization form and issues found
      */
     public AnalysisResult analyzeSchema(String sqlScript) {
+        return analyzeSchema(sqlScript, RuleSelection.ALL);
+    }
+    
+    /**
+     * Analyzes a SQL schema for normalization issues, running only the selected rules.
+     * 
+     * @param sqlScript The SQL CREATE TABLE statements to analyze
+     * @param rules The normalization rules to run
+     * @return The analysis result containing the highest achieved normalization form and issues found
+     * @throws SchemaAnalysisException if the selection names rules that do not exist
+     */
+    public AnalysisResult analyzeSchema(String sqlScript, RuleSelection rules) {
+        checkRuleSelection(rules);
         try {
             // Parse the SQL script into a database schema model
             log.debug("Analyzing schema: {}", sqlScript);
-            DatabaseSchema schema = sqlParserService.parseSchema(sqlScript);
-            
-            // Analyze the schema against each normalization form
-            List<NormalizationIssue> firstNfIssues = firstNfAnalyzer.analyze(schema);
-            
-            // Filter out warnings from 1NF for normalization form determination
-            List<NormalizationIssue> criticalFirstNfIssues = firstNfIssues.stream()
-                .filter(issue -> isCriticalIssue(issue))
-                .collect(Collectors.toList());
-            
-            // Only check 2NF if 1NF passes critical issues
-            List<NormalizationIssue> secondNfIssues = criticalFirstNfIssues.isEmpty() ? 
-                secondNfAnalyzer.analyze(schema) : 
-                new ArrayList<>();
-            
-            // Only check 3NF if 2NF passes
-            List<NormalizationIssue> thirdNfIssues = secondNfIssues.isEmpty() && criticalFirstNfIssues.isEmpty() ? 
-                thirdNfAnalyzer.analyze(schema) : 
-                new ArrayList<>();
-            
-            log.debug("Analysis complete. 1NF issues: {}, 2NF issues: {}, 3NF issues: {}", 
-                    firstNfIssues.size(), secondNfIssues.size(), thirdNfIssues.size());
-            
-            // Determine the highest achieved normalization form
-            NormalizationForm achievedForm = determineAchievedForm(criticalFirstNfIssues, secondNfIssues, thirdNfIssues);
-            log.debug("Achieved normalization form: {}", achievedForm);
-            
-            // Create a result object
-            AnalysisResult result = new AnalysisResult();
-            result.setAchievedForm(achievedForm);
-            result.setSchema(schema);
-            
-            // Add the issues found and deduplicate them
-            Map<NormalizationForm, List<NormalizationIssue>> issuesByForm = new LinkedHashMap<>();
-            issuesByForm.put(NormalizationForm.FIRST_NORMAL_FORM, firstNfIssues);
-            issuesByForm.put(NormalizationForm.SECOND_NORMAL_FORM, secondNfIssues);
-            issuesByForm.put(NormalizationForm.THIRD_NORMAL_FORM, deduplicateIssues(thirdNfIssues));
-            result.setIssuesByForm(issuesByForm);
-            
+            Deadline deadline = Deadline.after(timeBudgetMs);
+            DatabaseSchema schema = sqlParserService.parseSchema(sqlScript, deadline);
+            AnalysisResult result = analyzeParsedSchema(schema, rules, deadline);
+            if (!result.isIncomplete() && dependencyVerifier.hasDependencies(result)) {
+                dependencyVerifier.verify(new StringReader(sqlScript), result, deadline);
+            }
             return result;
         } catch (Exception e) {
             log.error("Error analyzing schema", e);
@@ -89,65 +116,358 @@ public class NormalizationService {
     }
     
     /**
-     * Determines if an issue is critical for determining normalization form.
-     * Some issues like potential TEXT fields are warnings and don't affect normalization status.
+     * Analyzes a SQL schema stored in a file for normalization issues.
+     * The file is scanned without loading it into memory, so it may be arbitrarily large.
+     * If it is a dump with table data, a second scan checks the dependencies behind the
+     * issues against its INSERT statements.
+     * 
+     * @param sqlFile Path of the SQL script to analyze
+     * @return The analysis result containing the highest achieved normalization form and issues found
+     */
+    public AnalysisResult analyzeSchema(Path sqlFile) {
+        return analyzeSchema(sqlFile, RuleSelection.ALL);
+    }
+    
+    /**
+     * Analyzes a SQL schema stored in a file, running only the selected rules.
+     * 
+     * @param sqlFile Path of the SQL script to analyze
+     * @param rules The normalization rules to run
+     * @return The analysis result containing the highest achieved normalization form and issues found
+     * @throws SchemaAnalysisException if the selection names rules that do not exist
+     */
+    public AnalysisResult analyzeSchema(Path sqlFile, RuleSelection rules) {
+        checkRuleSelection(rules);
+        try {
+            log.debug("Analyzing schema file: {}", sqlFile);
+            Deadline deadline = Deadline.after(timeBudgetMs);
+            DatabaseSchema schema = sqlParserService.parseSchema(sqlFile, deadline);
+            AnalysisResult result = analyzeParsedSchema(schema, rules, deadline);
+            if (!result.isIncomplete() && dependencyVerifier.hasDependencies(result)) {
+                try (MappedFileReader dump = new MappedFileReader(sqlFile)) {
+                    dependencyVerifier.verify(dump, result, deadline);
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("Error analyzing schema", e);
+            throw new SchemaAnalysisException("Failed to analyze schema: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Analyzes a SQL schema read from a character stream for normalization issues.
+     * Statements are parsed as they arrive, so analysis of a request body can start
+     * before the body has been received in full. As the stream cannot be read twice,
+     * issues are not checked against its table data.
+     * 
+     * @param sqlReader Reader supplying the SQL script; it is closed once the script has been read
+     * @return The analysis result containing the highest achieved normalization form and issues found
+     */
+    public AnalysisResult analyzeSchema(Reader sqlReader) {
+        return analyzeSchema(sqlReader, RuleSelection.ALL);
+    }
+    
+    /**
+     * Analyzes a SQL schema read from a character stream, running only the selected rules.
+     * 
+     * @param sqlReader Reader supplying the SQL script; it is closed once the script has been read
+     * @param rules The normalization rules to run
+     * @return The analysis result containing the highest achieved normalization form and issues found
+     * @throws SchemaAnalysisException if the selection names rules that do not exist
+     */
+    public AnalysisResult analyzeSchema(Reader sqlReader, RuleSelection rules) {
+        checkRuleSelection(rules);
+        try {
+            log.debug("Analyzing schema from stream");
+            Deadline deadline = Deadline.after(timeBudgetMs);
+            DatabaseSchema schema = sqlParserService.parseSchema(sqlReader, deadline);
+            return analyzeParsedSchema(schema, rules, deadline);
+        } catch (Exception e) {
+            log.error("Error analyzing schema", e);
+            throw new SchemaAnalysisException("Failed to analyze schema: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Determines the highest normalization form a SQL schema achieves, without reporting
+     * its issues. Each form's analysis stops at its first critical issue and no issue text
+     * or fix SQL is rendered, so this is cheaper than {@link #analyzeSchema(String)}.
+     * 
+     * @param sqlScript The SQL CREATE TABLE statements to check
+     * @return The highest achieved normalization form, or null if the schema is not in 1NF
+     */
+    public NormalizationForm checkSchema(String sqlScript) {
+        return checkSchema(sqlScript, RuleSelection.ALL);
+    }
+    
+    /**
+     * Determines the highest normalization form a SQL schema achieves under the selected rules.
+     * 
+     * @param sqlScript The SQL CREATE TABLE statements to check
+     * @param rules The normalization rules to run
+     * @return The highest achieved normalization form, or null if the schema is not in 1NF
+     * @throws SchemaAnalysisException if the selection names rules that do not exist
+     */
+    public NormalizationForm checkSchema(String sqlScript, RuleSelection rules) {
+        checkRuleSelection(rules);
+        try {
+            log.debug("Checking schema: {}", sqlScript);
+            Deadline deadline = Deadline.after(timeBudgetMs);
+            return checkParsedSchema(sqlParserService.parseSchema(sqlScript, deadline), rules, deadline);
+        } catch (AnalysisTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error checking schema", e);
+            throw new SchemaAnalysisException("Failed to check schema: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Determines the highest normalization form of a SQL schema read from a character stream.
+     * 
+     * @param sqlReader Reader supplying the SQL script; it is closed once the script has been read
+     * @return The highest achieved normalization form, or null if the schema is not in 1NF
+     */
+    public NormalizationForm checkSchema(Reader sqlReader) {
+        return checkSchema(sqlReader, RuleSelection.ALL);
+    }
+    
+    /**
+     * Determines the highest normalization form of a SQL schema read from a character stream,
+     * running only the selected rules.
+     * 
+     * @param sqlReader Reader supplying the SQL script; it is closed once the script has been read
+     * @param rules The normalization rules to run
+     * @return The highest achieved normalization form, or null if the schema is not in 1NF
+     * @throws SchemaAnalysisException if the selection names rules that do not exist
+     */
+    public NormalizationForm checkSchema(Reader sqlReader, RuleSelection rules) {
+        checkRuleSelection(rules);
+        try {
+            log.debug("Checking schema from stream");
+            Deadline deadline = Deadline.after(timeBudgetMs);
+            return checkParsedSchema(sqlParserService.parseSchema(sqlReader, deadline), rules, deadline);
+        } catch (AnalysisTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error checking schema", e);
+            throw new SchemaAnalysisException("Failed to check schema: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Returns all normalization rules, in the order they run.
+     */
+    public List<NormalizationRule> getRules() {
+        List<NormalizationRule> rules = new ArrayList<>(firstNfAnalyzer.getRules());
+        rules.addAll(secondNfAnalyzer.getRules());
+        rules.addAll(thirdNfAnalyzer.getRules());
+        rules.addAll(bcnfAnalyzer.getRules());
+        return rules;
+    }
+    
+    /**
+     * Rejects rule selections naming rules that do not exist, which are most likely typos.
      */
-    private boolean isCriticalIssue(NormalizationIssue issue) {
-        // TEXT/BLOB warning check
-        if (issue.getDescription() != null && 
-            issue.getDescription().contains("might contain structured data")) {
-            return false;
+    private void checkRuleSelection(RuleSelection rules) {
+        if (rules == RuleSelection.ALL) {
+            return;
+        }
+        List<String> unknown = rules.unknownSelectors(
+            getRules().stream().map(NormalizationRule::getId).collect(Collectors.toList()));
+        if (!unknown.isEmpty()) {
+            throw new SchemaAnalysisException("Unknown normalization rules: " + String.join(", ", unknown));
         }
+    }
+    
+    /**
+     * Runs the normalization analyzers on a parsed schema, until a deadline.
+     */
+    private AnalysisResult analyzeParsedSchema(DatabaseSchema schema, RuleSelection rules, Deadline deadline) {
+        // Analyze the schema against each normalization form. The context remembers each form's
+        // issues, so the higher analyzers reuse the lower forms' results instead of re-running them
+        AnalysisContext context = new AnalysisContext(schema, analysisPool, rules, false, deadline);
+        List<NormalizationIssue> firstNfIssues = context.getIssues(firstNfAnalyzer);
+        
+        // Warnings from 1NF do not count for normalization form determination
+        boolean firstNfPassed = !hasCriticalIssues(firstNfIssues);
+        
+        // Only check 2NF if 1NF passes critical issues, and no higher form once out of time
+        List<NormalizationIssue> secondNfIssues = firstNfPassed && !context.isIncomplete() ? 
+            context.getIssues(secondNfAnalyzer) : 
+            new ArrayList<>();
         
-        // Skip false positive repeating groups in composite primary keys
-        if (issue.getDescription() != null && 
-            issue.getDescription().contains("repeating group") &&
-            issue.getColumnName() != null &&
-            issue.getColumnName().contains("id") &&
-            issue.getColumnName().split(",").length <= 2) {
-            return false;
+        // Only check 3NF if 2NF passes
+        List<NormalizationIssue> thirdNfIssues = secondNfIssues.isEmpty() && firstNfPassed && !context.isIncomplete() ? 
+            context.getIssues(thirdNfAnalyzer) : 
+            new ArrayList<>();
+        
+        // Only check BCNF if 3NF passes
+        List<NormalizationIssue> bcnfIssues = thirdNfIssues.isEmpty() && secondNfIssues.isEmpty() && firstNfPassed
+                && !context.isIncomplete() ? 
+            context.getIssues(bcnfAnalyzer) : 
+            new ArrayList<>();
+        
+        log.debug("Analysis complete. 1NF issues: {}, 2NF issues: {}, 3NF issues: {}, BCNF issues: {}", 
+                firstNfIssues.size(), secondNfIssues.size(), thirdNfIssues.size(), bcnfIssues.size());
+        
+        // Determine the highest achieved normalization form. A form whose analysis was cut short
+        // is not achieved unless a violation already placed the schema below it
+        NormalizationForm achievedForm = determineAchievedForm(firstNfPassed, secondNfIssues, thirdNfIssues, bcnfIssues);
+        NormalizationForm interruptedForm = context.getInterruptedForm();
+        if (interruptedForm != null && achievedForm != null && achievedForm.compareTo(interruptedForm) >= 0) {
+            achievedForm = interruptedForm == NormalizationForm.FIRST_NORMAL_FORM ? null :
+                NormalizationForm.values()[interruptedForm.ordinal() - 1];
         }
+        log.debug("Achieved normalization form: {}", achievedForm);
+        
+        // Create a result object
+        AnalysisResult result = new AnalysisResult();
+        result.setAchievedForm(achievedForm);
+        result.setSchema(schema);
+        result.setRuleMetrics(context.getRuleMetrics());
+        result.setIncomplete(schema.isIncomplete() || context.isIncomplete());
+        if (result.isIncomplete()) {
+            log.warn("Analysis incomplete: {}", interruptedForm != null
+                    ? "time budget of " + timeBudgetMs + " ms ran out during " + interruptedForm.getDisplay()
+                    : "not all statements were parsed");
+        }
+        
+        // Add the issues found and deduplicate them
+        Map<NormalizationForm, List<NormalizationIssue>> issuesByForm = new LinkedHashMap<>();
+        issuesByForm.put(NormalizationForm.FIRST_NORMAL_FORM, deduplicateIssues(firstNfIssues));
+        issuesByForm.put(NormalizationForm.SECOND_NORMAL_FORM, deduplicateIssues(secondNfIssues));
+        issuesByForm.put(NormalizationForm.THIRD_NORMAL_FORM, deduplicateIssues(thirdNfIssues));
+        issuesByForm.put(NormalizationForm.BOYCE_CODD_NORMAL_FORM, deduplicateIssues(bcnfIssues));
+        result.setIssuesByForm(issuesByForm);
         
-        return true;
+        // Number the issues of each form, so that one issue's text or fix SQL can be asked for by id.
+        // An issue a higher form reports again keeps the id of its own form
+        for (Map.Entry<NormalizationForm, List<NormalizationIssue>> entry : issuesByForm.entrySet()) {
+            int number = 0;
+            for (NormalizationIssue issue : entry.getValue()) {
+                number++;
+                if (issue.getId() == null) {
+                    issue.setId(entry.getKey().getDisplay() + "-" + number);
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Determines the highest normalization form of a parsed schema, checking the forms in
+     * order until one is violated. The forms are decided as {@link #analyzeParsedSchema} does.
+     * A violation found before the deadline decides the form; a form is only taken as achieved
+     * if all of it was checked in time.
+     * 
+     * @throws AnalysisTimeoutException if the deadline passed before the form was decided
+     */
+    private NormalizationForm checkParsedSchema(DatabaseSchema schema, RuleSelection rules, Deadline deadline) {
+        AnalysisContext context = new AnalysisContext(schema, analysisPool, rules, true, deadline);
+        if (hasCriticalIssues(context.getIssues(firstNfAnalyzer))) {
+            return null;
+        }
+        requireComplete(schema, context, NormalizationForm.FIRST_NORMAL_FORM);
+        if (!context.getIssues(secondNfAnalyzer).isEmpty()) {
+            return NormalizationForm.FIRST_NORMAL_FORM;
+        }
+        requireComplete(schema, context, NormalizationForm.SECOND_NORMAL_FORM);
+        if (!context.getIssues(thirdNfAnalyzer).isEmpty()) {
+            return NormalizationForm.SECOND_NORMAL_FORM;
+        }
+        requireComplete(schema, context, NormalizationForm.THIRD_NORMAL_FORM);
+        if (!context.getIssues(bcnfAnalyzer).isEmpty()) {
+            return NormalizationForm.THIRD_NORMAL_FORM;
+        }
+        requireComplete(schema, context, NormalizationForm.BOYCE_CODD_NORMAL_FORM);
+        return NormalizationForm.BOYCE_CODD_NORMAL_FORM;
+    }
+    
+    private void requireComplete(DatabaseSchema schema, AnalysisContext context, NormalizationForm form) {
+        if (schema.isIncomplete() || context.isIncomplete()) {
+            throw new AnalysisTimeoutException("Time budget of " + timeBudgetMs + " ms ran out before " +
+                    form.getDisplay() + " compliance was decided");
+        }
     }
     
     /**
-     * Removes duplicate issues that might have been created during analysis.
+     * Determines if any of the issues is critical for determining normalization form.
+     * Some issues like potential TEXT fields are warnings and don't affect normalization status.
      */
-    private List<NormalizationIssue> deduplicateIssues(List<NormalizationIssue> issues) {
-        List<NormalizationIssue> uniqueIssues = new ArrayList<>();
-        Set<String> seenIssues = new HashSet<>();
-        
+    private static boolean hasCriticalIssues(List<NormalizationIssue> issues) {
         for (NormalizationIssue issue : issues) {
-            String key = issue.getTableName() + ":" + 
-                         (issue.getColumnName() != null ? issue.getColumnName() : "") + ":" + 
-                         issue.getDescription();
-            
-            if (!seenIssues.contains(key)) {
-                seenIssues.add(key);
-                uniqueIssues.add(issue);
+            if (issue.hasSeverity(IssueCode.Severity.CRITICAL)) {
+                return true;
             }
         }
+        return false;
+    }
+    
+    /**
+     * Removes issues that duplicate an earlier issue of the list, returning the list itself
+     * if there are none. Issues are looked up by structural hash in an open-addressing table
+     * and compared field by field only when hashes collide, so no text is rendered and
+     * nothing is allocated per issue.
+     */
+    private static List<NormalizationIssue> deduplicateIssues(List<NormalizationIssue> issues) {
+        int size = issues.size();
+        if (size < 2) {
+            return issues;
+        }
         
-        return uniqueIssues;
+        // Positions (plus one) of the kept issues, at least half empty; 0 marks a free slot
+        int[] slots = new int[Integer.highestOneBit(size * 2 - 1) << 1];
+        int mask = slots.length - 1;
+        List<NormalizationIssue> uniqueIssues = null;
+        for (int i = 0; i < size; i++) {
+            NormalizationIssue issue = issues.get(i);
+            int hash = issue.getStructuralHash();
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            boolean duplicate = false;
+            while (slots[slot] != 0) {
+                if (issue.isDuplicateOf(issues.get(slots[slot] - 1))) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            
+            if (duplicate) {
+                if (uniqueIssues == null) {
+                    uniqueIssues = new ArrayList<>(issues.subList(0, i));
+                }
+            } else {
+                slots[slot] = i + 1;
+                if (uniqueIssues != null) {
+                    uniqueIssues.add(issue);
+                }
+            }
+        }
+        return uniqueIssues != null ? uniqueIssues : issues;
     }
     
     /**
      * Determines the highest normalization form achieved based on the issues found.
      */
     private NormalizationForm determineAchievedForm(
-            List<NormalizationIssue> firstNfIssues,
+            boolean firstNfPassed,
             List<NormalizationIssue> secondNfIssues,
-            List<NormalizationIssue> thirdNfIssues) {
+            List<NormalizationIssue> thirdNfIssues,
+            List<NormalizationIssue> bcnfIssues) {
         
-        if (!firstNfIssues.isEmpty()) {
+        if (!firstNfPassed) {
             return null; // Not even in 1NF
         } else if (!secondNfIssues.isEmpty()) {
             return NormalizationForm.FIRST_NORMAL_FORM;
         } else if (!thirdNfIssues.isEmpty()) {
             return NormalizationForm.SECOND_NORMAL_FORM;
-        } else {
+        } else if (!bcnfIssues.isEmpty()) {
             return NormalizationForm.THIRD_NORMAL_FORM;
+        } else {
+            return NormalizationForm.BOYCE_CODD_NORMAL_FORM;
         }
     }
     
@@ -165,6 +485,9 @@ public class NormalizationService {
         sql.append(result.getAchievedForm() != null ? result.getAchievedForm().getDisplay() : "Not normalized");
         sql.append("\n\n");
         
+        // The dependencies behind a table's issues are fixed together, by one decomposition
+        Map<String, Decomposition> decompositions = synthesizeDecompositions(result);
+        
         // Add SQL for each issue that has a fix
         for (Map.Entry<NormalizationForm, List<NormalizationIssue>> entry : result.getIssuesByForm().entrySet()) {
             NormalizationForm form = entry.getKey();
@@ -174,7 +497,10 @@ public class NormalizationService {
                 sql.append("-- ").append(form.getDisplay()).append(" Issues\n");
                 
                 for (NormalizationIssue issue : issues) {
-                    if (issue.getFixSql() != null && !issue.getFixSql().isEmpty()) {
+                    if (issue.hasDependency() && decompositions.containsKey(issue.getTableName())) {
+                        sql.append("-- Issue: ").append(issue.getDescription()).append("\n");
+                        sql.append("-- Fixed by the decomposition of ").append(issue.getTableName()).append(" below\n\n");
+                    } else if (issue.getFixSql() != null && !issue.getFixSql().isEmpty()) {
                         sql.append("-- Issue: ").append(issue.getDescription()).append("\n");
                         sql.append(issue.getFixSql()).append("\n\n");
                     }
@@ -182,6 +508,109 @@ public class NormalizationService {
             }
         }
         
+        if (!decompositions.isEmpty()) {
+            sql.append("-- Table Decompositions\n");
+            for (Decomposition decomposition : decompositions.values()) {
+                sql.append(decomposition.toSql()).append("\n");
+            }
+        }
+        
         return sql.toString();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Synthesizes one decomposition for each table with issues caused by functional
+     * dependencies, keyed by table name in the order the tables first have such issues.
+     */
+    private Map<String, Decomposition> synthesizeDecompositions(AnalysisResult result) {
+        Map<String, Decomposition> decompositions = new LinkedHashMap<>();
+        if (result.getSchema() == null) {
+            return decompositions;
+        }
+        
+        Map<String, List<NormalizationIssue>> issuesByTable = new LinkedHashMap<>();
+        for (List<NormalizationIssue> issues : result.getIssuesByForm().values()) {
+            for (NormalizationIssue issue : issues) {
+                if (issue.hasDependency()) {
+                    issuesByTable.computeIfAbsent(issue.getTableName(), name -> new ArrayList<>()).add(issue);
+                }
+            }
+        }
+        
+        SchemaGraph graph = result.getSchema().getGraph();
+        DecompositionSynthesizer synthesizer = new DecompositionSynthesizer();
+        for (Map.Entry<String, List<NormalizationIssue>> entry : issuesByTable.entrySet()) {
+            int index = graph.indexOf(entry.getKey());
+            if (index >= 0) {
+                Decomposition decomposition = synthesizer.synthesize(graph.table(index), entry.getValue());
+                if (decomposition != null) {
+                    decompositions.put(entry.getKey(), decomposition);
+                }
+            }
+        }
+        return decompositions;
+    }
+    
+    /**
+     * Builds a {@link NormalizationService}; see {@link NormalizationService#builder()}.
+     */
+    public static final class Builder {
+        private SQLParserService sqlParserService;
+        private FirstNormalFormAnalyzer firstNfAnalyzer;
+        private SecondNormalFormAnalyzer secondNfAnalyzer;
+        private ThirdNormalFormAnalyzer thirdNfAnalyzer;
+        private BoyceCoddNormalFormAnalyzer bcnfAnalyzer;
+        private DependencyVerifier dependencyVerifier = new DependencyVerifier(false, 12);
+        private int analysisParallelism = 1;
+        private long timeBudgetMs;
+        
+        private Builder() {
+        }
+        
+        public Builder sqlParserService(SQLParserService sqlParserService) {
+            this.sqlParserService = sqlParserService;
+            return this;
+        }
+        
+        /**
+         * Sets the analyzers, each built on the one for the form below it.
+         */
+        public Builder analyzers(FirstNormalFormAnalyzer firstNfAnalyzer,
+                                 SecondNormalFormAnalyzer secondNfAnalyzer,
+                                 ThirdNormalFormAnalyzer thirdNfAnalyzer,
+                                 BoyceCoddNormalFormAnalyzer bcnfAnalyzer) {
+            this.firstNfAnalyzer = firstNfAnalyzer;
+            this.secondNfAnalyzer = secondNfAnalyzer;
+            this.thirdNfAnalyzer = thirdNfAnalyzer;
+            this.bcnfAnalyzer = bcnfAnalyzer;
+            return this;
+        }
+        
+        public Builder dependencyVerifier(DependencyVerifier dependencyVerifier) {
+            this.dependencyVerifier = dependencyVerifier;
+            return this;
+        }
+        
+        public Builder analysisParallelism(int analysisParallelism) {
+            this.analysisParallelism = analysisParallelism;
+            return this;
+        }
+        
+        public Builder timeBudgetMs(long timeBudgetMs) {
+            this.timeBudgetMs = timeBudgetMs;
+            return this;
+        }
+        
+        /**
+         * @throws IllegalStateException if the parser or the analyzers have not been set
+         */
+        public NormalizationService build() {
+            if (sqlParserService == null || firstNfAnalyzer == null || secondNfAnalyzer == null
+                || thirdNfAnalyzer == null || bcnfAnalyzer == null) {
+                throw new IllegalStateException("A normalization service needs a parser and all four analyzers");
+            }
+            return new NormalizationService(sqlParserService, firstNfAnalyzer, secondNfAnalyzer, thirdNfAnalyzer,
+                                            bcnfAnalyzer, dependencyVerifier, analysisParallelism, timeBudgetMs);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Table;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, content-addressed cache of parsed CREATE TABLE statements.
+ *
+ * Entries are keyed by the SHA-256 digest of the normalized statement text (as produced by
+ * {@link SqlStatementReader}: comments removed, whitespace collapsed), so a script that is
+ * submitted again with only a few tables changed only parses the changed statements.
+ *
+ * The cache holds private template tables and hands out copies, because the schema model is
+ * mutated once it is part of a schema (relationships are added to it). Statements that do not
+ * produce a table are cached as well. Eviction is least-recently-used, weighted by the
+ * estimated size of each entry.
+ */
+public class ParsedTableCache {
+
+    /**
+     * Rough per-entry overhead in bytes (key, digest, map node, model objects).
+     */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private static final Table NO_TABLE = new Table(null);
+
+    private final long maxWeight;
+    private final LinkedHashMap<StatementKey, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxWeight Approximate upper bound on the memory held by the cache, in bytes
+     */
+    public ParsedTableCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns a copy of the table parsed from the statement, parsing it with the given
+     * parser only if the statement is not cached yet.
+     *
+     * @param statement Normalized statement text
+     * @param parser Parses the statement; may return null for statements that do not define a table
+     * @return The table, or null if the statement does not define one
+     */
+    public Table get(String statement, Function<String, Table> parser) {
+        StatementKey key = new StatementKey(digest(statement));
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.table == NO_TABLE ? null : entry.table.copy();
+        }
+
+        misses.incrementAndGet();
+        Table table = parser.apply(statement);
+        put(key, new Entry(table == null ? NO_TABLE : table.copy(), ENTRY_OVERHEAD + 2L * statement.length()));
+        return table;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the estimated memory held by the cache, in bytes.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    private synchronized void put(StatementKey key, Entry entry) {
+        if (entry.weight > maxWeight) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        weight += entry.weight - (previous != null ? previous.weight : 0);
+
+        Iterator<Map.Entry<StatementKey, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static byte[] digest(String statement) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(statement.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final Table table;
+        private final long weight;
+
+        private Entry(Table table, long weight) {
+            this.table = table;
+            this.weight = weight;
+        }
+    }
+
+    private static final class StatementKey {
+        private final byte[] digest;
+        private final int hash;
+
+        private StatementKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof StatementKey && Arrays.equals(digest, ((StatementKey) other).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
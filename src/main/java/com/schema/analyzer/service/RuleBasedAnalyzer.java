@@ -0,0 +1,187 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.DatabaseSchema;
+import com.schema.analyzer.model.IdentifierTable;
+import com.schema.analyzer.model.IssueCode;
+import com.schema.analyzer.model.NormalizationForm;
+import com.schema.analyzer.model.NormalizationIssue;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Base class for analyzers that check a normal form by running a list of registered rules
+ * on every table of a schema.
+ *
+ * Subclasses register their heuristics as rules in their constructor; further rules can be
+ * plugged in with {@link #addRule(NormalizationRule)}. Rules run in registration order on
+ * each table, only if the context's {@link RuleSelection} enables them, and their time and
+ * allocation are recorded in the context.
+ */
+@Slf4j
+public abstract class RuleBasedAnalyzer implements NormalizationAnalyzer {
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_COUNTER = allocationCounter();
+
+    private final List<NormalizationRule> rules = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a rule, to run after the rules registered so far.
+     *
+     * @throws IllegalArgumentException if the rule checks another form or its id is already taken
+     */
+    public void addRule(NormalizationRule rule) {
+        if (rule.getForm() != getForm()) {
+            throw new IllegalArgumentException("Rule " + rule.getId() + " checks " + rule.getForm()
+                + ", not " + getForm());
+        }
+        if (rules.stream().anyMatch(existing -> existing.getId().equals(rule.getId()))) {
+            throw new IllegalArgumentException("Duplicate rule id: " + rule.getId());
+        }
+        rules.add(rule);
+    }
+
+    /**
+     * Registers a rule of this analyzer's form implemented by a method of the analyzer.
+     */
+    protected void addRule(String id, BiConsumer<TableContext, List<NormalizationIssue>> check) {
+        addRule(new NormalizationRule() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public NormalizationForm getForm() {
+                return RuleBasedAnalyzer.this.getForm();
+            }
+
+            @Override
+            public void check(TableContext table, List<NormalizationIssue> issues) {
+                check.accept(table, issues);
+            }
+        });
+    }
+
+    /**
+     * Returns the registered rules, in the order they run.
+     */
+    public List<NormalizationRule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    @Override
+    public List<NormalizationIssue> analyze(AnalysisContext context) {
+        List<NormalizationIssue> lowerFormIssues = checkLowerForms(context);
+        if (lowerFormIssues != null) {
+            return lowerFormIssues;
+        }
+
+        List<NormalizationRule> activeRules = new ArrayList<>();
+        List<AnalysisContext.RuleCounters> counters = new ArrayList<>();
+        for (NormalizationRule rule : rules) {
+            if (context.getRuleSelection().isEnabled(rule.getId())) {
+                activeRules.add(rule);
+                counters.add(context.countersFor(rule));
+            }
+        }
+        if (activeRules.isEmpty()) {
+            log.debug("All {} rules are disabled", getForm());
+            return new ArrayList<>();
+        }
+
+        IdentifierTable identifiers = context.getSchema().getIdentifiers();
+        boolean stopAtFirstViolation = context.isStopAtFirstViolation();
+        return context.analyzeTables((table, issues) -> {
+            TableContext tableContext = new TableContext(table, identifiers, context.getDeadline());
+            if (!appliesTo(tableContext)) {
+                return;
+            }
+            for (int i = 0; i < activeRules.size(); i++) {
+                int issuesBefore = issues.size();
+                runRule(activeRules.get(i), counters.get(i), tableContext, issues);
+                if (stopAtFirstViolation && hasCriticalIssue(issues, issuesBefore)) {
+                    context.reportViolation();
+                    return;
+                }
+                // The context checks the deadline before each table, this after each of its
+                // rules, so a rule the deadline cut short leaves the analysis incomplete
+                if (context.isOutOfTime()) {
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Checks the schema for this form, stopping at the first critical issue. Warnings do not
+     * count, and no issue text or fix SQL is rendered.
+     */
+    @Override
+    public boolean isCompliant(DatabaseSchema schema) {
+        List<NormalizationIssue> issues = new AnalysisContext(schema, null, RuleSelection.ALL, true).getIssues(this);
+        return !hasCriticalIssue(issues, 0);
+    }
+
+    /**
+     * Checks whether the schema satisfies the forms below this one.
+     *
+     * @return the issues to report instead of running this analyzer's rules, or null to run them
+     */
+    protected List<NormalizationIssue> checkLowerForms(AnalysisContext context) {
+        return null;
+    }
+
+    /**
+     * Returns false for tables this analyzer's rules do not apply to at all.
+     */
+    protected boolean appliesTo(TableContext table) {
+        return true;
+    }
+
+    private static void runRule(NormalizationRule rule, AnalysisContext.RuleCounters counters,
+                                TableContext table, List<NormalizationIssue> issues) {
+        int issuesBefore = issues.size();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        rule.check(table, issues);
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBefore >= 0 ? allocatedBytes() - allocatedBefore : -1;
+        counters.record(issues.size() - issuesBefore, elapsed, allocated);
+    }
+
+    private static boolean hasCriticalIssue(List<NormalizationIssue> issues, int from) {
+        for (int i = from; i < issues.size(); i++) {
+            if (issues.get(i).hasSeverity(IssueCode.Severity.CRITICAL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if not measured.
+     */
+    private static long allocatedBytes() {
+        return ALLOCATION_COUNTER != null ? ALLOCATION_COUNTER.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                return counter;
+            }
+        }
+        return null;
+    }
+}
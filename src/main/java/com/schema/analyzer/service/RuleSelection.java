@@ -0,0 +1,84 @@
+package com.schema.analyzer.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The normalization rules a request asks to run.
+ *
+ * A selector is either a rule id (e.g. {@code 3nf.address}) or a form prefix
+ * (e.g. {@code 3nf}) that stands for all rules of that form. A rule runs if it matches an
+ * included selector (or no selectors are included) and matches no excluded selector.
+ */
+public final class RuleSelection {
+
+    /**
+     * Runs every registered rule.
+     */
+    public static final RuleSelection ALL = new RuleSelection(Set.of(), Set.of());
+
+    private final Set<String> included;
+    private final Set<String> excluded;
+
+    private RuleSelection(Set<String> included, Set<String> excluded) {
+        this.included = included;
+        this.excluded = excluded;
+    }
+
+    /**
+     * Creates a selection from lists of selectors; null or empty lists select nothing special.
+     *
+     * @param included Selectors of the rules to run; empty runs all rules
+     * @param excluded Selectors of the rules to skip
+     */
+    public static RuleSelection of(Collection<String> included, Collection<String> excluded) {
+        Set<String> include = normalize(included);
+        Set<String> exclude = normalize(excluded);
+        return include.isEmpty() && exclude.isEmpty() ? ALL : new RuleSelection(include, exclude);
+    }
+
+    /**
+     * Returns true if the rule with the given id should run.
+     */
+    public boolean isEnabled(String ruleId) {
+        return (included.isEmpty() || matchesAny(included, ruleId)) && !matchesAny(excluded, ruleId);
+    }
+
+    /**
+     * Returns the selectors that match none of the given rule ids.
+     */
+    public List<String> unknownSelectors(Collection<String> ruleIds) {
+        return Stream.concat(included.stream(), excluded.stream())
+            .filter(selector -> ruleIds.stream().noneMatch(id -> matches(selector, id)))
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    private static boolean matchesAny(Set<String> selectors, String ruleId) {
+        for (String selector : selectors) {
+            if (matches(selector, ruleId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String selector, String ruleId) {
+        return ruleId.equals(selector)
+            || (ruleId.length() > selector.length() && ruleId.startsWith(selector) && ruleId.charAt(selector.length()) == '.');
+    }
+
+    private static Set<String> normalize(Collection<String> selectors) {
+        if (selectors == null) {
+            return Set.of();
+        }
+        return selectors.stream()
+            .filter(selector -> selector != null && !selector.isBlank())
+            .map(selector -> selector.trim().toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+    }
+}
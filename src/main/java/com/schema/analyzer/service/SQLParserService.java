@@ -9,11 +9,35 @@ import net.sf.jsqlparser.statement.create.table.ColumnDefinition;
 import net.sf.jsqlparser.statement.create.table.CreateTable;
 import net.sf.jsqlparser.statement.create.table.ForeignKeyIndex;
 import net.sf.jsqlparser.statement.create.table.Index;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +47,108 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SQLParserService {
 
+    /**
+     * Number of statements queued per parser thread in parallel mode. Bounds the
+     * number of statement strings held in memory while keeping every thread busy.
+     */
+    private static final int IN_FLIGHT_STATEMENTS_PER_THREAD = 4;
+
+    /**
+     * Longest JSqlParser may take over one statement unless configured otherwise.
+     */
+    private static final long DEFAULT_STATEMENT_TIMEOUT_MS = 5000;
+
+    /**
+     * Most JSqlParser worker threads alive at once unless configured otherwise.
+     */
+    private static final int DEFAULT_MAX_WORKERS = 16;
+
+    /**
+     * States of a supervised JSqlParser call.
+     */
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int ABANDONED = 2;
+
+    private final int parallelism;
+    private final ForkJoinPool parserPool;
+    private final boolean fastPathEnabled;
+    private final ParsedTableCache parseCache;
+    private final long statementTimeoutMs;
+    private final ExecutorService parseWorkers;
+    private final Semaphore workerSlots;
+    private final AtomicInteger abandonedWorkers = new AtomicInteger();
+
+    /**
+     * Creates a parser service.
+     * 
+     * @param parallelism Number of threads used to parse CREATE TABLE statements;
+     *                    1 (or less) parses serially on the calling thread
+     * @param fastPathEnabled Whether common MySQL CREATE TABLE shapes are recognized directly
+     *                        instead of going through JSqlParser
+     * @param cacheSizeMb Memory available to the cache of parsed statements, in megabytes;
+     *                    0 (or less) disables the cache
+     * @param statementTimeoutMs Longest JSqlParser may take over one statement before the statement
+     *                           is abandoned; 0 (or less) waits as long as the deadline allows
+     * @param maxWorkers Most threads JSqlParser calls run on at once, abandoned ones included;
+     *                   a statement waits for a free one within its timeout
+     */
+    @Autowired
+    public SQLParserService(@Value("${schema.analyzer.parser.parallelism:1}") int parallelism,
+                            @Value("${schema.analyzer.parser.fast-path:true}") boolean fastPathEnabled,
+                            @Value("${schema.analyzer.parser.cache-size-mb:32}") long cacheSizeMb,
+                            @Value("${schema.analyzer.parser.statement-timeout-ms:5000}") long statementTimeoutMs,
+                            @Value("${schema.analyzer.parser.max-workers:16}") int maxWorkers) {
+        this.parallelism = Math.max(1, parallelism);
+        this.parserPool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+        this.fastPathEnabled = fastPathEnabled;
+        this.parseCache = cacheSizeMb > 0 ? new ParsedTableCache(cacheSizeMb * 1024 * 1024) : null;
+        this.statementTimeoutMs = Math.max(0, statementTimeoutMs);
+        this.parseWorkers = newParseWorkers();
+        this.workerSlots = new Semaphore(Math.max(1, maxWorkers));
+        log.debug("SQL parser parallelism: {}, fast path: {}, cache: {} MB, statement timeout: {} ms, workers: {}",
+                this.parallelism, fastPathEnabled, Math.max(0, cacheSizeMb), this.statementTimeoutMs,
+                Math.max(1, maxWorkers));
+    }
+
+    /**
+     * Returns a builder for parser services outside the application context, e.g. in tests.
+     * Unless set, statements are parsed serially with the fast path, without a cache, and with
+     * the default statement timeout and worker limit.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates the threads supervised JSqlParser calls run on. Threads are started on demand
+     * and end when idle; how many run at once is bounded by {@link #workerSlots}, which a call
+     * holds until its parse ends. They are daemons, so an abandoned parse never holds up shutdown.
+     */
+    private static ExecutorService newParseWorkers() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), task -> {
+            Thread thread = new Thread(task, "sql-parser-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the number of worker threads still busy with a statement that was abandoned.
+     */
+    public int getAbandonedWorkerCount() {
+        return abandonedWorkers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (parserPool != null) {
+            parserPool.shutdownNow();
+        }
+        parseWorkers.shutdownNow();
+    }
+
     /**
      * Parses SQL CREATE TABLE statements and builds a database schema model.
      * 
@@ -31,43 +157,331 @@ public class SQLParserService {
      * @throws JSQLParserException If the SQL cannot be parsed
      */
     public DatabaseSchema parseSchema(String sqlScript) throws JSQLParserException {
-        DatabaseSchema schema = new DatabaseSchema("parsed_schema");
-        
+        return parseSchema(sqlScript, Deadline.NONE);
+    }
+    
+    /**
+     * Parses SQL CREATE TABLE statements until a deadline.
+     * 
+     * @param sqlScript The SQL script containing CREATE TABLE statements
+     * @param deadline When to stop parsing; the schema is then marked incomplete
+     * @return A DatabaseSchema object representing the tables parsed
+     * @throws JSQLParserException If the SQL cannot be parsed
+     */
+    public DatabaseSchema parseSchema(String sqlScript, Deadline deadline) throws JSQLParserException {
         log.debug("Parsing SQL script: {}", sqlScript);
+        return parseSchema(new StringReader(sqlScript), deadline);
+    }
+    
+    /**
+     * Parses SQL CREATE TABLE statements from a stream and builds a database schema model.
+     * The script is read one statement at a time and is never held in memory as a whole.
+     * 
+     * @param sqlStream The UTF-8 encoded SQL script
+     * @return A DatabaseSchema object representing the parsed schema
+     * @throws JSQLParserException If the SQL cannot be parsed
+     */
+    public DatabaseSchema parseSchema(InputStream sqlStream) throws JSQLParserException {
+        return parseSchema(new InputStreamReader(sqlStream, StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Parses SQL CREATE TABLE statements from a file and builds a database schema model.
+     * The file is memory-mapped and decoded lazily, so heap use does not grow with its size.
+     * 
+     * @param sqlFile Path of the UTF-8 encoded SQL script
+     * @return A DatabaseSchema object representing the parsed schema
+     * @throws JSQLParserException If the SQL cannot be parsed
+     */
+    public DatabaseSchema parseSchema(Path sqlFile) throws JSQLParserException {
+        return parseSchema(sqlFile, Deadline.NONE);
+    }
+    
+    /**
+     * Parses SQL CREATE TABLE statements from a file until a deadline.
+     * 
+     * @param sqlFile Path of the UTF-8 encoded SQL script
+     * @param deadline When to stop parsing; the schema is then marked incomplete
+     * @return A DatabaseSchema object representing the tables parsed
+     * @throws JSQLParserException If the SQL cannot be parsed
+     */
+    public DatabaseSchema parseSchema(Path sqlFile, Deadline deadline) throws JSQLParserException {
+        try (MappedFileReader reader = new MappedFileReader(sqlFile)) {
+            log.debug("Parsing SQL file: {} ({} bytes)", sqlFile, reader.getSize());
+            return parseSchema(reader, deadline);
+        } catch (IOException e) {
+            throw new SchemaAnalysisException("Failed to read SQL script: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Parses SQL CREATE TABLE statements from a reader and builds a database schema model.
+     * The script is read one statement at a time and is never held in memory as a whole.
+     * 
+     * @param sqlReader Reader supplying the SQL script
+     * @return A DatabaseSchema object representing the parsed schema
+     * @throws JSQLParserException If the SQL cannot be parsed
+     */
+    public DatabaseSchema parseSchema(Reader sqlReader) throws JSQLParserException {
+        return parseSchema(sqlReader, Deadline.NONE);
+    }
+    
+    /**
+     * Parses SQL CREATE TABLE statements from a reader until a deadline, which is checked
+     * between statements and bounds the wait for each JSqlParser call. If it passes, the
+     * tables parsed so far are returned in a schema marked incomplete.
+     * 
+     * @param sqlReader Reader supplying the SQL script
+     * @param deadline When to stop parsing
+     * @return A DatabaseSchema object representing the tables parsed
+     * @throws JSQLParserException If the SQL cannot be parsed
+     */
+    public DatabaseSchema parseSchema(Reader sqlReader, Deadline deadline) throws JSQLParserException {
+        DatabaseSchema schema = new DatabaseSchema("parsed_schema");
         
-        // Split the script into individual statements
-        String[] statements = sqlScript.split(";");
-        
-        for (String stmt : statements) {
-            stmt = stmt.trim();
-            if (stmt.isEmpty()) {
-                continue;
-            }
-            
-            try {
-                // Parse the SQL statement
-                Statement statement = CCJSqlParserUtil.parse(stmt + ";");
-                
-                // Process CREATE TABLE statements
-                if (statement instanceof CreateTable) {
-                    CreateTable createTable = (CreateTable) statement;
-                    log.debug("Parsing CREATE TABLE: {}", createTable.getTable().getName());
-                    Table table = parseCreateTable(createTable);
-                    schema.addTable(table);
+        // Data and session statements (INSERT, LOCK TABLES, SET, ...) are dropped by a cheap
+        // keyword check before they are ever materialised or handed to JSqlParser
+        try (SqlStatementReader statements = new SqlStatementReader(sqlReader, StatementClassifier::isCreateTable)) {
+            if (parserPool != null) {
+                parseStatementsInParallel(statements, schema, deadline);
+            } else {
+                String stmt;
+                while ((stmt = statements.nextStatement()) != null) {
+                    if (deadline.isExpired()) {
+                        stopAtDeadline(schema);
+                        break;
+                    }
+                    try {
+                        addTable(schema, parseStatement(stmt, deadline));
+                    } catch (StatementTimeoutException e) {
+                        skipAbandonedStatement(schema, e);
+                    }
                 }
-            } catch (JSQLParserException e) {
-                log.warn("Failed to parse statement: {}", stmt, e);
-                // Continue with next statement
             }
+            log.debug("Skipped {} statements that do not define tables", statements.getSkippedStatements());
+        } catch (IOException e) {
+            throw new SchemaAnalysisException("Failed to read SQL script: " + e.getMessage(), e);
         }
         
         // Identify relationships between tables
         schema.identifyRelationships();
+        
+        // Build column and constraint lookups once, before analyzers start querying them
+        schema.getTables().forEach(Table::buildIndexes);
         log.debug("Completed parsing schema with {} tables", schema.getTables().size());
+        if (parseCache != null) {
+            log.debug("Parse cache: {} hits, {} misses, {} entries, {} bytes",
+                    parseCache.getHitCount(), parseCache.getMissCount(), parseCache.size(), parseCache.getWeight());
+        }
         
         return schema;
     }
     
+    /**
+     * Fans statements out to the parser pool while preserving their original order.
+     * Only a bounded window of statements is in flight at any time; results are
+     * collected from the head of the window, so tables are added to the schema in
+     * exactly the order the serial path would add them.
+     */
+    private void parseStatementsInParallel(SqlStatementReader statements, DatabaseSchema schema,
+                                           Deadline deadline) throws IOException {
+        int window = parallelism * IN_FLIGHT_STATEMENTS_PER_THREAD;
+        Deque<Future<Table>> pending = new ArrayDeque<>(window);
+        
+        try {
+            String stmt;
+            while ((stmt = statements.nextStatement()) != null) {
+                if (deadline.isExpired()) {
+                    stopAtDeadline(schema);
+                    return;
+                }
+                String statementText = stmt;
+                pending.addLast(parserPool.submit(() -> parseStatement(statementText, deadline)));
+                
+                if (pending.size() >= window) {
+                    addAwaitedTable(schema, pending.removeFirst());
+                }
+            }
+            
+            while (!pending.isEmpty()) {
+                addAwaitedTable(schema, pending.removeFirst());
+            }
+        } finally {
+            // Only non-empty if parsing was aborted; don't leave work running for a failed request
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    private void addAwaitedTable(DatabaseSchema schema, Future<Table> future) {
+        try {
+            addTable(schema, awaitTable(future));
+        } catch (StatementTimeoutException e) {
+            skipAbandonedStatement(schema, e);
+        }
+    }
+    
+    private Table awaitTable(Future<Table> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SchemaAnalysisException("Interrupted while parsing schema", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SchemaAnalysisException("Failed to parse statement: " + cause.getMessage(), cause);
+        }
+    }
+    
+    private void addTable(DatabaseSchema schema, Table table) {
+        if (table != null) {
+            schema.addTable(table);
+        }
+    }
+    
+    private void stopAtDeadline(DatabaseSchema schema) {
+        log.warn("Deadline passed after parsing {} tables; the remaining statements are skipped",
+                schema.getTables().size());
+        schema.setIncomplete(true);
+    }
+    
+    private void skipAbandonedStatement(DatabaseSchema schema, StatementTimeoutException e) {
+        log.warn(e.getMessage());
+        schema.setIncomplete(true);
+    }
+    
+    /**
+     * Returns the cache of parsed statements, or null if caching is disabled.
+     */
+    public ParsedTableCache getParseCache() {
+        return parseCache;
+    }
+    
+    /**
+     * Parses a single SQL statement, looking it up in the parse cache first.
+     * 
+     * @return The parsed table, or null if the statement is not a valid CREATE TABLE statement
+     * @throws StatementTimeoutException if JSqlParser did not finish in time; nothing is cached
+     */
+    Table parseStatement(String stmt, Deadline deadline) {
+        if (parseCache != null) {
+            return parseCache.get(stmt, statement -> parseUncached(statement, deadline));
+        }
+        return parseUncached(stmt, deadline);
+    }
+    
+    /**
+     * Parses a single SQL statement, trying the fast-path recognizer before JSqlParser.
+     */
+    private Table parseUncached(String stmt, Deadline deadline) {
+        if (fastPathEnabled) {
+            Table table = CreateTableRecognizer.parse(stmt);
+            if (table != null) {
+                log.debug("Recognized CREATE TABLE on fast path: {}", table.getName());
+                return table;
+            }
+        }
+        return parseSupervised(stmt, deadline);
+    }
+    
+    /**
+     * Parses a single SQL statement with JSqlParser on a worker thread, waiting no longer
+     * than the statement timeout and the deadline allow. If all workers are busy, the wait
+     * for a free one counts towards that time. JSqlParser cannot be interrupted, so a
+     * statement that takes longer is abandoned: its worker runs on until the parse ends,
+     * counted by {@link #getAbandonedWorkerCount}, but the request no longer waits for it.
+     * 
+     * @throws StatementTimeoutException if the statement's time ran out before it was parsed
+     */
+    private Table parseSupervised(String stmt, Deadline deadline) {
+        long timeoutMs = Math.min(statementTimeoutMs > 0 ? statementTimeoutMs : Long.MAX_VALUE,
+                                  deadline.remainingMillis());
+        if (timeoutMs == Long.MAX_VALUE) {
+            return parseWithJSqlParser(stmt);
+        }
+        
+        long startNanos = System.nanoTime();
+        try {
+            if (!workerSlots.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new StatementTimeoutException("No parser worker free within " + timeoutMs + " ms (" +
+                        abandonedWorkers.get() + " workers abandoned), skipped statement: " + abbreviate(stmt));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SchemaAnalysisException("Interrupted while parsing schema", e);
+        }
+        
+        // RUNNING until either the parse finishes (DONE) or the wait for it ends (ABANDONED)
+        AtomicInteger state = new AtomicInteger(RUNNING);
+        Future<Table> future;
+        try {
+            future = parseWorkers.submit(() -> {
+                try {
+                    return parseWithJSqlParser(stmt);
+                } finally {
+                    workerSlots.release();
+                    if (!state.compareAndSet(RUNNING, DONE)) {
+                        log.info("Abandoned statement finished parsing; {} workers still abandoned",
+                                abandonedWorkers.decrementAndGet());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            workerSlots.release();
+            throw new SchemaAnalysisException("Parser is shut down", e);
+        }
+        try {
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            return future.get(Math.max(0, timeoutMs - waitedMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Not cancelled: JSqlParser ignores interrupts, and a cancelled task that has not
+            // started would never report back to the abandoned worker count
+            if (state.compareAndSet(RUNNING, ABANDONED)) {
+                abandonedWorkers.incrementAndGet();
+            }
+            throw new StatementTimeoutException("Abandoned statement after " + timeoutMs + " ms (" +
+                    abandonedWorkers.get() + " workers abandoned): " + abbreviate(stmt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SchemaAnalysisException("Interrupted while parsing schema", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SchemaAnalysisException("Failed to parse statement: " + cause.getMessage(), cause);
+        }
+    }
+    
+    private static String abbreviate(String stmt) {
+        return stmt.length() > 200 ? stmt.substring(0, 200) + "..." : stmt;
+    }
+    
+    /**
+     * Parses a single SQL statement with JSqlParser.
+     * 
+     * @return The parsed table, or null if the statement is not a valid CREATE TABLE statement
+     */
+    Table parseWithJSqlParser(String stmt) {
+        try {
+            // Parse the SQL statement
+            Statement statement = CCJSqlParserUtil.parse(stmt + ";");
+            
+            // Process CREATE TABLE statements
+            if (statement instanceof CreateTable) {
+                CreateTable createTable = (CreateTable) statement;
+                log.debug("Parsing CREATE TABLE: {}", createTable.getTable().getName());
+                return parseCreateTable(createTable);
+            }
+        } catch (JSQLParserException e) {
+            log.warn("Failed to parse statement: {}", stmt, e);
+            // Continue with next statement
+        }
+        return null;
+    }
+    
     /**
      * Parses a CREATE TABLE statement and builds a Table model.
      */
@@ -135,9 +549,11 @@ public class SQLParserService {
             dataType += "(" + String.join(",", colDef.getColDataType().getArgumentsStringList()) + ")";
         }
         
-        // Check if column is nullable
+        // Check if column is nullable, and whether it is UNSIGNED, which is not part of the data type
         boolean nullable = true;
+        boolean unsigned = false;
         if (colDef.getColumnSpecs() != null) {
+            unsigned = colDef.getColumnSpecs().stream().anyMatch("UNSIGNED"::equalsIgnoreCase);
             for (int i = 0; i < colDef.getColumnSpecs().size() - 1; i++) {
                 if ("NOT".equalsIgnoreCase(colDef.getColumnSpecs().get(i)) && 
                     "NULL".equalsIgnoreCase(colDef.getColumnSpecs().get(i + 1))) {
@@ -163,13 +579,19 @@ public class SQLParserService {
             }
         }
         
-        return new Column(name, dataType, nullable, defaultValue);
+        return new Column(name, dataType, nullable, defaultValue, unsigned);
     }
     
     /**
      * Parses an index (constraint) and builds the appropriate Constraint model.
      */
     private Constraint parseIndex(Index index) {
+        // CHECK constraints have neither a type nor a column list
+        if (index.getType() == null || index.getColumns() == null) {
+            log.debug("Skipping constraint without columns: {}", index);
+            return null;
+        }
+        
         List<String> columns = index.getColumnsNames();
         log.debug("Parsing index of type {} for columns {}", index.getType(), columns);
         
@@ -177,8 +599,9 @@ public class SQLParserService {
         if (index.getType().equalsIgnoreCase("PRIMARY KEY")) {
             return new PrimaryKeyConstraint(index.getName(), columns);
         }
-        // Handle UNIQUE constraint
-        else if (index.getType().equalsIgnoreCase("UNIQUE")) {
+        // Handle UNIQUE constraint (UNIQUE, UNIQUE KEY, UNIQUE INDEX). JSqlParser carries a preceding
+        // FULLTEXT keyword over into later index types, so "UNIQUE FULLTEXT KEY" is a unique key too.
+        else if (index.getType().toUpperCase().startsWith("UNIQUE")) {
             return new UniqueConstraint(index.getName(), columns);
         }
         // Handle FOREIGN KEY
@@ -214,4 +637,56 @@ public class SQLParserService {
             .map(String::trim)
             .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    /**
+     * Thrown when JSqlParser does not finish a statement in time and the statement is abandoned.
+     */
+    static final class StatementTimeoutException extends RuntimeException {
+        StatementTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Builds a {@link SQLParserService}; see {@link SQLParserService#builder()}.
+     */
+    public static final class Builder {
+        private int parallelism = 1;
+        private boolean fastPathEnabled = true;
+        private long cacheSizeMb;
+        private long statementTimeoutMs = DEFAULT_STATEMENT_TIMEOUT_MS;
+        private int maxWorkers = DEFAULT_MAX_WORKERS;
+
+        private Builder() {
+        }
+
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder fastPathEnabled(boolean fastPathEnabled) {
+            this.fastPathEnabled = fastPathEnabled;
+            return this;
+        }
+
+        public Builder cacheSizeMb(long cacheSizeMb) {
+            this.cacheSizeMb = cacheSizeMb;
+            return this;
+        }
+
+        public Builder statementTimeoutMs(long statementTimeoutMs) {
+            this.statementTimeoutMs = statementTimeoutMs;
+            return this;
+        }
+
+        public Builder maxWorkers(int maxWorkers) {
+            this.maxWorkers = maxWorkers;
+            return this;
+        }
+
+        public SQLParserService build() {
+            return new SQLParserService(parallelism, fastPathEnabled, cacheSizeMb, statementTimeoutMs, maxWorkers);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Supplies the functional dependencies that hold in sample data of a table, read from
+ * {@code <table>.csv} in the samples directory and discovered with {@link DependencyDiscovery}.
+ * Tables without a sample get no dependencies.
+ *
+ * Half of the memory budget bounds the rows read from a sample, the other half the
+ * partitions of the search. Results are cached until the sample file or the table's
+ * columns change. Reading and searching stop when the analysis deadline passes; the table
+ * then gets no dependencies and nothing is cached, so the next analysis starts over.
+ */
+@Component
+@Slf4j
+public class SampleDependencySource implements DependencySource {
+
+    private final Path directory;
+    private final long memoryBudgetBytes;
+    private final ForkJoinPool discoveryPool;
+    private final DependencyDiscovery discovery;
+    private final Map<Path, Discovered> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a source that discovers dependencies serially on the calling thread.
+     *
+     * @param directory Directory with the samples, or null or empty to disable the source
+     */
+    public SampleDependencySource(String directory, int memoryBudgetMb, int maxDeterminantSize) {
+        this(directory, memoryBudgetMb, maxDeterminantSize, 1);
+    }
+
+    /**
+     * Creates a source.
+     *
+     * @param directory Directory with the samples, or null or empty to disable the source
+     * @param memoryBudgetMb Memory one table's sample and search may use
+     * @param maxDeterminantSize The largest determinant searched for
+     * @param parallelism Number of threads the partitions are computed on; 1 (or less)
+     *                    computes them on the calling thread
+     */
+    @Autowired
+    public SampleDependencySource(
+            @Value("${schema.analyzer.samples.directory:}") String directory,
+            @Value("${schema.analyzer.samples.memory-budget-mb:256}") int memoryBudgetMb,
+            @Value("${schema.analyzer.samples.max-determinant-size:3}") int maxDeterminantSize,
+            @Value("${schema.analyzer.samples.parallelism:1}") int parallelism) {
+        this.directory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+        this.memoryBudgetBytes = Math.max(1, memoryBudgetMb) * 1024L * 1024L;
+        this.discoveryPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.discovery = new DependencyDiscovery(maxDeterminantSize, memoryBudgetBytes / 2, discoveryPool);
+        if (this.directory != null) {
+            log.debug("Discovering dependencies from samples in {}", this.directory);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (discoveryPool != null) {
+            discoveryPool.shutdownNow();
+        }
+    }
+
+    @Override
+    public void addDependencies(TableContext tableContext, FunctionalDependencies dependencies) {
+        if (directory == null) {
+            return;
+        }
+        Table table = tableContext.getTable();
+        Path sample = sampleOf(table);
+        if (sample == null) {
+            return;
+        }
+        for (FunctionalDependency dependency : discover(table, sample, tableContext.getDeadline())) {
+            dependencies.add(dependency.getDeterminant(), dependency.getDependent(), dependency.getOrigin());
+        }
+    }
+
+    /**
+     * Returns the dependencies of a table's sample, from the cache when the sample and the
+     * table's columns are unchanged.
+     */
+    private List<FunctionalDependency> discover(Table table, Path sample, Deadline deadline) {
+        try {
+            long modified = Files.getLastModifiedTime(sample).toMillis();
+            long size = Files.size(sample);
+            String columns = table.getColumns().stream().map(Column::getFoldedName).collect(Collectors.joining(","));
+            Discovered cached = cache.get(sample);
+            if (cached != null && cached.modified == modified && cached.size == size && cached.columns.equals(columns)) {
+                return cached.dependencies;
+            }
+
+            DataSample data;
+            try (Reader reader = Files.newBufferedReader(sample, StandardCharsets.UTF_8)) {
+                data = CsvSampleReader.read(reader, table, memoryBudgetBytes / 2, deadline);
+            }
+            if (data == null) {
+                return abandoned(table, sample);
+            }
+            if (data.isTruncated()) {
+                log.info("Sample {} exceeds the memory budget, using its first {} rows", sample, data.getRowCount());
+            }
+            List<FunctionalDependency> discovered = discovery.discover(data, deadline);
+            if (discovered == null) {
+                return abandoned(table, sample);
+            }
+            log.debug("Table {}: {} dependencies discovered in {} sample rows", table.getName(),
+                      discovered.size(), data.getRowCount());
+            cache.put(sample, new Discovered(modified, size, columns, discovered));
+            return discovered;
+        } catch (IOException e) {
+            log.warn("Cannot read sample {}: {}", sample, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static List<FunctionalDependency> abandoned(Table table, Path sample) {
+        log.warn("Deadline passed while discovering the dependencies of {} in {}; none are used",
+                 table.getName(), sample);
+        return List.of();
+    }
+
+    private Path sampleOf(Table table) {
+        String name = table.getName();
+        if (name == null || name.contains("/") || name.contains("\\") || name.contains("..")) {
+            return null;
+        }
+        Path sample = directory.resolve(name + ".csv");
+        if (!Files.isRegularFile(sample)) {
+            sample = directory.resolve(name.toLowerCase(Locale.ROOT) + ".csv");
+        }
+        return Files.isRegularFile(sample) ? sample : null;
+    }
+
+    private static final class Discovered {
+        final long modified;
+        final long size;
+        final String columns;
+        final List<FunctionalDependency> dependencies;
+
+        Discovered(long modified, long size, String columns, List<FunctionalDependency> dependencies) {
+            this.modified = modified;
+            this.size = size;
+            this.columns = columns;
+            this.dependencies = dependencies;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.schema.analyzer.service;
 
 import com.schema.analyzer.model.*;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -15,152 +17,178 @@ import java.util.stream.Collectors;
  * 1. It is in 1NF
  * 2. All non-key attributes are fully functionally dependent on the primary key
  *    (no partial dependencies where attributes depend on only part of a composite key)
+ *
+ * Besides the naming heuristics, dependencies discovered in sample data by the registered
+ * {@link DependencySource}s are reported when their determinant is part of a candidate key,
+ * and so are the code/name dependencies of key columns, e.g. course_code → course_name.
  */
 @Service
 @Slf4j
-public class SecondNormalFormAnalyzer implements NormalizationAnalyzer {
+public class SecondNormalFormAnalyzer extends RuleBasedAnalyzer {
 
     private final FirstNormalFormAnalyzer firstNfAnalyzer;
+    private final List<DependencySource> codeNameDependencies;
+    private final List<DependencySource> dependencySources = new CopyOnWriteArrayList<>();
 
-    @Autowired
+    /**
+     * Creates an analyzer using the built-in vocabulary.
+     */
     public SecondNormalFormAnalyzer(FirstNormalFormAnalyzer firstNfAnalyzer) {
+        this(firstNfAnalyzer, Vocabulary.defaults());
+    }
+
+    public SecondNormalFormAnalyzer(FirstNormalFormAnalyzer firstNfAnalyzer, Vocabulary vocabulary) {
         this.firstNfAnalyzer = firstNfAnalyzer;
+        this.codeNameDependencies = List.of(new CodeNameDependencies(vocabulary));
+        
+        // Heuristics for composite primary keys
+        addRule("2nf.key-foreign-keys", this::detectKeyForeignKeyDependencies);
+        addRule("2nf.key-column-prefix", this::detectKeyColumnDependencies);
+        addRule("2nf.composite-key-pattern", this::detectCompositeKeyPartialDependencies);
+        // Heuristic for single-column primary keys
+        addRule("2nf.foreign-key-dependency", this::detectForeignKeyPartialDependencies);
+        addRule("2nf.code-name-dependencies", this::detectCodeNamePartialDependencies);
+        addRule("2nf.sample-dependencies", this::detectDiscoveredPartialDependencies);
+    }
+
+    /**
+     * Creates an analyzer that also uses the dependency sources defined as beans, such as
+     * the dependencies discovered in sample data.
+     */
+    @Autowired
+    public SecondNormalFormAnalyzer(FirstNormalFormAnalyzer firstNfAnalyzer, Vocabulary vocabulary,
+                                    ObjectProvider<DependencySource> dependencySources) {
+        this(firstNfAnalyzer, vocabulary);
+        dependencySources.orderedStream().forEach(this::addDependencySource);
     }
 
     @Override
-    public List<NormalizationIssue> analyze(DatabaseSchema schema) {
-        List<NormalizationIssue> issues = new ArrayList<>();
-        
+    public NormalizationForm getForm() {
+        return NormalizationForm.SECOND_NORMAL_FORM;
+    }
+
+    @Override
+    protected List<NormalizationIssue> checkLowerForms(AnalysisContext context) {
         // First, check if schema is in 1NF
-        List<NormalizationIssue> firstNfIssues = firstNfAnalyzer.analyze(schema);
-        List<NormalizationIssue> criticalFirstNfIssues = firstNfIssues.stream()
-            .filter(issue -> !issue.getDescription().contains("might contain structured data"))
-            .collect(Collectors.toList());
-            
-        if (!criticalFirstNfIssues.isEmpty()) {
-            // If not in 1NF, report only 1NF issues
-            return firstNfIssues;
-        }
-        
-        // Check each table for 2NF compliance
-        for (Table table : schema.getTables()) {
-            // Get primary key columns
-            Set<Column> pkColumns = table.getPrimaryKeyColumns();
-            
-            // 2NF only applies to tables with composite primary keys
-            if (pkColumns.size() > 1) {
-                // Look for potential partial dependencies
-                detectPartialDependencies(table, pkColumns, issues);
+        List<NormalizationIssue> firstNfIssues = context.getIssues(firstNfAnalyzer);
+        for (NormalizationIssue issue : firstNfIssues) {
+            if (issue.hasSeverity(IssueCode.Severity.CRITICAL)) {
+                // If not in 1NF, report only 1NF issues
+                return firstNfIssues;
             }
-            
-            // Check foreign key relationships for partial dependencies
-            detectForeignKeyPartialDependencies(table, issues);
         }
-        
-        return issues;
+        return null;
     }
 
-    @Override
-    public boolean isCompliant(DatabaseSchema schema) {
-        return analyze(schema).isEmpty();
+
+    /**
+     * Registers a source of functional dependencies, used after the ones registered so far.
+     */
+    public void addDependencySource(DependencySource source) {
+        dependencySources.add(source);
     }
     
     /**
-     * Detects potential partial dependencies in a table.
+     * Reports the dependencies discovered in sample data on part of a candidate key.
+     */
+    private void detectDiscoveredPartialDependencies(TableContext tableContext, List<NormalizationIssue> issues) {
+        DependencyIssues.report(tableContext, dependencySources, FunctionalDependency.Origin.DISCOVERED,
+            IssueCode.SAMPLE_PARTIAL_DEPENDENCY, issues);
+    }
+    
+    /**
+     * Reports a code column that is part of a candidate key and names or describes its entity
+     * in other columns, e.g. course_code → course_name with key (student_id, course_code),
+     * unless a heuristic above already reported a dependency on it.
+     */
+    private void detectCodeNamePartialDependencies(TableContext tableContext, List<NormalizationIssue> issues) {
+        DependencyIssues.report(tableContext, codeNameDependencies, FunctionalDependency.Origin.INFERRED,
+            IssueCode.KEY_PART_DEPENDENCY, issues);
+    }
+    
+    /**
+     * Detects potential partial dependencies on foreign keys that are part of a composite primary key.
      * A partial dependency exists when a non-key attribute depends on only part of a composite key.
      */
-    private void detectPartialDependencies(Table table, Set<Column> pkColumns, List<NormalizationIssue> issues) {
-        // Get foreign key constraints
-        List<ForeignKeyConstraint> fkConstraints = table.getForeignKeyConstraints();
-        
-        // Get names of primary key columns for easier comparison
-        Set<String> pkColumnNames = pkColumns.stream()
-                .map(Column::getName)
-                .collect(Collectors.toSet());
+    private void detectKeyForeignKeyDependencies(TableContext tableContext, List<NormalizationIssue> issues) {
+        // 2NF only applies to tables with composite primary keys
+        if (tableContext.getPrimaryKeyColumns().size() <= 1) {
+            return;
+        }
+        BitSet pkColumnIds = tableContext.getPrimaryKeyColumnIds();
         
         // Check foreign key constraints for potential partial dependencies
-        for (ForeignKeyConstraint fk : fkConstraints) {
+        for (ForeignKeyConstraint fk : tableContext.getTable().getForeignKeyConstraints()) {
             // Check if any FK column is part of the primary key
-            boolean fkOverlapsPk = false;
-            for (String fkCol : fk.getColumns()) {
-                if (pkColumnNames.contains(fkCol)) {
-                    fkOverlapsPk = true;
-                    break;
-                }
-            }
+            BitSet fkColumnIds = tableContext.getIdentifiers().lookupAll(fk.getColumns());
             
-            if (fkOverlapsPk) {
+            if (fkColumnIds.intersects(pkColumnIds)) {
                 // This is a potential sign of a partial dependency
                 // Look for columns that might depend on this foreign key rather than the full primary key
                 
                 // Collect columns with dependency clues
-                detectFkRelatedColumns(table, fk, pkColumnNames, issues);
+                detectFkRelatedColumns(tableContext, fk, fkColumnIds, issues);
             }
         }
-        
-        // Additional heuristic for detecting partial dependencies
-        for (Column pkCol : pkColumns) {
-            detectColumnRelatedDependencies(table, pkCol, pkColumnNames, issues);
+    }
+    
+    /**
+     * Detects potential partial dependencies on single columns of a composite primary key,
+     * based on column name prefixes.
+     */
+    private void detectKeyColumnDependencies(TableContext tableContext, List<NormalizationIssue> issues) {
+        Set<Column> pkColumns = tableContext.getPrimaryKeyColumns();
+        if (pkColumns.size() <= 1) {
+            return;
         }
         
-        // Check for columns matching parts of the composite key
-        if (pkColumns.size() > 1) {
-            detectCompositeKeyPartialDependencies(table, pkColumnNames, issues);
+        for (Column pkCol : pkColumns) {
+            detectColumnRelatedDependencies(tableContext, pkCol, issues);
         }
     }
     
     /**
      * Detects partial dependencies related to a foreign key.
      */
-    private void detectFkRelatedColumns(Table table, ForeignKeyConstraint fk, 
-                                      Set<String> pkColumnNames, List<NormalizationIssue> issues) {
-        // Heuristic: columns that have similar names to the FK table might depend on that FK
-        String fkTableName = fk.getReferencedTable().toLowerCase();
-        List<String> potentialDependentColumns = new ArrayList<>();
+    private void detectFkRelatedColumns(TableContext tableContext, ForeignKeyConstraint fk, BitSet fkColumnIds,
+                                      List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        ColumnNameIndex nonKeyColumnNames = tableContext.getNameIndex();
         
-        for (Column col : table.getColumns()) {
-            // Skip primary key columns
-            if (pkColumnNames.contains(col.getName())) {
-                continue;
-            }
-            
-            // Skip the FK columns themselves
-            if (fk.getColumns().contains(col.getName())) {
-                continue;
-            }
-            
-            String colName = col.getName().toLowerCase();
-            
-            // Check if column name contains FK table name (suggesting relationship)
-            if (colName.contains(fkTableName) ||
-                colName.startsWith(fkTableName.substring(0, Math.min(3, fkTableName.length()))) ||
-                // Check for common patterns (e.g., order_id -> order_date)
-                (fk.getColumns().size() == 1 && 
-                 colName.startsWith(fk.getColumns().get(0).replaceAll("_id$", "") + "_"))) {
-                potentialDependentColumns.add(col.getName());
-            }
+        // Heuristic: columns that have similar names to the FK table might depend on that FK
+        String fkTableName = IdentifierTable.fold(fk.getReferencedTable());
+        String fkTablePrefix = fkTableName.substring(0, Math.min(3, fkTableName.length()));
+        String fkColumnBase = singleColumnBase(fk);
+        
+        // Check if column name contains FK table name (suggesting relationship)
+        BitSet related = nonKeyColumnNames.containingWords(fkTableName);
+        related.or(nonKeyColumnNames.startingWith(fkTablePrefix));
+        // Check for common patterns (e.g., order_id -> order_date)
+        if (fkColumnBase != null) {
+            related.or(nonKeyColumnNames.withPrefix(fkColumnBase));
         }
+        List<String> potentialDependentColumns = columnNamesExcept(nonKeyColumnNames, related, fkColumnIds);
         
         if (!potentialDependentColumns.isEmpty()) {
-            issues.add(new NormalizationIssue(
-                NormalizationForm.SECOND_NORMAL_FORM,
+            NormalizationIssue issue = new NormalizationIssue(
+                IssueCode.KEY_PART_DEPENDENCY,
                 table.getName(),
                 String.join(", ", potentialDependentColumns),
-                "Potential partial dependency detected: These columns may depend on " +
-                String.join(", ", fk.getColumns()) + " (part of the primary key) rather than the full primary key",
-                "Consider creating a separate table for these columns with " + 
-                String.join(", ", fk.getColumns()) + " as the primary key",
-                generatePartialDependencyFixSql(table, fk, potentialDependentColumns)
-            ));
+                () -> generatePartialDependencyFixSql(table, fk, potentialDependentColumns),
+                String.join(", ", fk.getColumns())
+            );
+            issue.setDependency(fk.getColumns(), potentialDependentColumns);
+            issues.add(issue);
         }
     }
     
     /**
      * Detects columns that might depend on a specific PK column.
      */
-    private void detectColumnRelatedDependencies(Table table, Column pkCol, 
-                                              Set<String> pkColumnNames, List<NormalizationIssue> issues) {
-        String pkName = pkCol.getName().toLowerCase();
+    private void detectColumnRelatedDependencies(TableContext tableContext, Column pkCol, 
+                                              List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        String pkName = pkCol.getFoldedName();
         
         // If PK column name ends with "_id", use the prefix as a base
         String baseForSearch = pkName;
@@ -169,34 +197,20 @@ public class SecondNormalFormAnalyzer implements NormalizationAnalyzer {
         }
         
         if (baseForSearch.length() >= 2) {  // Only if we have a meaningful base
-            List<String> potentialDependentColumns = new ArrayList<>();
-            
-            for (Column col : table.getColumns()) {
-                // Skip primary key columns
-                if (pkColumnNames.contains(col.getName())) {
-                    continue;
-                }
-                
-                String colNameLower = col.getName().toLowerCase();
-                
-                // Check if column name contains the PK column base (suggesting relationship)
-                if (colNameLower.contains(baseForSearch + "_") || 
-                    colNameLower.startsWith(baseForSearch + "_")) {
-                    potentialDependentColumns.add(col.getName());
-                }
-            }
+            // Non-key columns whose name contains the PK column base (suggesting relationship)
+            BitSet related = tableContext.getNameIndex().withQualifier(baseForSearch);
+            List<String> potentialDependentColumns = columnNamesExcept(tableContext.getNameIndex(), related, new BitSet());
             
             if (!potentialDependentColumns.isEmpty()) {
-                issues.add(new NormalizationIssue(
-                    NormalizationForm.SECOND_NORMAL_FORM,
+                NormalizationIssue issue = new NormalizationIssue(
+                    IssueCode.KEY_PART_DEPENDENCY,
                     table.getName(),
                     String.join(", ", potentialDependentColumns),
-                    "Potential partial dependency detected: These columns may depend on " +
-                    pkCol.getName() + " (part of the primary key) rather than the full primary key",
-                    "Consider creating a separate table for these columns with " + 
-                    pkCol.getName() + " as the primary key",
-                    generatePartialDependencyFixSql(table, pkCol, potentialDependentColumns)
-                ));
+                    () -> generatePartialDependencyFixSql(table, pkCol, potentialDependentColumns),
+                    pkCol.getName()
+                );
+                issue.setDependency(List.of(pkCol.getName()), potentialDependentColumns);
+                issues.add(issue);
             }
         }
     }
@@ -205,55 +219,43 @@ public class SecondNormalFormAnalyzer implements NormalizationAnalyzer {
      * Detects foreign key related partial dependencies in non-composite key tables.
      * This detects 2NF issues even when the table doesn't have a composite primary key.
      */
-    private void detectForeignKeyPartialDependencies(Table table, List<NormalizationIssue> issues) {
+    private void detectForeignKeyPartialDependencies(TableContext tableContext, List<NormalizationIssue> issues) {
         // Skip tables with composite keys (handled elsewhere)
-        if (table.getPrimaryKeyColumns().size() > 1) {
+        if (tableContext.getPrimaryKeyColumns().size() > 1) {
             return;
         }
+        Table table = tableContext.getTable();
+        IdentifierTable identifiers = tableContext.getIdentifiers();
         
         // Get foreign key constraints
         List<ForeignKeyConstraint> fkConstraints = table.getForeignKeyConstraints();
         
         for (ForeignKeyConstraint fk : fkConstraints) {
-            String fkTableName = fk.getReferencedTable().toLowerCase();
-            List<String> potentialDependentColumns = new ArrayList<>();
+            ColumnNameIndex nonKeyColumnNames = tableContext.getNameIndex();
+            String fkTableName = IdentifierTable.fold(fk.getReferencedTable());
+            String fkTablePrefix = fkTableName.substring(0, Math.min(3, fkTableName.length()));
+            String fkColumnBase = singleColumnBase(fk);
             
-            for (Column col : table.getColumns()) {
-                // Skip primary key columns
-                if (table.getPrimaryKeyColumns().stream()
-                    .anyMatch(pk -> pk.getName().equals(col.getName()))) {
-                    continue;
-                }
-                
-                // Skip the FK columns themselves
-                if (fk.getColumns().contains(col.getName())) {
-                    continue;
-                }
-                
-                String colName = col.getName().toLowerCase();
-                
-                // Check if column name contains FK table name (suggesting related data)
-             // Check if column name contains FK table name (suggesting related data)
-                if (colName.contains(fkTableName + "_") ||
-                    colName.startsWith(fkTableName.substring(0, Math.min(3, fkTableName.length()))) ||
-                    // Look for foreign key ID -> name patterns (e.g., product_id -> product_name)
-                    (fk.getColumns().size() == 1 && 
-                     colName.startsWith(fk.getColumns().get(0).replaceAll("_id$", "") + "_"))) {
-                    potentialDependentColumns.add(col.getName());
-                }
+            // Check if column name contains FK table name (suggesting related data)
+            BitSet related = nonKeyColumnNames.withQualifier(fkTableName);
+            related.or(nonKeyColumnNames.startingWith(fkTablePrefix));
+            // Look for foreign key ID -> name patterns (e.g., product_id -> product_name)
+            if (fkColumnBase != null) {
+                related.or(nonKeyColumnNames.withPrefix(fkColumnBase));
             }
+            List<String> potentialDependentColumns =
+                columnNamesExcept(nonKeyColumnNames, related, identifiers.lookupAll(fk.getColumns()));
             
             if (!potentialDependentColumns.isEmpty()) {
-                issues.add(new NormalizationIssue(
-                    NormalizationForm.SECOND_NORMAL_FORM,
+                NormalizationIssue issue = new NormalizationIssue(
+                    IssueCode.FOREIGN_KEY_DEPENDENCY,
                     table.getName(),
                     String.join(", ", potentialDependentColumns),
-                    "Potential partial dependency detected: These columns may depend on " +
-                    String.join(", ", fk.getColumns()) + " rather than the primary key",
-                    "Consider creating a separate table for these columns with " + 
-                    String.join(", ", fk.getColumns()) + " as the primary key",
-                    generatePartialDependencyFixSql(table, fk, potentialDependentColumns)
-                ));
+                    () -> generatePartialDependencyFixSql(table, fk, potentialDependentColumns),
+                    String.join(", ", fk.getColumns())
+                );
+                issue.setDependency(fk.getColumns(), potentialDependentColumns);
+                issues.add(issue);
             }
         }
     }
@@ -262,40 +264,83 @@ public class SecondNormalFormAnalyzer implements NormalizationAnalyzer {
      * Detects partial dependencies in tables with composite primary keys where column names
      * match parts of the composite key pattern.
      */
-    private void detectCompositeKeyPartialDependencies(Table table, Set<String> pkColumnNames, 
-                                                      List<NormalizationIssue> issues) {
-        // For each non-PK column in the table
-        for (Column col : table.getColumns()) {
-            if (pkColumnNames.contains(col.getName())) {
+    private void detectCompositeKeyPartialDependencies(TableContext tableContext, List<NormalizationIssue> issues) {
+        Set<Column> pkColumns = tableContext.getPrimaryKeyColumns();
+        if (pkColumns.size() <= 1) {
+            return;
+        }
+        Table table = tableContext.getTable();
+        ColumnNameIndex nonKeyColumnNames = tableContext.getNameIndex();
+        
+        // Names of primary key columns, in the order the heuristic checks them
+        Set<String> pkColumnNames = pkColumns.stream()
+                .map(Column::getName)
+                .collect(Collectors.toSet());
+        
+        // A non-key column might depend on a primary key column if the key's base (with a trailing
+        // "_id" removed) qualifies a word of its name, e.g. product_id -> product_name or
+        // line_product_name. Only the first primary key column found is reported.
+        String[] dependsOn = new String[nonKeyColumnNames.size()];
+        for (String pkCol : pkColumnNames) {
+            String pkBase = IdentifierTable.fold(stripIdSuffix(pkCol));
+            if (pkBase.length() < 3) {
                 continue;
             }
-            
-            String colName = col.getName().toLowerCase();
-            
-            // Check for each primary key column if the non-PK column might depend on it
-            for (String pkCol : pkColumnNames) {
-                String pkBase = pkCol.replaceAll("_id$", "").toLowerCase();
-                
-                // If column name starts with the same prefix as the PK column, it might depend on it
-                if (pkBase.length() >= 3 && 
-                    (colName.startsWith(pkBase + "_") || colName.contains("_" + pkBase + "_"))) {
-                    
-                    issues.add(new NormalizationIssue(
-                        NormalizationForm.SECOND_NORMAL_FORM,
-                        table.getName(),
-                        col.getName(),
-                        "Potential partial dependency detected: This column may depend on " +
-                        pkCol + " (part of the primary key) rather than the full primary key",
-                        "Consider creating a separate table for this column with " + 
-                        pkCol + " as the primary key",
-                        generateSingleColumnPartialDependencyFixSql(table, pkCol, col.getName())
-                    ));
-                    
-                    // Only report the first dependency found
-                    break;
+            BitSet related = nonKeyColumnNames.withQualifier(pkBase);
+            for (int i = related.nextSetBit(0); i >= 0; i = related.nextSetBit(i + 1)) {
+                if (dependsOn[i] == null) {
+                    dependsOn[i] = pkCol;
                 }
             }
         }
+        
+        for (int i = 0; i < dependsOn.length; i++) {
+            if (dependsOn[i] == null) {
+                continue;
+            }
+            String pkCol = dependsOn[i];
+            Column col = nonKeyColumnNames.getColumn(i);
+            
+            NormalizationIssue issue = new NormalizationIssue(
+                IssueCode.COLUMN_KEY_PART_DEPENDENCY,
+                table.getName(),
+                col.getName(),
+                () -> generateSingleColumnPartialDependencyFixSql(table, pkCol, col.getName()),
+                pkCol
+            );
+            issue.setDependency(List.of(pkCol), List.of(col.getName()));
+            issues.add(issue);
+        }
+    }
+    
+    /**
+     * Returns the names of the indexed columns at the given positions, in table order,
+     * leaving out the columns with the given name ids.
+     */
+    private static List<String> columnNamesExcept(ColumnNameIndex index, BitSet positions, BitSet excludedColumnIds) {
+        List<String> names = new ArrayList<>();
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            Column column = index.getColumn(i);
+            if (!excludedColumnIds.get(column.getNameId())) {
+                names.add(column.getName());
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Returns the column of a single-column foreign key with a trailing "_id" removed,
+     * e.g. product_id -> product, or null for a composite foreign key.
+     */
+    private String singleColumnBase(ForeignKeyConstraint fk) {
+        if (fk.getColumns().size() != 1) {
+            return null;
+        }
+        return stripIdSuffix(fk.getColumns().get(0));
+    }
+    
+    private static String stripIdSuffix(String columnName) {
+        return columnName.endsWith("_id") ? columnName.substring(0, columnName.length() - 3) : columnName;
     }
     
     /**
@@ -0,0 +1,378 @@
+package com.schema.analyzer.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+
+/**
+ * Incremental lexer that splits a SQL script into individual statements.
+ *
+ * The script is consumed from a {@link Reader} through a small fixed buffer and
+ * statements are handed out one at a time, so memory use is bounded by the largest
+ * single statement rather than by the size of the script. The lexer understands:
+ * 1. Single-quoted, double-quoted and backtick-quoted text (delimiters inside are ignored)
+ * 2. Line comments ({@code --} and {@code #}) and block comments, including MySQL
+ *    executable comments ({@code /*!40101 ... *}{@code /}), which are dropped
+ * 3. The mysql client {@code DELIMITER} directive used around procedure and trigger bodies
+ *
+ * Whitespace outside quoted text is collapsed to a single space, and the statement
+ * delimiter itself is not included in the returned text.
+ *
+ * An optional statement filter sees the first {@link StatementClassifier#PREFIX_LENGTH}
+ * characters of each statement. Rejected statements are lexed to their delimiter but
+ * never copied into memory, which keeps the cost of data statements in a dump close to zero.
+ */
+public class SqlStatementReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Statement buffers that grew past this size are released instead of reused.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private static final String DELIMITER_DIRECTIVE = "DELIMITER";
+
+    private final Reader reader;
+    private final Predicate<CharSequence> statementFilter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private String delimiter = ";";
+    private StringBuilder statement = new StringBuilder();
+    private boolean pendingSpace;
+
+    private boolean classified;
+    private boolean discarding;
+    private long skippedStatements;
+
+    public SqlStatementReader(Reader reader) {
+        this(reader, null);
+    }
+
+    public SqlStatementReader(InputStream inputStream) {
+        this(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a reader that only returns statements accepted by the given filter.
+     * 
+     * @param reader Reader supplying the SQL script
+     * @param statementFilter Predicate applied to the leading characters of each statement,
+     *                        or null to return every statement
+     */
+    public SqlStatementReader(Reader reader, Predicate<CharSequence> statementFilter) {
+        this.reader = reader;
+        this.statementFilter = statementFilter;
+    }
+
+    /**
+     * Returns the next statement in the script, or null once the script is exhausted.
+     * Empty statements (e.g. consecutive delimiters or comment-only sections) are skipped.
+     */
+    public String nextStatement() throws IOException {
+        while (true) {
+            if (!ensureAvailable(1)) {
+                // End of script: flush whatever is left as the final statement
+                if (discarding || (statement.length() > 0 && !classified && !acceptStatement())) {
+                    skipStatement();
+                }
+                return statement.length() > 0 ? takeStatement() : null;
+            }
+
+            char c = buffer[position];
+
+            if (Character.isWhitespace(c)) {
+                position++;
+                pendingSpace = statement.length() > 0;
+                continue;
+            }
+
+            if (statement.length() == 0 && !discarding && (c == 'D' || c == 'd') && isDelimiterDirective()) {
+                readDelimiterDirective();
+                continue;
+            }
+
+            if (matchesDelimiter()) {
+                position += delimiter.length();
+                if (discarding || (statement.length() > 0 && !classified && !acceptStatement())) {
+                    skipStatement();
+                } else if (statement.length() > 0) {
+                    return takeStatement();
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '\'':
+                case '"':
+                case '`':
+                    appendPendingSpace();
+                    readQuoted(c);
+                    break;
+                case '-':
+                    if (ensureAvailable(2) && buffer[position + 1] == '-'
+                            && (!ensureAvailable(3) || Character.isWhitespace(buffer[position + 2]))) {
+                        skipLineComment();
+                    } else {
+                        append(c);
+                    }
+                    break;
+                case '#':
+                    skipLineComment();
+                    break;
+                case '/':
+                    if (ensureAvailable(2) && buffer[position + 1] == '*') {
+                        skipBlockComment();
+                    } else {
+                        append(c);
+                    }
+                    break;
+                default:
+                    append(c);
+            }
+
+            classifyPrefix();
+        }
+    }
+
+    /**
+     * Returns the number of statements rejected by the statement filter so far.
+     */
+    public long getSkippedStatements() {
+        return skippedStatements;
+    }
+
+    /**
+     * Returns the statement delimiter currently in effect.
+     */
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Runs the statement filter on the current statement prefix.
+     */
+    private boolean acceptStatement() {
+        classified = true;
+        return statementFilter == null || statementFilter.test(statement);
+    }
+
+    /**
+     * Runs the statement filter once the statement reaches the prefix length, dropping the
+     * text of a rejected statement.
+     */
+    private void classifyPrefix() {
+        if (!classified && statement.length() >= StatementClassifier.PREFIX_LENGTH) {
+            discarding = !acceptStatement();
+            if (discarding) {
+                statement.setLength(0);
+                pendingSpace = false;
+            }
+        }
+    }
+
+    /**
+     * Finishes a statement rejected by the statement filter.
+     */
+    private void skipStatement() {
+        skippedStatements++;
+        discarding = false;
+        classified = false;
+        statement.setLength(0);
+        pendingSpace = false;
+    }
+
+    /**
+     * Appends a regular character to the current statement and advances past it.
+     */
+    private void append(char c) {
+        if (!discarding) {
+            appendPendingSpace();
+            statement.append(c);
+        }
+        position++;
+    }
+
+    private void appendPendingSpace() {
+        if (pendingSpace && !discarding) {
+            statement.append(' ');
+            pendingSpace = false;
+        }
+    }
+
+    /**
+     * Copies a quoted literal or identifier verbatim, honouring doubled quotes
+     * and backslash escapes (backslashes are not escapes inside backtick identifiers).
+     * A statement still unclassified is classified as soon as its prefix is complete, even
+     * inside the quotes, so the rest of a rejected statement's literal is never copied.
+     */
+    private void readQuoted(char quote) throws IOException {
+        boolean keep = !discarding;
+        if (keep) {
+            statement.append(quote);
+        }
+        position++;
+
+        while (ensureAvailable(1)) {
+            char c = buffer[position++];
+            if (keep) {
+                statement.append(c);
+            }
+
+            if (c == '\\' && quote != '`') {
+                if (ensureAvailable(1)) {
+                    char escaped = buffer[position++];
+                    if (keep) {
+                        statement.append(escaped);
+                    }
+                }
+            } else if (c == quote) {
+                if (ensureAvailable(1) && buffer[position] == quote) {
+                    position++;
+                    if (keep) {
+                        statement.append(quote);
+                    }
+                } else {
+                    return;
+                }
+            }
+            if (keep && !classified) {
+                classifyPrefix();
+                keep = !discarding;
+            }
+        }
+    }
+
+    private void skipLineComment() throws IOException {
+        while (ensureAvailable(1)) {
+            if (buffer[position++] == '\n') {
+                break;
+            }
+        }
+        pendingSpace = statement.length() > 0;
+    }
+
+    private void skipBlockComment() throws IOException {
+        position += 2;
+        while (ensureAvailable(1)) {
+            if (buffer[position] == '*' && ensureAvailable(2) && buffer[position + 1] == '/') {
+                position += 2;
+                break;
+            }
+            position++;
+        }
+        pendingSpace = statement.length() > 0;
+    }
+
+    private boolean matchesDelimiter() throws IOException {
+        int length = delimiter.length();
+        if (!ensureAvailable(length)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[position + i] != delimiter.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the upcoming text is a {@code DELIMITER} directive.
+     */
+    private boolean isDelimiterDirective() throws IOException {
+        int length = DELIMITER_DIRECTIVE.length();
+        if (!ensureAvailable(length + 1)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase(buffer[position + i]) != DELIMITER_DIRECTIVE.charAt(i)) {
+                return false;
+            }
+        }
+        char next = buffer[position + length];
+        return next == ' ' || next == '\t';
+    }
+
+    /**
+     * Consumes a {@code DELIMITER <token>} line and switches to the new delimiter.
+     */
+    private void readDelimiterDirective() throws IOException {
+        position += DELIMITER_DIRECTIVE.length();
+
+        StringBuilder token = new StringBuilder();
+        while (ensureAvailable(1)) {
+            char c = buffer[position++];
+            if (c == '\n') {
+                break;
+            }
+            if (!Character.isWhitespace(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                // Ignore anything after the delimiter token on the same line
+                skipLineComment();
+                break;
+            }
+        }
+
+        if (token.length() > 0) {
+            delimiter = token.toString();
+        }
+        pendingSpace = false;
+    }
+
+    private String takeStatement() {
+        String result = statement.toString();
+        if (statement.capacity() > MAX_RETAINED_CAPACITY) {
+            statement = new StringBuilder();
+        } else {
+            statement.setLength(0);
+        }
+        pendingSpace = false;
+        classified = false;
+        return result;
+    }
+
+    /**
+     * Makes sure at least {@code count} characters are buffered from the current position,
+     * compacting and refilling the buffer as needed.
+     *
+     * @return false if the input ends before that many characters are available
+     */
+    private boolean ensureAvailable(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        if (endOfInput) {
+            return false;
+        }
+
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        while (limit < count) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+}
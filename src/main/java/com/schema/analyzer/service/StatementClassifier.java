@@ -0,0 +1,124 @@
+package com.schema.analyzer.service;
+
+/**
+ * Cheap lexical classifier for SQL statements.
+ *
+ * Looks only at the leading keywords of a statement, so data statements in a dump
+ * (INSERT, LOCK TABLES, SET, ...) can be discarded without building a parser for them.
+ * Statements are expected in the form produced by {@link SqlStatementReader}: comments
+ * removed and whitespace collapsed.
+ */
+public final class StatementClassifier {
+
+    /**
+     * Number of leading characters needed to classify any statement.
+     */
+    public static final int PREFIX_LENGTH = 64;
+
+    /**
+     * Broad statement categories, as far as schema analysis is concerned.
+     */
+    public enum StatementType {
+        /** CREATE [TEMPORARY] TABLE - the only statements that contribute to the schema model */
+        CREATE_TABLE,
+        /** Other definition statements (views, indexes, routines, ALTER, DROP, ...) */
+        OTHER_DDL,
+        /** Data manipulation (INSERT, REPLACE, UPDATE, DELETE, LOAD DATA, ...) */
+        DATA,
+        /** Session and transaction control (SET, USE, LOCK TABLES, START TRANSACTION, ...) */
+        SESSION,
+        /** Anything unrecognised */
+        UNKNOWN
+    }
+
+    private StatementClassifier() {
+    }
+
+    /**
+     * Returns true if the statement is a CREATE TABLE statement.
+     */
+    public static boolean isCreateTable(CharSequence statement) {
+        return classify(statement) == StatementType.CREATE_TABLE;
+    }
+
+    /**
+     * Classifies a statement by its leading keywords. Only the first
+     * {@link #PREFIX_LENGTH} characters are inspected.
+     */
+    public static StatementType classify(CharSequence statement) {
+        int start = skipWhitespace(statement, 0);
+        int end = wordEnd(statement, start);
+
+        if (keywordEquals(statement, start, end, "CREATE")) {
+            int next = skipWhitespace(statement, end);
+            int nextEnd = wordEnd(statement, next);
+            if (keywordEquals(statement, next, nextEnd, "TEMPORARY")) {
+                next = skipWhitespace(statement, nextEnd);
+                nextEnd = wordEnd(statement, next);
+            }
+            return keywordEquals(statement, next, nextEnd, "TABLE")
+                ? StatementType.CREATE_TABLE
+                : StatementType.OTHER_DDL;
+        }
+
+        if (keywordEquals(statement, start, end, "INSERT") ||
+            keywordEquals(statement, start, end, "REPLACE") ||
+            keywordEquals(statement, start, end, "UPDATE") ||
+            keywordEquals(statement, start, end, "DELETE") ||
+            keywordEquals(statement, start, end, "LOAD") ||
+            keywordEquals(statement, start, end, "SELECT")) {
+            return StatementType.DATA;
+        }
+
+        if (keywordEquals(statement, start, end, "ALTER") ||
+            keywordEquals(statement, start, end, "DROP") ||
+            keywordEquals(statement, start, end, "RENAME") ||
+            keywordEquals(statement, start, end, "TRUNCATE")) {
+            return StatementType.OTHER_DDL;
+        }
+
+        if (keywordEquals(statement, start, end, "SET") ||
+            keywordEquals(statement, start, end, "USE") ||
+            keywordEquals(statement, start, end, "LOCK") ||
+            keywordEquals(statement, start, end, "UNLOCK") ||
+            keywordEquals(statement, start, end, "START") ||
+            keywordEquals(statement, start, end, "BEGIN") ||
+            keywordEquals(statement, start, end, "COMMIT") ||
+            keywordEquals(statement, start, end, "ROLLBACK")) {
+            return StatementType.SESSION;
+        }
+
+        return StatementType.UNKNOWN;
+    }
+
+    private static int skipWhitespace(CharSequence text, int index) {
+        int limit = Math.min(text.length(), PREFIX_LENGTH);
+        while (index < limit && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int wordEnd(CharSequence text, int index) {
+        int limit = Math.min(text.length(), PREFIX_LENGTH);
+        while (index < limit && Character.isLetter(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Case-insensitive comparison of {@code text[start, end)} with an upper-case keyword.
+     */
+    private static boolean keywordEquals(CharSequence text, int start, int end, String keyword) {
+        if (end - start != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (Character.toUpperCase(text.charAt(start + i)) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
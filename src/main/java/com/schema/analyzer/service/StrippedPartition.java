@@ -0,0 +1,166 @@
+package com.schema.analyzer.service;
+
+import java.util.Arrays;
+
+/**
+ * The rows of a sample grouped by their values on a set of columns, without the groups of a
+ * single row (a stripped partition, as in TANE). Rows are stored group after group in one
+ * int array, so a partition costs four bytes per row in a repeated group and nothing for
+ * the others. Instances are immutable.
+ */
+final class StrippedPartition {
+
+    private final int[] rows;
+    private final int[] starts; // Start of each group in rows, then rows.length
+    private final int groupCount;
+
+    private StrippedPartition(int[] rows, int[] starts, int groupCount) {
+        this.rows = rows;
+        this.starts = starts;
+        this.groupCount = groupCount;
+    }
+
+    /**
+     * Returns the partition of the rows by one column's encoded values.
+     *
+     * @param values The encoded values, one per row
+     * @param rowCount The number of rows
+     * @param distinctCount The number of distinct values; every value is below it
+     */
+    static StrippedPartition of(int[] values, int rowCount, int distinctCount) {
+        int[] counts = new int[distinctCount];
+        for (int row = 0; row < rowCount; row++) {
+            counts[values[row]]++;
+        }
+
+        // Counting sort, skipping the values of a single row
+        int groupCount = 0;
+        int size = 0;
+        for (int count : counts) {
+            if (count >= 2) {
+                groupCount++;
+                size += count;
+            }
+        }
+        int[] starts = new int[groupCount + 1];
+        int[] offsets = counts; // Reused: next free slot of each value's group, or -1
+        int group = 0;
+        int used = 0;
+        for (int value = 0; value < distinctCount; value++) {
+            if (offsets[value] >= 2) {
+                starts[group++] = used;
+                int count = offsets[value];
+                offsets[value] = used;
+                used += count;
+            } else {
+                offsets[value] = -1;
+            }
+        }
+        starts[groupCount] = size;
+
+        int[] rows = new int[size];
+        for (int row = 0; row < rowCount; row++) {
+            int offset = offsets[values[row]];
+            if (offset >= 0) {
+                rows[offset] = row;
+                offsets[values[row]] = offset + 1;
+            }
+        }
+        return new StrippedPartition(rows, starts, groupCount);
+    }
+
+    /**
+     * Returns the partition of the single group holding every row.
+     */
+    static StrippedPartition ofAll(int rowCount) {
+        if (rowCount < 2) {
+            return new StrippedPartition(new int[0], new int[] {0}, 0);
+        }
+        int[] rows = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            rows[row] = row;
+        }
+        return new StrippedPartition(rows, new int[] {0, rowCount}, 1);
+    }
+
+    /**
+     * Returns the number of rows that would have to be removed for every group to have a
+     * single row. X → A holds if and only if the partitions by X and by X ∪ {A} have the
+     * same error.
+     */
+    long error() {
+        return rows.length - groupCount;
+    }
+
+    /**
+     * Returns the memory used by the partition, in bytes.
+     */
+    long memoryBytes() {
+        return 4L * (rows.length + starts.length);
+    }
+
+    /**
+     * Returns the memory {@link #product} allocates besides the partition it returns, in bytes.
+     */
+    long productScratchBytes(StrippedPartition other) {
+        int capacity = Math.min(rows.length, other.rows.length);
+        return 4L * (2L * groupCount + capacity + capacity / 2 + 1);
+    }
+
+    /**
+     * Returns the partition by the columns of both partitions, in time linear in their sizes.
+     *
+     * @param owner Scratch array with an entry per row of the sample, all -1; restored before returning
+     */
+    StrippedPartition product(StrippedPartition other, int[] owner) {
+        for (int group = 0; group < groupCount; group++) {
+            for (int i = starts[group]; i < starts[group + 1]; i++) {
+                owner[rows[i]] = group;
+            }
+        }
+
+        // Split each group of the other partition by the group its rows have here
+        int[] counts = new int[groupCount];
+        int[] cursors = new int[groupCount]; // Next slot of each group's rows + 1, or 0
+        int capacity = Math.min(rows.length, other.rows.length);
+        int[] productRows = new int[capacity];
+        int[] productStarts = new int[capacity / 2 + 1];
+        int productGroups = 0;
+        int used = 0;
+        for (int group = 0; group < other.groupCount; group++) {
+            int from = other.starts[group];
+            int to = other.starts[group + 1];
+            for (int i = from; i < to; i++) {
+                int mine = owner[other.rows[i]];
+                if (mine >= 0) {
+                    counts[mine]++;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int row = other.rows[i];
+                int mine = owner[row];
+                if (mine >= 0 && counts[mine] >= 2) {
+                    if (cursors[mine] == 0) {
+                        productStarts[productGroups++] = used;
+                        cursors[mine] = used + 1;
+                        used += counts[mine];
+                    }
+                    productRows[cursors[mine]++ - 1] = row;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int mine = owner[other.rows[i]];
+                if (mine >= 0) {
+                    counts[mine] = 0;
+                    cursors[mine] = 0;
+                }
+            }
+        }
+        for (int row : rows) {
+            owner[row] = -1;
+        }
+        productStarts[productGroups] = used;
+        return new StrippedPartition(Arrays.copyOf(productRows, used),
+                                     Arrays.copyOf(productStarts, productGroups + 1), productGroups);
+    }
+}
@@ -0,0 +1,116 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.IdentifierTable;
+import com.schema.analyzer.model.Table;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A table being checked by the rules of an analyzer, together with lookups that several
+ * rules need. Lookups are computed on first use and shared by all rules run on the table.
+ * Each instance is used by a single thread.
+ */
+public class TableContext {
+
+    private final Table table;
+    private final IdentifierTable identifiers;
+    private final Deadline deadline;
+
+    private BitSet primaryKeyColumnIds;
+    private List<Column> nonKeyColumns;
+    private ColumnNameIndex nameIndex;
+    private ColumnNameIndex columnNameIndex;
+
+    public TableContext(Table table, IdentifierTable identifiers) {
+        this(table, identifiers, Deadline.NONE);
+    }
+
+    /**
+     * Creates a context for a table analyzed until a deadline.
+     */
+    public TableContext(Table table, IdentifierTable identifiers, Deadline deadline) {
+        this.table = table;
+        this.identifiers = identifiers;
+        this.deadline = deadline;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the deadline of the analysis. The analyzers check it between rules; a rule or
+     * dependency source whose work on one table can take long checks it as well.
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Returns the identifier table of the schema the table belongs to.
+     */
+    public IdentifierTable getIdentifiers() {
+        return identifiers;
+    }
+
+    /**
+     * Returns the columns that form the primary key of the table.
+     */
+    public Set<Column> getPrimaryKeyColumns() {
+        return table.getPrimaryKeyColumns();
+    }
+
+    /**
+     * Returns the name ids of the primary key columns.
+     */
+    public BitSet getPrimaryKeyColumnIds() {
+        if (primaryKeyColumnIds == null) {
+            primaryKeyColumnIds = identifiers.idsOf(getPrimaryKeyColumns());
+        }
+        return primaryKeyColumnIds;
+    }
+
+    /**
+     * Returns the columns that are not part of the primary key, in table order.
+     */
+    public List<Column> getNonKeyColumns() {
+        if (nonKeyColumns == null) {
+            BitSet pkColumnIds = getPrimaryKeyColumnIds();
+            List<Column> columns = new ArrayList<>();
+            for (Column column : table.getColumns()) {
+                if (!pkColumnIds.get(column.getNameId())) {
+                    columns.add(column);
+                }
+            }
+            nonKeyColumns = Collections.unmodifiableList(columns);
+        }
+        return nonKeyColumns;
+    }
+
+    /**
+     * Returns the index of the names of the non-key columns; positions in the index are
+     * positions in {@link #getNonKeyColumns()}.
+     */
+    public ColumnNameIndex getNameIndex() {
+        if (nameIndex == null) {
+            nameIndex = new ColumnNameIndex(getNonKeyColumns());
+        }
+        return nameIndex;
+    }
+
+    /**
+     * Returns the index of the names of all columns, key columns included; positions in the
+     * index are positions in the table's columns.
+     */
+    public ColumnNameIndex getColumnNameIndex() {
+        if (columnNameIndex == null) {
+            columnNameIndex = new ColumnNameIndex(table.getColumns());
+        }
+        return columnNameIndex;
+    }
+}
@@ -1,11 +1,13 @@
 package com.schema.analyzer.service;
 
 import com.schema.analyzer.model.*;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -15,108 +17,128 @@ import java.util.stream.Collectors;
  * 1. It is in 2NF
  * 2. All non-primary-key attributes are non-transitively dependent on the primary key
  *    (no transitive dependencies where A → B → C, meaning non-key attributes depend on other non-key attributes)
+ *
+ * Besides the naming heuristics, dependencies discovered in sample data by the registered
+ * {@link DependencySource}s are reported when a column that is not part of a candidate key
+ * determines non-prime columns.
  */
 @Service
 @Slf4j
-public class ThirdNormalFormAnalyzer implements NormalizationAnalyzer {
+public class ThirdNormalFormAnalyzer extends RuleBasedAnalyzer {
 
     private final SecondNormalFormAnalyzer secondNfAnalyzer;
+    private final Vocabulary vocabulary;
+    private final List<DependencySource> dependencySources = new CopyOnWriteArrayList<>();
 
-    @Autowired
+    /**
+     * Creates an analyzer using the built-in vocabulary.
+     */
     public ThirdNormalFormAnalyzer(SecondNormalFormAnalyzer secondNfAnalyzer) {
+        this(secondNfAnalyzer, Vocabulary.defaults());
+    }
+
+    public ThirdNormalFormAnalyzer(SecondNormalFormAnalyzer secondNfAnalyzer, Vocabulary vocabulary) {
         this.secondNfAnalyzer = secondNfAnalyzer;
+        this.vocabulary = vocabulary;
+        
+        addRule("3nf.functional-groups", this::detectFunctionalGroups);
+        addRule("3nf.code-name-pairs", this::detectCodeNamePairs);
+        addRule("3nf.address", this::detectAddressDenormalization);
+        addRule("3nf.calculated-fields", this::detectCalculatedFields);
+        addRule("3nf.implicit-foreign-keys", this::detectImplicitForeignKeys);
+        addRule("3nf.sample-dependencies", this::detectDiscoveredTransitiveDependencies);
+    }
+
+    /**
+     * Creates an analyzer that also uses the dependency sources defined as beans, such as
+     * the dependencies discovered in sample data.
+     */
+    @Autowired
+    public ThirdNormalFormAnalyzer(SecondNormalFormAnalyzer secondNfAnalyzer, Vocabulary vocabulary,
+                                   ObjectProvider<DependencySource> dependencySources) {
+        this(secondNfAnalyzer, vocabulary);
+        dependencySources.orderedStream().forEach(this::addDependencySource);
     }
 
     @Override
-    public List<NormalizationIssue> analyze(DatabaseSchema schema) {
-        List<NormalizationIssue> issues = new ArrayList<>();
-        
+    public NormalizationForm getForm() {
+        return NormalizationForm.THIRD_NORMAL_FORM;
+    }
+
+    @Override
+    protected List<NormalizationIssue> checkLowerForms(AnalysisContext context) {
         // First, check if schema is in 2NF
-        List<NormalizationIssue> secondNfIssues = secondNfAnalyzer.analyze(schema);
+        List<NormalizationIssue> secondNfIssues = context.getIssues(secondNfAnalyzer);
         if (!secondNfIssues.isEmpty()) {
             // If not in 2NF, report only 2NF issues (which include 1NF issues)
             return secondNfIssues;
         }
-        
-        // Check each table for 3NF compliance
-        for (Table table : schema.getTables()) {
-            // Get all non-primary key columns
-            Set<Column> pkColumns = table.getPrimaryKeyColumns();
-            Set<String> pkColumnNames = pkColumns.stream()
-                    .map(Column::getName)
-                    .collect(Collectors.toSet());
-            
-            List<Column> nonKeyColumns = table.getColumns().stream()
-                    .filter(col -> !pkColumnNames.contains(col.getName()))
-                    .collect(Collectors.toList());
-            
-            // Skip tables with no non-key columns
-            if (nonKeyColumns.isEmpty()) {
-                continue;
-            }
-            
-            // Look for potential transitive dependencies
-            detectTransitiveDependencies(table, pkColumns, nonKeyColumns, issues);
-        }
-        
-        return issues;
+        return null;
     }
 
-    @Override
-    public boolean isCompliant(DatabaseSchema schema) {
-        return analyze(schema).isEmpty();
+
+    /**
+     * Registers a source of functional dependencies, used after the ones registered so far.
+     */
+    public void addDependencySource(DependencySource source) {
+        dependencySources.add(source);
     }
     
     /**
-     * Detects potential transitive dependencies in a table.
+     * Transitive dependencies need non-key columns; tables without any are skipped.
      * A transitive dependency exists when a non-key attribute depends on another non-key attribute.
      */
-    private void detectTransitiveDependencies(Table table, Set<Column> pkColumns, List<Column> nonKeyColumns, 
-                                           List<NormalizationIssue> issues) {
-        // Get names of primary key columns for easier comparison
-        Set<String> pkColumnNames = pkColumns.stream()
-                .map(Column::getName)
-                .collect(Collectors.toSet());
-        
-        // Strategy 1: Look for candidates for functional dependencies based on column naming patterns
-        Map<String, List<Column>> potentialFunctionalGroups = new HashMap<>();
+    @Override
+    protected boolean appliesTo(TableContext table) {
+        return !table.getNonKeyColumns().isEmpty();
+    }
+    
+    /**
+     * Reports the dependencies discovered in sample data on columns outside every candidate key.
+     */
+    private void detectDiscoveredTransitiveDependencies(TableContext tableContext, List<NormalizationIssue> issues) {
+        DependencyIssues.report(tableContext, dependencySources, FunctionalDependency.Origin.DISCOVERED,
+            IssueCode.SAMPLE_TRANSITIVE_DEPENDENCY, issues);
+    }
+    
+    /**
+     * Looks for candidates for functional dependencies based on column naming patterns.
+     */
+    private void detectFunctionalGroups(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        ColumnNameIndex names = tableContext.getNameIndex();
+        BitSet identifierColumns = columnsIn(names, Vocabulary.Category.IDENTIFIER);
+        Map<String, List<Integer>> potentialFunctionalGroups = new HashMap<>();
         
         // Group columns that might be functionally dependent on each other
-        for (Column col : nonKeyColumns) {
-            String colName = col.getName().toLowerCase();
-            
+        for (int i = 0; i < names.size(); i++) {
             // Process column name to extract potential entity identifiers
             // Examples: customer_id -> customer, product_code -> product, etc.
-            String baseEntity = extractBaseEntity(colName);
+            String baseEntity = extractBaseEntity(names, i);
             
             if (baseEntity != null && baseEntity.length() >= 2) {
                 potentialFunctionalGroups
                     .computeIfAbsent(baseEntity, k -> new ArrayList<>())
-                    .add(col);
+                    .add(i);
             }
         }
         
         // For each group, check if there's a potential transitive dependency
-        for (Map.Entry<String, List<Column>> entry : potentialFunctionalGroups.entrySet()) {
-            List<Column> group = entry.getValue();
+        for (Map.Entry<String, List<Integer>> entry : potentialFunctionalGroups.entrySet()) {
+            List<Integer> group = entry.getValue();
             
             // We need at least two columns to have a potential transitive dependency
             if (group.size() >= 2) {
                 // Look for an ID or CODE column that might be a determinant
-                Optional<Column> potentialDeterminant = group.stream()
-                    .filter(col -> {
-                        String name = col.getName().toLowerCase();
-                        return name.endsWith("_id") || 
-                               name.endsWith("_code") || 
-                               name.endsWith("_key") ||
-                               name.endsWith("_no");
-                    })
+                Optional<Integer> potentialDeterminant = group.stream()
+                    .filter(identifierColumns::get)
                     .findFirst();
                 
                 if (potentialDeterminant.isPresent()) {
-                    Column determinant = potentialDeterminant.get();
+                    Column determinant = names.getColumn(potentialDeterminant.get());
                     List<Column> dependents = group.stream()
-                        .filter(col -> !col.getName().equals(determinant.getName()))
+                        .map(names::getColumn)
+                        .filter(col -> col.getNameId() != determinant.getNameId())
                         .collect(Collectors.toList());
                     
                     // If we have dependents, report a potential transitive dependency
@@ -126,12 +148,6 @@ public class ThirdNormalFormAnalyzer implements NormalizationAnalyzer {
                 }
             }
         }
-        
-        // Strategy 2: Look for common patterns of transitive dependencies
-        detectCommonTransitiveDependencies(table, nonKeyColumns, issues);
-        
-        // Strategy 3: Check for potential foreign keys that aren't defined as constraints
-        detectImplicitForeignKeys(table, nonKeyColumns, issues);
     }
     
     /**
@@ -142,131 +158,103 @@ public class ThirdNormalFormAnalyzer implements NormalizationAnalyzer {
                 .map(Column::getName)
                 .collect(Collectors.toList());
         
-        return new NormalizationIssue(
-            NormalizationForm.THIRD_NORMAL_FORM,
+        NormalizationIssue issue = new NormalizationIssue(
+            IssueCode.TRANSITIVE_DEPENDENCY,
             table.getName(),
             String.join(", ", dependentNames),
-            "Potential transitive dependency detected: These columns may depend on non-key attribute " + 
-            determinant.getName() + " rather than directly on the primary key",
-            "Consider creating a separate table for " + determinant.getName() + 
-            " and its dependent columns",
-            generateTransitiveDependencyFixSql(table, determinant, dependents)
+            () -> generateTransitiveDependencyFixSql(table, determinant, dependents),
+            determinant.getName()
         );
+        issue.setDependency(List.of(determinant.getName()), dependentNames);
+        return issue;
     }
     
     /**
      * Extracts a potential base entity from a column name.
      * For example, "customer_id" -> "customer", "product_price" -> "product"
      */
-    private String extractBaseEntity(String columnName) {
-        // Common suffixes that suggest a column identifies an entity
-        List<String> identifierSuffixes = Arrays.asList("_id", "_code", "_key", "_no");
-        
-        for (String suffix : identifierSuffixes) {
-            if (columnName.endsWith(suffix)) {
-                return columnName.substring(0, columnName.length() - suffix.length());
-            }
+    private String extractBaseEntity(ColumnNameIndex names, int position) {
+        if (names.getLastWord(position) == null) {
+            return null;
         }
         
-        // Check for common attribute patterns
-        List<String> attributePatterns = Arrays.asList("_name", "_description", "_address", 
-                                                     "_city", "_state", "_zip", "_country",
-                                                     "_date", "_time", "_price", "_cost",
-                                                     "_quantity", "_amount", "_total");
-        
-        for (String pattern : attributePatterns) {
-            if (columnName.endsWith(pattern)) {
-                return columnName.substring(0, columnName.length() - pattern.length());
-            }
+        // Common suffixes that suggest a column identifies an entity, and common attribute patterns
+        int categories = vocabulary.classify(names.getColumn(position));
+        if (Vocabulary.Category.IDENTIFIER.in(categories) || Vocabulary.Category.ATTRIBUTE.in(categories)) {
+            return names.getStem(position);
         }
         
         // If we can't identify a pattern, assume the column might be part of a functional group
         // based on prefix up to the first underscore
-        int firstUnderscore = columnName.indexOf('_');
-        if (firstUnderscore > 0) {
-            return columnName.substring(0, firstUnderscore);
+        return names.getFirstWord(position);
+    }
+    
+    /**
+     * Returns the positions of the columns whose names the vocabulary puts in a category.
+     */
+    private BitSet columnsIn(ColumnNameIndex names, Vocabulary.Category category) {
+        BitSet positions = new BitSet();
+        for (int i = 0; i < names.size(); i++) {
+            if (category.in(vocabulary.classify(names.getColumn(i)))) {
+                positions.set(i);
+            }
         }
-        
-        return null;
+        return positions;
     }
     
     /**
-     * Detects common patterns of transitive dependencies.
+     * Looks for code/id + name/description patterns, a common form of transitive dependency.
+     * Examples: category_id + category_name, product_code + product_description
      */
-    private void detectCommonTransitiveDependencies(Table table, List<Column> nonKeyColumns, 
-                                                List<NormalizationIssue> issues) {
-        // Pattern 1: Look for code/id + name/description patterns
-        // Examples: category_id + category_name, product_code + product_description
+    private void detectCodeNamePairs(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        ColumnNameIndex names = tableContext.getNameIndex();
         Map<String, List<Column>> codeNamePairs = new HashMap<>();
+        Map<String, Column> determinants = new HashMap<>();
+        
+        BitSet descriptiveColumns = columnsIn(names, Vocabulary.Category.DESCRIPTION);
         
-        for (Column col : nonKeyColumns) {
-            String colName = col.getName().toLowerCase();
+        // Columns that are likely to be code/id columns
+        BitSet identifierColumns = columnsIn(names, Vocabulary.Category.IDENTIFIER);
+        for (int i = identifierColumns.nextSetBit(0); i >= 0; i = identifierColumns.nextSetBit(i + 1)) {
+            String colName = names.getName(i);
             
-            // Skip columns that are likely to be code/id columns
-            if (colName.endsWith("_id") || colName.endsWith("_code") || 
-                colName.endsWith("_key") || colName.endsWith("_no")) {
-                
-                // Extract base entity name
-                String baseEntity = colName.substring(0, colName.lastIndexOf('_'));
-                
-                // Look for matching descriptive columns
-                List<Column> matchingColumns = nonKeyColumns.stream()
-                    .filter(c -> {
-                        String cName = c.getName().toLowerCase();
-                        return cName.startsWith(baseEntity + "_") && 
-                               (cName.endsWith("_name") || cName.endsWith("_desc") || 
-                                cName.endsWith("_description") || cName.endsWith("_title"));
-                    })
-                    .collect(Collectors.toList());
-                
-                if (!matchingColumns.isEmpty()) {
-                    codeNamePairs.put(colName, matchingColumns);
-                }
+            // Look for matching descriptive columns with the same base entity name
+            BitSet matching = names.withPrefix(names.getStem(i));
+            matching.and(descriptiveColumns);
+            
+            if (!matching.isEmpty()) {
+                codeNamePairs.put(colName, names.getColumns(matching));
+                determinants.putIfAbsent(colName, names.getColumn(i));
             }
         }
         
         // Create issues for each detected pattern
         for (Map.Entry<String, List<Column>> entry : codeNamePairs.entrySet()) {
-            String determinantName = entry.getKey();
             List<Column> dependents = entry.getValue();
-            
-            Column determinant = nonKeyColumns.stream()
-                .filter(c -> c.getName().equalsIgnoreCase(determinantName))
-                .findFirst()
-                .orElse(null);
+            Column determinant = determinants.get(entry.getKey());
             
             if (determinant != null) {
                 issues.add(createTransitiveDependencyIssue(table, determinant, dependents));
             }
         }
-        
-        // Pattern 2: Look for address-related columns (common denormalization)
-        detectAddressDenormalization(table, nonKeyColumns, issues);
-        
-        // Pattern 3: Look for price/tax calculation fields
-        detectCalculatedFields(table, nonKeyColumns, issues);
     }
     
     /**
      * Detects address-related columns that are commonly denormalized.
      */
-    private void detectAddressDenormalization(Table table, List<Column> nonKeyColumns, 
-                                           List<NormalizationIssue> issues) {
+    private void detectAddressDenormalization(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        
         // Look for tables with address-related fields
-        List<Column> addressColumns = nonKeyColumns.stream()
-            .filter(col -> {
-                String name = col.getName().toLowerCase();
-                return name.contains("address") || name.contains("street") || 
-                       name.equals("city") || name.equals("state") || 
-                       name.equals("zip") || name.equals("postal_code") || 
-                       name.equals("country");
-            })
+        List<Column> addressColumns = tableContext.getNonKeyColumns().stream()
+            .filter(col -> Vocabulary.Category.ADDRESS.in(vocabulary.classify(col)))
             .collect(Collectors.toList());
         
         if (addressColumns.size() >= 3) {
             // Look for a potential determinant (usually address_id or similar)
             Optional<Column> determinant = addressColumns.stream()
-                .filter(col -> col.getName().toLowerCase().endsWith("_id"))
+                .filter(col -> col.getFoldedName().endsWith("_id"))
                 .findFirst();
             
             if (determinant.isPresent()) {
@@ -278,12 +266,10 @@ public class ThirdNormalFormAnalyzer implements NormalizationAnalyzer {
             } else {
                 // If no clear determinant, suggest creating an address table anyway
                 issues.add(new NormalizationIssue(
-                    NormalizationForm.THIRD_NORMAL_FORM,
+                    IssueCode.ADDRESS_COLUMNS,
                     table.getName(),
                     addressColumns.stream().map(Column::getName).collect(Collectors.joining(", ")),
-                    "Address information should be normalized into a separate table",
-                    "Create an address table and reference it with a foreign key",
-                    generateAddressTableSql(table, addressColumns)
+                    () -> generateAddressTableSql(table, addressColumns)
                 ));
             }
         }
@@ -292,40 +278,26 @@ public class ThirdNormalFormAnalyzer implements NormalizationAnalyzer {
     /**
      * Detects calculated fields that might indicate transitive dependencies.
      */
-    private void detectCalculatedFields(Table table, List<Column> nonKeyColumns, 
-                                      List<NormalizationIssue> issues) {
-        // Look for price-related columns
-        List<Column> priceColumns = nonKeyColumns.stream()
-            .filter(col -> {
-                String name = col.getName().toLowerCase();
-                return name.contains("price") || name.contains("cost") || 
-                       name.contains("amount") || name.contains("total") || 
-                       name.contains("tax") || name.contains("discount");
-            })
+    private void detectCalculatedFields(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        
+        // Look for price/tax calculation fields
+        List<Column> priceColumns = tableContext.getNonKeyColumns().stream()
+            .filter(col -> Vocabulary.Category.AMOUNT.in(vocabulary.classify(col)))
             .collect(Collectors.toList());
         
         if (priceColumns.size() >= 2) {
             // Check if there might be calculated fields
-            List<String> calculatedFieldIndicators = Arrays.asList(
-                "total", "subtotal", "net", "gross", "final", "discounted"
-            );
-            
             List<Column> potentialCalculatedFields = priceColumns.stream()
-                .filter(col -> {
-                    String name = col.getName().toLowerCase();
-                    return calculatedFieldIndicators.stream().anyMatch(name::contains);
-                })
+                .filter(col -> Vocabulary.Category.CALCULATED.in(vocabulary.classify(col)))
                 .collect(Collectors.toList());
             
             if (!potentialCalculatedFields.isEmpty()) {
                 // Suggest splitting these into different tables or computing them on demand
                 issues.add(new NormalizationIssue(
-                    NormalizationForm.THIRD_NORMAL_FORM,
+                    IssueCode.CALCULATED_FIELDS,
                     table.getName(),
                     potentialCalculatedFields.stream().map(Column::getName).collect(Collectors.joining(", ")),
-                    "Potentially calculated fields detected. These may be transitive dependencies.",
-                    "Consider computing these values on demand rather than storing them, " +
-                    "or ensure they are properly updated whenever their source values change.",
                     null
                 ));
             }
@@ -336,24 +308,24 @@ public class ThirdNormalFormAnalyzer implements NormalizationAnalyzer {
      * Detects columns that might be implicit foreign keys (not declared as such)
      * which can lead to transitive dependencies.
      */
-    private void detectImplicitForeignKeys(Table table, List<Column> nonKeyColumns, 
-                                         List<NormalizationIssue> issues) {
+    private void detectImplicitForeignKeys(TableContext tableContext, List<NormalizationIssue> issues) {
+        Table table = tableContext.getTable();
+        
         // Look for columns that end with _id but aren't declared as foreign keys
-        List<Column> potentialFkColumns = nonKeyColumns.stream()
-            .filter(col -> col.getName().toLowerCase().endsWith("_id"))
-            .filter(col -> !isActualForeignKey(table, col.getName()))
-            .collect(Collectors.toList());
+        BitSet fkColumnIds = foreignKeyColumnIds(table, tableContext.getIdentifiers());
+        ColumnNameIndex names = tableContext.getNameIndex();
+        BitSet potentialFkColumns = names.withLastWord("id");
         
-        for (Column potentialFk : potentialFkColumns) {
+        for (int i = potentialFkColumns.nextSetBit(0); i >= 0; i = potentialFkColumns.nextSetBit(i + 1)) {
+            Column potentialFk = names.getColumn(i);
+            if (fkColumnIds.get(potentialFk.getNameId())) {
+                continue;
+            }
             String baseEntity = potentialFk.getName().substring(0, potentialFk.getName().length() - 3);
             
             // Look for columns that might depend on this potential FK
-            List<Column> dependents = nonKeyColumns.stream()
+            List<Column> dependents = names.getColumns(names.withPrefix(IdentifierTable.fold(baseEntity))).stream()
                 .filter(col -> !col.equals(potentialFk))
-                .filter(col -> {
-                    String colName = col.getName().toLowerCase();
-                    return colName.startsWith(baseEntity.toLowerCase() + "_");
-                })
                 .collect(Collectors.toList());
             
             if (!dependents.isEmpty()) {
@@ -363,12 +335,14 @@ public class ThirdNormalFormAnalyzer implements NormalizationAnalyzer {
     }
     
     /**
-     * Checks if a column is already defined as a foreign key.
+     * Returns the name ids of all columns that are already defined as foreign keys.
      */
-    private boolean isActualForeignKey(Table table, String columnName) {
-        return table.getForeignKeyConstraints().stream()
-            .flatMap(fk -> fk.getColumns().stream())
-            .anyMatch(fkCol -> fkCol.equalsIgnoreCase(columnName));
+    private BitSet foreignKeyColumnIds(Table table, IdentifierTable identifiers) {
+        BitSet ids = new BitSet();
+        for (ForeignKeyConstraint fk : table.getForeignKeyConstraints()) {
+            ids.or(identifiers.lookupAll(fk.getColumns()));
+        }
+        return ids;
     }
     
     /**
@@ -0,0 +1,44 @@
+package com.schema.analyzer.service;
+
+/**
+ * 64-bit hashing of values read character by character, so that values can be compared
+ * without being materialized as strings. Collisions are negligible at the row counts the
+ * analyzer deals with.
+ */
+final class ValueHash {
+
+    /**
+     * The hash of no characters; the starting point of {@link #add}.
+     */
+    static final long SEED = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private ValueHash() {
+    }
+
+    /**
+     * Adds a character to a hash (FNV-1a).
+     */
+    static long add(long hash, int c) {
+        return (hash ^ c) * PRIME;
+    }
+
+    /**
+     * Combines the finished hashes of several values into one, order-sensitively.
+     */
+    static long combine(long hash, long valueHash) {
+        return Long.rotateLeft(hash ^ valueHash, 31) * 0x9e3779b97f4a7c15L;
+    }
+
+    /**
+     * Spreads the bits of a hash, so that its low and high bits can index tables and sketches.
+     */
+    static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
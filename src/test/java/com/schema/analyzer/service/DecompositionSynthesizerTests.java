@@ -0,0 +1,47 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecompositionSynthesizerTests {
+
+    private static NormalizationIssue issue(String table, List<String> determinant, List<String> dependent) {
+        NormalizationIssue issue = new NormalizationIssue(NormalizationForm.THIRD_NORMAL_FORM, table,
+                String.join(", ", dependent), "Transitive dependency", "Decompose the table", null);
+        issue.setDependency(determinant, dependent);
+        return issue;
+    }
+
+    @Test
+    public void testIssuesOfATableAreFixedByOneDecomposition() {
+        Table table = new Table("orders");
+        for (String name : List.of("order_id", "customer_id", "customer_name", "customer_email", "zip", "city")) {
+            table.addColumn(new Column(name, "VARCHAR(50)", !name.equals("order_id")));
+        }
+        table.addConstraint(new PrimaryKeyConstraint("pk_orders", List.of("order_id")));
+
+        // Overlapping issues, including an alternate key of the customer
+        List<NormalizationIssue> issues = List.of(
+                issue("orders", List.of("customer_id"), List.of("customer_name", "customer_email")),
+                issue("orders", List.of("customer_id"), List.of("customer_email")),
+                issue("orders", List.of("customer_email"), List.of("customer_id")),
+                issue("orders", List.of("zip"), List.of("city")));
+        Decomposition decomposition = new DecompositionSynthesizer().synthesize(table, issues);
+
+        List<String> relations = decomposition.getRelations().stream()
+                .map(relation -> relation.getName() + "(" + relation.getColumns().stream()
+                        .map(Column::getName).collect(Collectors.joining(", ")) + ")")
+                .toList();
+        assertEquals(List.of("orders(order_id, customer_id, zip)",
+                             "customer(customer_id, customer_name, customer_email)",
+                             "orders_zip(zip, city)"), relations);
+        String sql = decomposition.toSql();
+        assertTrue(sql.contains("ALTER TABLE orders ADD FOREIGN KEY (customer_id) REFERENCES customer(customer_id)"));
+        assertTrue(sql.contains("ALTER TABLE orders DROP COLUMN city"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DependencyDiscoveryTests {
+
+    @Test
+    public void testDependenciesAreDiscoveredInCsvSamples(@TempDir Path samples) throws Exception {
+        String sql = "CREATE TABLE tickets (ticket INT PRIMARY KEY, team VARCHAR(20), floor INT, weight INT);";
+        String csv = "ticket,team,floor,weight,ignored\r\n" +
+                "1,red,3,5,x\r\n" +
+                "2,red,3,7,x\r\n" +
+                "\r\n" +
+                "3,blue,4,5,x\r\n" +
+                "4,green,4,9,y\r\n" +
+                "5,\"blue\",4,7,\"a \"\"quoted\"\",\nvalue\"\r\n";
+        Table table = SQLParserService.builder().build().parseSchema(sql).getTables().get(0);
+
+        DataSample sample = CsvSampleReader.read(new StringReader(csv), table, 1 << 20);
+        assertEquals(4, sample.getColumnCount());
+        assertEquals(5, sample.getRowCount());
+        assertEquals(3, sample.getDistinctCount(1));
+
+        // The ticket is unique and weight determines nothing, which leaves team -> floor
+        List<FunctionalDependency> discovered = new DependencyDiscovery(3, 1 << 20, null).discover(sample);
+        FunctionalDependencies names = new FunctionalDependencies(table);
+        assertEquals(1, discovered.size());
+        assertEquals("team", names.namesOf(discovered.get(0).getDeterminant()));
+        assertEquals("floor", names.namesOf(discovered.get(0).getDependent()));
+
+        // Reading fewer rows than the sample has marks it truncated
+        assertTrue(CsvSampleReader.read(new StringReader(csv), table, 4 * 20 * 3).isTruncated());
+
+        // A non-key determinant of a non-prime column is a transitive dependency, reported by 3NF
+        Files.writeString(samples.resolve("tickets.csv"), csv);
+        SampleDependencySource source = new SampleDependencySource(samples.toString(), 16, 3);
+        SecondNormalFormAnalyzer secondNf = new SecondNormalFormAnalyzer(new FirstNormalFormAnalyzer());
+        ThirdNormalFormAnalyzer thirdNf = new ThirdNormalFormAnalyzer(secondNf);
+        BoyceCoddNormalFormAnalyzer bcnf = new BoyceCoddNormalFormAnalyzer(thirdNf);
+        secondNf.addDependencySource(source);
+        thirdNf.addDependencySource(source);
+        bcnf.addDependencySource(source);
+        List<NormalizationIssue> issues = bcnf.analyze(SQLParserService.builder().build().parseSchema(sql));
+        assertEquals(1, issues.size());
+        assertEquals(IssueCode.SAMPLE_TRANSITIVE_DEPENDENCY, issues.get(0).getCode());
+        assertEquals("floor", issues.get(0).getColumnName());
+        assertTrue(issues.get(0).getDescription().contains("team (holds in the sample data)"));
+
+        // Part of a composite key determining a non-key column is a partial dependency, reported by 2NF
+        Files.writeString(samples.resolve("seats.csv"), "ticket,seat,holder\n1,1,ann\n1,2,ann\n2,1,bob\n2,2,bob\n3,1,ann\n");
+        issues = bcnf.analyze(SQLParserService.builder().build().parseSchema(
+                "CREATE TABLE seats (ticket INT, seat INT, holder VARCHAR(20), PRIMARY KEY (ticket, seat));"));
+        assertEquals(1, issues.size());
+        assertEquals(IssueCode.SAMPLE_PARTIAL_DEPENDENCY, issues.get(0).getCode());
+        assertEquals(List.of("ticket"), issues.get(0).getDeterminantColumns());
+        assertEquals(List.of("holder"), issues.get(0).getDependentColumns());
+    }
+
+    @Test
+    public void testDiscoveryStopsAtTheDeadlineWithoutCaching(@TempDir Path samples) throws Exception {
+        String sql = "CREATE TABLE tickets (ticket INT PRIMARY KEY, team VARCHAR(20), floor INT);";
+        String csv = "ticket,team,floor\n1,red,3\n2,red,3\n3,blue,4\n4,green,4\n";
+        Files.writeString(samples.resolve("tickets.csv"), csv);
+        DatabaseSchema schema = SQLParserService.builder().build().parseSchema(sql);
+        Table table = schema.getTables().get(0);
+
+        Deadline expired = Deadline.after(1);
+        Thread.sleep(5);
+        assertNull(CsvSampleReader.read(new StringReader(csv), table, 1 << 20, expired));
+        DataSample sample = CsvSampleReader.read(new StringReader(csv), table, 1 << 20);
+        assertNull(new DependencyDiscovery(3, 1 << 20, null).discover(sample, expired));
+
+        // An abandoned run adds nothing, and is not cached for the next analysis
+        SampleDependencySource source = new SampleDependencySource(samples.toString(), 16, 3);
+        FunctionalDependencies dependencies = FunctionalDependencies.ofKeys(table);
+        source.addDependencies(new TableContext(table, schema.getIdentifiers(), expired), dependencies);
+        assertEquals(1, dependencies.getDependencies().size());
+        source.addDependencies(new TableContext(table, schema.getIdentifiers()), dependencies);
+        assertEquals(2, dependencies.getDependencies().size());
+    }
+
+    @Test
+    public void testCsvEmptyValuesAndByteOrderMark() throws Exception {
+        Table table = SQLParserService.builder().build()
+                .parseSchema("CREATE TABLE codes (code VARCHAR(10), label VARCHAR(10));").getTables().get(0);
+
+        // In a single-column sample an empty line is an empty value, not a blank line
+        DataSample single = CsvSampleReader.read(new StringReader("\uFEFFcode\r\nA\r\n\r\nB\r\n"), table, 1 << 20);
+        assertEquals(1, single.getColumnCount());
+        assertEquals(3, single.getRowCount());
+        assertEquals(3, single.getDistinctCount(0));
+
+        // Only a byte order mark at the start of the input is skipped
+        DataSample marked = CsvSampleReader.read(new StringReader("code,label\n\n\uFEFFA,x\nA,x\n"), table, 1 << 20);
+        assertEquals(2, marked.getRowCount());
+        assertEquals(2, marked.getDistinctCount(0));
+        assertEquals(1, marked.getDistinctCount(1));
+    }
+}
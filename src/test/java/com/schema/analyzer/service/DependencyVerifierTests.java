@@ -0,0 +1,87 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DependencyVerifierTests {
+
+    /**
+     * Returns the analysis of a script's tables with one issue: department_id -> department_name.
+     */
+    private static AnalysisResult suspectDepartmentName(String script) throws Exception {
+        NormalizationIssue issue = new NormalizationIssue(NormalizationForm.THIRD_NORMAL_FORM, "employees",
+                "department_name", "Transitive dependency", "Decompose the table", null);
+        issue.setDependency(List.of("department_id"), List.of("department_name"));
+        AnalysisResult result = new AnalysisResult();
+        result.setSchema(SQLParserService.builder().build().parseSchema(script));
+        result.getIssuesByForm().put(NormalizationForm.THIRD_NORMAL_FORM, new ArrayList<>(List.of(issue)));
+        return result;
+    }
+
+    private static NormalizationIssue verify(String script) throws Exception {
+        AnalysisResult result = suspectDepartmentName(script);
+        new DependencyVerifier().verify(new StringReader(script), result, Deadline.NONE);
+        assertFalse(result.isIncomplete());
+        return result.getAllIssues().get(0);
+    }
+
+    @Test
+    public void testDependenciesAreVerifiedAgainstInsertData() throws Exception {
+        String schema = "CREATE TABLE employees (employee_id INT PRIMARY KEY, department_id INT, " +
+                "department_name VARCHAR(100), salary DECIMAL(10,2));\n";
+        String consistent = schema +
+                "/*!40000 ALTER TABLE `employees` DISABLE KEYS */;\n" +
+                "INSERT INTO `shop`.`employees` VALUES (1,10,'Sales',100.00),(2,10,'Sales',200.00)," +
+                "(3,20,'R&D ),( lab; \\'west\\'',300.00);\n" +
+                "INSERT INTO employees (department_name, employee_id, department_id) VALUES ('Sales', 4, 10);\n";
+
+        // Quoted parentheses, commas and delimiters do not split values or statements
+        List<Integer> valueCounts = new ArrayList<>();
+        InsertValuesScanner.scan(new StringReader(consistent), new InsertValuesScanner.RowHandler() {
+            @Override
+            public boolean startInsert(String table, List<String> columns) {
+                assertEquals("employees", table);
+                return true;
+            }
+
+            @Override
+            public void row(long[] hashes, int valueCount) {
+                valueCounts.add(valueCount);
+            }
+        }, Deadline.NONE);
+        assertEquals(List.of(4, 4, 4, 3), valueCounts);
+
+        NormalizationIssue issue = verify(consistent);
+        assertEquals(1.0, issue.getConfidence(), 0.01);
+
+        // Department 10 has two names, so department_id -> department_name only holds for one of two ids
+        String contradicted = schema +
+                "INSERT INTO employees VALUES (1,10,'Sales',100.00),(2,10,'Marketing',200.00),(3,20,'R&D',300.00);\n";
+        issue = verify(contradicted);
+        assertTrue(issue.getConfidence() < 0.9);
+
+        // Without data nothing is verified
+        assertNull(verify(schema).getConfidence());
+    }
+
+    @Test
+    public void testExpiredDeadlineLeavesDependenciesUnverified() throws Exception {
+        String script = "CREATE TABLE employees (employee_id INT PRIMARY KEY, department_id INT, " +
+                "department_name VARCHAR(100));\n" +
+                "INSERT INTO employees VALUES (1,10,'Sales'),(2,10,'Sales'),(3,20,'R&D');\n";
+        AnalysisResult result = suspectDepartmentName(script);
+
+        Deadline expired = Deadline.after(1);
+        Thread.sleep(5);
+        new DependencyVerifier().verify(new StringReader(script), result, expired);
+
+        assertTrue(result.isIncomplete());
+        assertNull(result.getAllIssues().get(0).getConfidence());
+    }
+}
@@ -0,0 +1,99 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FunctionalDependenciesTests {
+
+    @Test
+    public void testFunctionalDependencyClosureAndCandidateKeys() {
+        Table table = new Table("enrollments");
+        table.addColumn(new Column("student_id", "INT", false));
+        table.addColumn(new Column("course_name", "VARCHAR(50)", false));
+        table.addColumn(new Column("course_code", "CHAR(6)", false));
+        table.addColumn(new Column("grade", "CHAR(2)"));
+        table.addColumn(new Column("email", "VARCHAR(100)", false));
+        table.addConstraint(new PrimaryKeyConstraint("pk_enrollments", List.of("student_id", "course_name")));
+        table.addConstraint(new UniqueConstraint(List.of("grade")));
+
+        FunctionalDependencies dependencies = FunctionalDependencies.ofKeys(table);
+        // The unique constraint on a nullable column is not a key
+        assertEquals(1, dependencies.getDependencies().size());
+        assertTrue(dependencies.add(List.of("course_code"), List.of("course_name"), FunctionalDependency.Origin.DECLARED));
+        assertFalse(dependencies.add(List.of("course"), List.of("course_name"), FunctionalDependency.Origin.DECLARED));
+
+        long[] code = dependencies.attributesOf(List.of("course_code"));
+        assertEquals("course_name, course_code", dependencies.namesOf(dependencies.closure(code)));
+        assertFalse(dependencies.isSuperkey(code));
+        assertTrue(dependencies.isSuperkey(dependencies.attributesOf(List.of("student_id", "course_code"))));
+
+        List<String> keys = dependencies.candidateKeys().stream().map(dependencies::namesOf).toList();
+        assertEquals(List.of("student_id, course_code", "student_id, course_name"), keys);
+
+        List<FunctionalDependency> violations = dependencies.bcnfViolations();
+        assertEquals(1, violations.size());
+        assertEquals("course_code", dependencies.namesOf(violations.get(0).getDeterminant()));
+        // course_name is part of a key, so the dependency only violates BCNF
+        assertEquals(NormalizationForm.BOYCE_CODD_NORMAL_FORM,
+                dependencies.violatedForm(violations.get(0), dependencies.candidateKeys()));
+    }
+
+    @Test
+    public void testDependenciesAreClassifiedByTheFormTheyViolate() {
+        Table table = new Table("enrollments");
+        table.addColumn(new Column("student_id", "INT", false));
+        table.addColumn(new Column("course_id", "INT", false));
+        table.addColumn(new Column("course_title", "VARCHAR(50)"));
+        table.addColumn(new Column("teacher", "VARCHAR(50)"));
+        table.addColumn(new Column("office", "VARCHAR(10)"));
+        table.addConstraint(new PrimaryKeyConstraint("pk_enrollments", List.of("student_id", "course_id")));
+
+        FunctionalDependencies dependencies = FunctionalDependencies.ofKeys(table);
+        dependencies.add(List.of("course_id"), List.of("course_title"), FunctionalDependency.Origin.DISCOVERED);
+        dependencies.add(List.of("teacher"), List.of("office"), FunctionalDependency.Origin.DISCOVERED);
+        List<long[]> keys = dependencies.candidateKeys();
+        List<FunctionalDependency> all = dependencies.getDependencies();
+
+        assertNull(dependencies.violatedForm(all.get(0), keys));
+        // Part of the key determines a non-key column
+        assertEquals(NormalizationForm.SECOND_NORMAL_FORM, dependencies.violatedForm(all.get(1), keys));
+        // A non-key column determines another
+        assertEquals(NormalizationForm.THIRD_NORMAL_FORM, dependencies.violatedForm(all.get(2), keys));
+    }
+
+    @Test
+    public void testBcnfAnalyzerInfersCodeNameDependencies() {
+        Table table = new Table("enrollments");
+        table.addColumn(new Column("student_id", "INT", false));
+        table.addColumn(new Column("course_name", "VARCHAR(50)", false));
+        table.addColumn(new Column("course_code", "CHAR(6)", false));
+        table.addConstraint(new PrimaryKeyConstraint("pk_enrollments", List.of("student_id", "course_name")));
+        DatabaseSchema schema = new DatabaseSchema("school");
+        schema.addTable(table);
+
+        FirstNormalFormAnalyzer firstNf = new FirstNormalFormAnalyzer();
+        BoyceCoddNormalFormAnalyzer bcnf = new BoyceCoddNormalFormAnalyzer(
+                new ThirdNormalFormAnalyzer(new SecondNormalFormAnalyzer(firstNf)));
+        FunctionalDependencies dependencies = bcnf.dependenciesOf(new TableContext(table, schema.getIdentifiers()));
+        assertEquals(FunctionalDependency.Origin.INFERRED, dependencies.getDependencies().get(1).getOrigin());
+
+        List<NormalizationIssue> issues = bcnf.analyze(schema);
+        assertEquals(1, issues.size());
+        assertEquals(NormalizationForm.BOYCE_CODD_NORMAL_FORM, issues.get(0).getViolatedForm());
+        assertEquals("course_name", issues.get(0).getColumnName());
+        assertTrue(issues.get(0).getFixSql().contains("PRIMARY KEY (course_code)"));
+
+        // A code column without a prefix names no entity, so it determines no description
+        Table catalog = new Table("catalog");
+        catalog.addColumn(new Column("id", "INT", false));
+        catalog.addColumn(new Column("code", "CHAR(6)"));
+        catalog.addColumn(new Column("course_name", "VARCHAR(50)"));
+        catalog.addConstraint(new PrimaryKeyConstraint("pk_catalog", List.of("id")));
+        schema.addTable(catalog);
+        assertEquals(1, bcnf.dependenciesOf(new TableContext(catalog, schema.getIdentifiers())).getDependencies().size());
+    }
+}
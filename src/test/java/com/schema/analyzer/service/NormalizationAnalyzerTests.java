@@ -1,5 +1,6 @@
 package com.schema.analyzer.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.schema.analyzer.model.*;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -7,7 +8,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +29,12 @@ public class NormalizationAnalyzerTests {
     @Autowired
     private NormalizationService normalizationService;
 
+    @Autowired
+    private SQLParserService sqlParserService;
+
+    @Autowired
+    private FirstNormalFormAnalyzer firstNfAnalyzer;
+
     @Test
     public void testFirstNormalFormAnalysis() {
         log.info("Running testFirstNormalFormAnalysis");
@@ -157,8 +173,8 @@ public class NormalizationAnalyzerTests {
         log.debug("2NF issues: {}", result.getIssuesByForm().get(NormalizationForm.SECOND_NORMAL_FORM).size());
         log.debug("3NF issues: {}", result.getIssuesByForm().get(NormalizationForm.THIRD_NORMAL_FORM).size());
         
-        // Should be in 3NF
-        assertEquals(NormalizationForm.THIRD_NORMAL_FORM, result.getAchievedForm());
+        // Should be in 3NF, and in BCNF since no determinant is outside a key
+        assertEquals(NormalizationForm.BOYCE_CODD_NORMAL_FORM, result.getAchievedForm());
         
         // Should not have normalization issues
         assertTrue(result.getIssuesByForm().get(NormalizationForm.FIRST_NORMAL_FORM).isEmpty());
@@ -167,4 +183,385 @@ public class NormalizationAnalyzerTests {
         
         log.info("testFullyNormalizedSchema passed");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testCodeNameDependencyOnPartOfTheKeyIsPartial() {
+        AnalysisResult result = normalizationService.analyzeSchema(
+            "CREATE TABLE enrol (student_id INT, course_code VARCHAR(10), course_name VARCHAR(50), " +
+            "grade CHAR(1), PRIMARY KEY (student_id, course_code));");
+
+        // course_code -> course_name depends on part of the key, so the table is not in 2NF
+        assertEquals(NormalizationForm.FIRST_NORMAL_FORM, result.getAchievedForm());
+        List<NormalizationIssue> issues = result.getIssuesByForm().get(NormalizationForm.SECOND_NORMAL_FORM);
+        assertEquals(1, issues.size());
+        assertEquals(IssueCode.KEY_PART_DEPENDENCY, issues.get(0).getCode());
+        assertEquals(List.of("course_code"), issues.get(0).getDeterminantColumns());
+        assertEquals(List.of("course_name"), issues.get(0).getDependentColumns());
+        assertTrue(result.getIssuesByForm().get(NormalizationForm.BOYCE_CODD_NORMAL_FORM).isEmpty());
+    }
+
+    @Test
+    public void testStreamedSchemaMatchesStringAnalysis() throws IOException {
+        String sql = "CREATE TABLE order_items (" +
+                "    order_id INT," +
+                "    product_id INT," +
+                "    product_name VARCHAR(100)," +
+                "    PRIMARY KEY (order_id, product_id)" +
+                ");\n" +
+                "INSERT INTO order_items VALUES (1, 2, 'widget');";
+        
+        // Same path as a gzip-encoded raw request body
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(sql.getBytes(StandardCharsets.UTF_8));
+        }
+        AnalysisResult streamed = normalizationService.analyzeSchema(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())), StandardCharsets.UTF_8));
+        AnalysisResult fromString = normalizationService.analyzeSchema(sql);
+        
+        assertEquals(fromString.getAchievedForm(), streamed.getAchievedForm());
+        
+        // A stream cannot be read twice, so only the script's issues are checked against its INSERT data
+        assertTrue(streamed.getAllIssues().stream().allMatch(issue -> issue.getConfidence() == null));
+        assertTrue(fromString.getAllIssues().stream().anyMatch(NormalizationIssue::hasDependency));
+        for (NormalizationIssue issue : fromString.getAllIssues()) {
+            if (issue.hasDependency()) {
+                assertEquals(1.0, issue.getConfidence());
+            }
+            issue.setConfidence(null);
+        }
+        assertEquals(fromString.getIssuesByForm(), streamed.getIssuesByForm());
+    }
+
+    @Test
+    public void testEachFormIsAnalyzedOnce() {
+        int[] firstNfRuns = new int[1];
+        FirstNormalFormAnalyzer countingFirstNf = new FirstNormalFormAnalyzer() {
+            @Override
+            public List<NormalizationIssue> analyze(AnalysisContext context) {
+                firstNfRuns[0]++;
+                return super.analyze(context);
+            }
+        };
+        SecondNormalFormAnalyzer secondNf = new SecondNormalFormAnalyzer(countingFirstNf);
+        ThirdNormalFormAnalyzer thirdNf = new ThirdNormalFormAnalyzer(secondNf);
+        NormalizationService service = NormalizationService.builder()
+                .sqlParserService(SQLParserService.builder().build())
+                .analyzers(countingFirstNf, secondNf, thirdNf, new BoyceCoddNormalFormAnalyzer(thirdNf))
+                .build();
+
+        String sql = "CREATE TABLE orders (order_id INT PRIMARY KEY, customer_id INT, customer_name VARCHAR(50));";
+        AnalysisResult result = service.analyzeSchema(sql);
+
+        assertEquals(1, firstNfRuns[0]);
+        assertEquals(NormalizationForm.SECOND_NORMAL_FORM, result.getAchievedForm());
+        assertEquals(normalizationService.analyzeSchema(sql).getAllIssues(), result.getAllIssues());
+    }
+
+    @Test
+    public void testParallelAnalysisMatchesSerialAnalysis() {
+        StringBuilder transitive = new StringBuilder();
+        StringBuilder mixed = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            transitive.append("CREATE TABLE orders").append(i).append(" (order_id INT PRIMARY KEY, ")
+                      .append("customer_id INT, customer_name VARCHAR(50), region_code CHAR(2), region_name VARCHAR(50));\n");
+            mixed.append(i % 3 == 0
+                ? "CREATE TABLE logs" + i + " (message TEXT, phone1 VARCHAR(20), phone2 VARCHAR(20));\n"
+                : "CREATE TABLE items" + i + " (order_id INT, product_id INT, product_name VARCHAR(50), " +
+                  "PRIMARY KEY (order_id, product_id));\n");
+        }
+
+        SQLParserService parser = SQLParserService.builder().build();
+        FirstNormalFormAnalyzer firstNf = new FirstNormalFormAnalyzer();
+        SecondNormalFormAnalyzer secondNf = new SecondNormalFormAnalyzer(firstNf);
+        ThirdNormalFormAnalyzer thirdNf = new ThirdNormalFormAnalyzer(secondNf);
+        BoyceCoddNormalFormAnalyzer bcnf = new BoyceCoddNormalFormAnalyzer(thirdNf);
+        NormalizationService serial = NormalizationService.builder()
+                .sqlParserService(parser)
+                .analyzers(firstNf, secondNf, thirdNf, bcnf)
+                .build();
+        NormalizationService parallel = NormalizationService.builder()
+                .sqlParserService(parser)
+                .analyzers(firstNf, secondNf, thirdNf, bcnf)
+                .analysisParallelism(4)
+                .build();
+        try {
+            for (String sql : List.of(transitive.toString(), mixed.toString())) {
+                AnalysisResult expected = serial.analyzeSchema(sql);
+                AnalysisResult actual = parallel.analyzeSchema(sql);
+
+                assertFalse(expected.getAllIssues().isEmpty());
+                assertEquals(expected.getAchievedForm(), actual.getAchievedForm());
+                assertEquals(expected.getIssuesByForm(), actual.getIssuesByForm());
+            }
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void testRuleSelectionAndMetrics() {
+        String sql = "CREATE TABLE customers (customer_id INT PRIMARY KEY, name VARCHAR(50), " +
+                "street VARCHAR(100), city VARCHAR(50), zip VARCHAR(10), order_total DECIMAL(10,2), tax DECIMAL(10,2));";
+
+        AnalysisResult all = normalizationService.analyzeSchema(sql);
+        assertTrue(all.getAllIssues().stream().anyMatch(issue -> issue.getDescription().startsWith("Address")));
+        // BCNF is not checked, since the table has 3NF issues
+        assertEquals(normalizationService.getRules().stream()
+                .filter(rule -> rule.getForm() != NormalizationForm.BOYCE_CODD_NORMAL_FORM)
+                .count(), all.getRuleMetrics().size());
+        RuleMetrics address = all.getRuleMetrics().stream()
+                .filter(metrics -> metrics.getRuleId().equals("3nf.address"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, address.getTablesChecked());
+        assertEquals(1, address.getIssuesFound());
+
+        AnalysisResult withoutAddress = normalizationService.analyzeSchema(sql, RuleSelection.of(null, List.of("3nf.address")));
+        assertTrue(withoutAddress.getAllIssues().stream().noneMatch(issue -> issue.getDescription().startsWith("Address")));
+        assertEquals(all.getAllIssues().size() - 1, withoutAddress.getAllIssues().size());
+
+        AnalysisResult firstNfOnly = normalizationService.analyzeSchema(sql, RuleSelection.of(List.of("1nf"), null));
+        assertEquals(3, firstNfOnly.getRuleMetrics().size());
+        assertEquals(NormalizationForm.BOYCE_CODD_NORMAL_FORM, firstNfOnly.getAchievedForm());
+
+        assertThrows(SchemaAnalysisException.class,
+                () -> normalizationService.analyzeSchema(sql, RuleSelection.of(List.of("3nf.adress"), null)));
+    }
+
+    @Test
+    public void testRepeatingGroupsAreBucketedByBaseName() throws Exception {
+        String sql = "CREATE TABLE contacts (phone1 VARCHAR(20), item1 INT, email2 VARCHAR(50), phone2 VARCHAR(20), " +
+                "item2 INT, email1 VARCHAR(50), phone10 VARCHAR(20), ab1 INT, ab2 INT, PRIMARY KEY (phone1, item1, item2));";
+
+        List<NormalizationIssue> groups = new FirstNormalFormAnalyzer().analyze(SQLParserService.builder().build().parseSchema(sql)).stream()
+                .filter(issue -> issue.getDescription().startsWith("Potential repeating group"))
+                .toList();
+
+        // item1/item2 are all primary key columns; ab1/ab2 have a base name that is too short
+        assertEquals(2, groups.size());
+        assertEquals("email2, email1", groups.get(0).getColumnName());
+        assertEquals("Potential repeating group detected: email columns", groups.get(0).getDescription());
+        assertEquals("phone1, phone2, phone10", groups.get(1).getColumnName());
+    }
+
+    @Test
+    public void testColumnNameIndexMatchesWholeWords() {
+        ColumnNameIndex names = new ColumnNameIndex(List.of(
+                new Column("Order_Date", "DATE"), new Column("reorder_level", "INT"),
+                new Column("sales_order_total", "DECIMAL"), new Column("customer_order", "INT"),
+                new Column("status", "VARCHAR")));
+
+        assertEquals("order", names.getFirstWord(0));
+        assertEquals("sales_order", names.getStem(2));
+        assertEquals("total", names.getLastWord(2));
+        assertNull(names.getLastWord(4));
+
+        assertEquals(List.of(0), names.withPrefix("order").stream().boxed().toList());
+        assertEquals(List.of(0, 2, 3), names.containingWords("order").stream().boxed().toList());
+        assertEquals(List.of(0, 2), names.withQualifier("order").stream().boxed().toList());
+        assertEquals(List.of(2), names.containingWords("order_total").stream().boxed().toList());
+        assertEquals(List.of(3), names.withLastWord("order").stream().boxed().toList());
+        assertEquals(List.of(2, 4), names.startingWith("s").stream().boxed().toList());
+    }
+
+    @Test
+    public void testVocabularyClassifiesNamesInOnePass() throws IOException {
+        Vocabulary vocabulary = Vocabulary.defaults();
+        int categories = vocabulary.classify("order_subtotal");
+        assertTrue(Vocabulary.Category.AMOUNT.in(categories));
+        assertTrue(Vocabulary.Category.CALCULATED.in(categories));
+        assertFalse(Vocabulary.Category.ATTRIBUTE.in(categories));
+        assertTrue(Vocabulary.Category.ATTRIBUTE.in(vocabulary.classify("order_total")));
+        assertTrue(Vocabulary.Category.IDENTIFIER.in(vocabulary.classify("customer_id")));
+        assertFalse(Vocabulary.Category.IDENTIFIER.in(vocabulary.classify("paid")));
+        assertTrue(Vocabulary.Category.ADDRESS.in(vocabulary.classify("city")));
+        assertFalse(Vocabulary.Category.ADDRESS.in(vocabulary.classify("birth_city")));
+
+        // Domain terms from a configuration file extend the built-in ones
+        Vocabulary extended = vocabulary.extendedWith(Vocabulary.load(
+                new java.io.StringReader("address.equals=county\nidentifier.last-word=sku\n")));
+        assertTrue(Vocabulary.Category.ADDRESS.in(extended.classify("county")));
+        assertTrue(Vocabulary.Category.IDENTIFIER.in(extended.classify("product_sku")));
+        assertTrue(Vocabulary.Category.ADDRESS.in(extended.classify("city")));
+        assertFalse(Vocabulary.Category.ADDRESS.in(vocabulary.classify("county")));
+        assertThrows(IllegalArgumentException.class, () -> vocabulary.extendedWith(Vocabulary.load(
+                new java.io.StringReader("colour.contains=red\n"))));
+
+        Column notes = new Column("notes", "TEXT");
+        assertFalse(notes.mightContainStructuredData(vocabulary));
+        assertTrue(new Column("payload", "TEXT").mightContainStructuredData(vocabulary));
+    }
+
+    @Test
+    public void testDataTypeIsParsedOnce() {
+        DataType price = new Column("price", "decimal(10,2) unsigned").getType();
+        assertEquals(DataType.Family.DECIMAL, price.getFamily());
+        assertEquals(10, price.getLength());
+        assertEquals(2, price.getScale());
+        assertTrue(price.isUnsigned());
+        assertFalse(price.isMultiValued());
+
+        DataType tags = new Column("tags", "SET('a','b')").getType();
+        assertEquals(DataType.Family.SET, tags.getFamily());
+        assertEquals(-1, tags.getLength());
+        assertTrue(tags.isMultiValued());
+
+        Column body = new Column("body", "VARCHAR(255)");
+        assertEquals(255, body.getType().getLength());
+        assertFalse(body.mightContainStructuredData());
+        body.setDataType("MEDIUMTEXT");
+        assertEquals(DataType.Family.TEXT, body.getType().getFamily());
+        assertTrue(body.mightContainStructuredData());
+        assertEquals(DataType.Family.OTHER, new Column("x", "UUID").getType().getFamily());
+    }
+
+    @Test
+    public void testImprovementSqlConsolidatesTheDecompositionOfATable() {
+        String script = normalizationService.generateImprovementSql(normalizationService.analyzeSchema(
+                "CREATE TABLE employees (employee_id INT PRIMARY KEY, department_id INT, " +
+                "department_name VARCHAR(100), salary DECIMAL(10,2));"));
+        assertTrue(script.contains("Consolidated decomposition of employees"));
+        assertTrue(script.contains("CREATE TABLE department ("));
+        assertEquals(script.indexOf("CREATE TABLE department ("), script.lastIndexOf("CREATE TABLE department ("));
+    }
+
+    @Test
+    public void testIssueTextIsRenderedOnDemand() throws Exception {
+        AtomicInteger generated = new AtomicInteger();
+        NormalizationIssue issue = new NormalizationIssue(IssueCode.TRANSITIVE_DEPENDENCY, "employees",
+                "department_name", () -> "-- fix " + generated.incrementAndGet(), "department_id");
+        assertEquals(NormalizationForm.THIRD_NORMAL_FORM, issue.getViolatedForm());
+        assertEquals(0, generated.get());
+
+        // Equality, hashing and toString go by code and parameters, rendering nothing
+        NormalizationIssue same = new NormalizationIssue(IssueCode.TRANSITIVE_DEPENDENCY, "employees",
+                "department_name", () -> "-- fix " + generated.incrementAndGet(), "department_id");
+        assertEquals(issue, same);
+        assertEquals(issue.hashCode(), same.hashCode());
+        assertTrue(issue.toString().contains("department_id"));
+        assertNotEquals(issue, new NormalizationIssue(IssueCode.TRANSITIVE_DEPENDENCY, "employees",
+                "department_name", null, "department_code"));
+        assertEquals(0, generated.get());
+
+        String json = new ObjectMapper().writeValueAsString(issue);
+        assertTrue(json.contains("\"code\":\"TRANSITIVE_DEPENDENCY\""));
+        assertTrue(json.contains("non-key attribute department_id rather than directly on the primary key"));
+        assertTrue(json.contains("\"suggestion\":\"Consider creating a separate table for department_id and its dependent columns\""));
+        assertFalse(json.contains("parameters"));
+        // The fix SQL is generated once, however often it is read
+        assertEquals("-- fix 1", issue.getFixSql());
+        assertEquals("-- fix 1", issue.getFixSql());
+        assertEquals(1, generated.get());
+
+        AnalysisResult result = normalizationService.analyzeSchema(
+                "CREATE TABLE employees (employee_id INT PRIMARY KEY, department_id INT, " +
+                "department_name VARCHAR(100), salary DECIMAL(10,2));");
+        NormalizationIssue first = result.getIssue("3NF-1");
+        assertNotNull(first);
+        assertEquals(IssueCode.TRANSITIVE_DEPENDENCY, first.getCode());
+        assertTrue(first.getDescription().contains("department_id"));
+        assertTrue(first.getFixSql().contains("CREATE TABLE department ("));
+        assertNull(result.getIssue("3NF-99"));
+    }
+
+    @Test
+    public void testIssuesAreFilteredBySeverityAndDeduplicatedByStructure() {
+        NormalizationIssue issue = new NormalizationIssue(IssueCode.KEY_PART_DEPENDENCY, "order_items",
+                "product_name", null, "product_id");
+        NormalizationIssue same = new NormalizationIssue(IssueCode.KEY_PART_DEPENDENCY, "order_items",
+                "product_name", () -> "-- fix", "product_id");
+        assertEquals(issue.getStructuralHash(), same.getStructuralHash());
+        assertTrue(issue.isDuplicateOf(same));
+        same.setColumnName("product_price");
+        assertFalse(issue.isDuplicateOf(same));
+        assertTrue(issue.hasSeverity(IssueCode.Severity.CRITICAL));
+        assertFalse(new NormalizationIssue(IssueCode.STRUCTURED_DATA, "t", "c", null)
+                .hasSeverity(IssueCode.Severity.CRITICAL));
+
+        // Numbered id columns are only a warning, which does not keep the table out of 1NF
+        AnalysisResult links = normalizationService.analyzeSchema(
+                "CREATE TABLE links (link_id INT PRIMARY KEY, node_id1 INT, node_id2 INT);");
+        assertEquals(IssueCode.NUMBERED_IDENTIFIERS,
+                links.getIssuesByForm().get(NormalizationForm.FIRST_NORMAL_FORM).get(0).getCode());
+        assertNotNull(links.getAchievedForm());
+
+        // The foreign key rule and the key column rule both find product_name depending on product_id
+        AnalysisResult result = normalizationService.analyzeSchema(
+                "CREATE TABLE products (product_id INT PRIMARY KEY, price DECIMAL(10,2));\n" +
+                "CREATE TABLE order_items (order_id INT, product_id INT, product_name VARCHAR(50), " +
+                "PRIMARY KEY (order_id, product_id), FOREIGN KEY (product_id) REFERENCES products(product_id));");
+        for (String rule : List.of("2nf.key-foreign-keys", "2nf.key-column-prefix")) {
+            assertEquals(1, result.getRuleMetrics().stream()
+                    .filter(metrics -> metrics.getRuleId().equals(rule))
+                    .findFirst()
+                    .orElseThrow()
+                    .getIssuesFound());
+        }
+        assertEquals(1, result.getIssuesByForm().get(NormalizationForm.SECOND_NORMAL_FORM).stream()
+                .filter(secondNf -> secondNf.getCode() == IssueCode.KEY_PART_DEPENDENCY)
+                .count());
+    }
+
+    @Test
+    public void testComplianceCheckStopsAtFirstViolation() throws Exception {
+        List<String> schemas = List.of(
+                "CREATE TABLE students (student_id INT PRIMARY KEY, course1 VARCHAR(50), course2 VARCHAR(50));",
+                "CREATE TABLE links (link_id INT PRIMARY KEY, node_id1 INT, node_id2 INT);",
+                "CREATE TABLE order_items (order_id INT, product_id INT, quantity INT, product_name VARCHAR(100), " +
+                "PRIMARY KEY (order_id, product_id));",
+                "CREATE TABLE employees (employee_id INT PRIMARY KEY, department_id INT, department_name VARCHAR(100));",
+                "CREATE TABLE departments (department_id INT PRIMARY KEY, name VARCHAR(100));");
+        for (String sql : schemas) {
+            assertEquals(normalizationService.analyzeSchema(sql).getAchievedForm(),
+                    normalizationService.checkSchema(sql), sql);
+            assertEquals(normalizationService.analyzeSchema(sql).getAchievedForm(),
+                    normalizationService.checkSchema(new StringReader(sql)), sql);
+        }
+
+        // Only the first of the tables without a primary key is checked
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            sql.append("CREATE TABLE log").append(i).append(" (code INT);\n");
+        }
+        DatabaseSchema schema = sqlParserService.parseSchema(sql.toString());
+        AnalysisContext context = new AnalysisContext(schema, null, RuleSelection.ALL, true);
+        assertEquals(1, context.getIssues(firstNfAnalyzer).size());
+        assertTrue(context.getRuleMetrics().stream().allMatch(metrics -> metrics.getTablesChecked() <= 1));
+        assertFalse(firstNfAnalyzer.isCompliant(schema));
+        assertEquals(10, firstNfAnalyzer.analyze(schema).size());
+        assertNull(normalizationService.checkSchema(sql.toString()));
+    }
+
+    @Test
+    public void testDeadlineStopsParsingAndAnalysisWithPartialResults() throws Exception {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            sql.append("CREATE TABLE t").append(i).append(" (id INT PRIMARY KEY, name VARCHAR(50));\n");
+        }
+        Deadline expired = Deadline.after(1);
+        Thread.sleep(5);
+        assertTrue(expired.isExpired());
+        assertFalse(Deadline.NONE.isExpired());
+
+        // Parsing stops between statements and keeps what it has
+        DatabaseSchema truncated = sqlParserService.parseSchema(sql.toString(), expired);
+        assertTrue(truncated.isIncomplete());
+        assertTrue(truncated.getTables().isEmpty());
+
+        DatabaseSchema schema = sqlParserService.parseSchema(sql.toString(), Deadline.after(60_000));
+        assertFalse(schema.isIncomplete());
+        assertEquals(10, schema.getTables().size());
+
+        // Analysis stops between tables, and the form it was analyzing is not confirmed
+        AnalysisContext context = new AnalysisContext(schema, null, RuleSelection.ALL, false, expired);
+        assertTrue(context.getIssues(firstNfAnalyzer).isEmpty());
+        assertTrue(context.isIncomplete());
+        assertEquals(NormalizationForm.FIRST_NORMAL_FORM, context.getInterruptedForm());
+        assertTrue(context.getRuleMetrics().stream().allMatch(metrics -> metrics.getTablesChecked() == 0));
+
+        AnalysisResult result = normalizationService.analyzeSchema(sql.toString());
+        assertFalse(result.isIncomplete());
+        assertEquals(NormalizationForm.BOYCE_CODD_NORMAL_FORM, result.getAchievedForm());
+    }
+}
@@ -0,0 +1,99 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.Column;
+import com.schema.analyzer.model.DatabaseSchema;
+import com.schema.analyzer.model.NormalizationIssue;
+import com.schema.analyzer.model.PrimaryKeyConstraint;
+import com.schema.analyzer.model.Table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Benchmark for the 1NF repeating group rule on wide tables: bucketing by base name vs the
+ * previous per-base regex scan over all columns.
+ *
+ * Not a unit test; run it manually from the IDE or with
+ * {@code java -cp <test classpath> com.schema.analyzer.service.RepeatingGroupBenchmark [columns...]}.
+ */
+public class RepeatingGroupBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int[] columnCounts = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] {1000, 2000, 5000};
+        FirstNormalFormAnalyzer analyzer = new FirstNormalFormAnalyzer();
+        RuleSelection repeatingGroups = RuleSelection.of(List.of("1nf.repeating-groups"), null);
+
+        for (int columnCount : columnCounts) {
+            DatabaseSchema schema = new DatabaseSchema();
+            schema.addTable(wideTable(columnCount));
+            List<String> columnNames = schema.getTables().get(0).getColumns().stream().map(Column::getName).toList();
+
+            for (int round = 1; round <= ROUNDS; round++) {
+                long start = System.nanoTime();
+                List<NormalizationIssue> issues = analyzer.analyze(new AnalysisContext(schema, null, repeatingGroups));
+                long bucketNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                int regexGroups = regexScan(columnNames);
+                long regexNanos = System.nanoTime() - start;
+
+                System.out.printf("%,d columns, round %d: buckets %.2f ms (%d groups), regex scan %.2f ms (%d groups), speedup %.0fx%n",
+                        columnCount, round, bucketNanos / 1e6, issues.size(), regexNanos / 1e6, regexGroups,
+                        (double) regexNanos / bucketNanos);
+            }
+        }
+    }
+
+    /**
+     * A table with an id key, groups of four numbered columns and plain columns in between.
+     */
+    private static Table wideTable(int columnCount) {
+        Table table = new Table("wide_table");
+        table.addColumn(new Column("id", "INT", false));
+        for (int i = 1; table.getColumns().size() < columnCount; i++) {
+            if (i % 5 == 0) {
+                table.addColumn(new Column("attribute_" + i, "VARCHAR(50)"));
+            } else {
+                table.addColumn(new Column("group_" + (i / 5) + "_value" + (i % 5), "VARCHAR(50)"));
+            }
+        }
+        table.addConstraint(new PrimaryKeyConstraint(List.of("id")));
+        return table;
+    }
+
+    /**
+     * The repeating group detection as it was before bucketing: one regex match per base
+     * name and column.
+     */
+    private static int regexScan(List<String> columnNames) {
+        List<String> baseNames = new ArrayList<>();
+        for (String name : columnNames) {
+            if (name.length() <= 2 || name.equals("id")) {
+                continue;
+            }
+            String baseName = name.replaceAll("\\d+$", "");
+            if (!baseName.equals(name) && baseName.length() >= 3 && !baseNames.contains(baseName)) {
+                baseNames.add(baseName);
+            }
+        }
+
+        int groups = 0;
+        for (String baseName : baseNames) {
+            int numbered = 0;
+            for (String name : columnNames) {
+                if (name.matches(baseName + "\\d+")) {
+                    numbered++;
+                }
+            }
+            if (numbered >= 2) {
+                groups++;
+            }
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,71 @@
+package com.schema.analyzer.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput benchmark for CREATE TABLE parsing: fast-path recognizer vs the JSqlParser route.
+ *
+ * Not a unit test; run it manually from the IDE or with
+ * {@code java -cp <test classpath> com.schema.analyzer.service.SQLParserBenchmark [statements] [rounds]}.
+ */
+public class SQLParserBenchmark {
+
+    public static void main(String[] args) {
+        int statementCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<String> statements = dumpStatements(statementCount);
+        SQLParserService parser = SQLParserService.builder().fastPathEnabled(false).build();
+
+        for (int round = 1; round <= rounds; round++) {
+            long start = System.nanoTime();
+            int fastTables = 0;
+            for (String statement : statements) {
+                if (CreateTableRecognizer.parse(statement) != null) {
+                    fastTables++;
+                }
+            }
+            long fastNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int slowTables = 0;
+            for (String statement : statements) {
+                if (parser.parseWithJSqlParser(statement) != null) {
+                    slowTables++;
+                }
+            }
+            long slowNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: fast path %,.0f stmt/s (%d tables), JSqlParser %,.0f stmt/s (%d tables), speedup %.1fx%n",
+                    round, rate(statements.size(), fastNanos), fastTables,
+                    rate(statements.size(), slowNanos), slowTables, (double) slowNanos / fastNanos);
+        }
+    }
+
+    private static double rate(int count, long nanos) {
+        return count * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * mysqldump-style CREATE TABLE statements, as produced by {@link SqlStatementReader}.
+     */
+    private static List<String> dumpStatements(int count) {
+        List<String> statements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            statements.add("CREATE TABLE `table_" + i + "` ( " +
+                    "`id` int(11) NOT NULL AUTO_INCREMENT, " +
+                    "`parent_id` int(11) DEFAULT NULL, " +
+                    "`name` varchar(100) NOT NULL DEFAULT '', " +
+                    "`price` decimal(10,2) unsigned DEFAULT '0.00', " +
+                    "`status` enum('active','inactive') NOT NULL DEFAULT 'active', " +
+                    "`created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                    "`notes` text COMMENT 'free text', " +
+                    "PRIMARY KEY (`id`), " +
+                    "UNIQUE KEY `uk_name` (`name`), " +
+                    "KEY `idx_parent` (`parent_id`), " +
+                    "CONSTRAINT `fk_parent_" + i + "` FOREIGN KEY (`parent_id`) REFERENCES `table_" + Math.max(0, i - 1) + "` (`id`) ON DELETE SET NULL " +
+                    ") ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4");
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,268 @@
+package com.schema.analyzer.service;
+
+import com.schema.analyzer.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLParserServiceTests {
+
+    private static String sampleDump(int tableCount) {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < tableCount; i++) {
+            sql.append("CREATE TABLE t").append(i).append(" (")
+               .append("id INT PRIMARY KEY, ")
+               .append("name VARCHAR(50) DEFAULT 'a;b', ")
+               .append("parent_id INT, ")
+               .append("FOREIGN KEY (parent_id) REFERENCES t").append(Math.max(0, i - 1)).append("(id)")
+               .append(");\n");
+            sql.append("INSERT INTO t").append(i).append(" VALUES (1, 'x', NULL);\n");
+        }
+        return sql.toString();
+    }
+
+    private static String describe(DatabaseSchema schema) {
+        StringBuilder description = new StringBuilder();
+        for (Table table : schema.getTables()) {
+            description.append(table.getName()).append(table.getColumns()).append(table.getConstraints());
+            for (Relationship relationship : table.getRelationships()) {
+                description.append("->").append(relationship.getTargetTable().getName())
+                           .append(relationship.getSourceColumns());
+            }
+            description.append('\n');
+        }
+        return description.toString();
+    }
+
+    @Test
+    public void testParallelParsingMatchesSerialParsing() throws Exception {
+        String sql = sampleDump(200);
+
+        DatabaseSchema serial = SQLParserService.builder().build().parseSchema(sql);
+        SQLParserService parallelParser = SQLParserService.builder().parallelism(4).build();
+        try {
+            DatabaseSchema parallel = parallelParser.parseSchema(sql);
+
+            assertEquals(200, serial.getTables().size());
+            assertEquals(describe(serial), describe(parallel));
+        } finally {
+            parallelParser.shutdown();
+        }
+    }
+
+    @Test
+    public void testSaturatedParserWorkersDelayRatherThanSkipStatements() throws Exception {
+        // Four parser threads share a single JSqlParser worker, so most statements find it busy
+        SQLParserService parser = SQLParserService.builder()
+                .parallelism(4).fastPathEnabled(false).maxWorkers(1).build();
+        try {
+            DatabaseSchema schema = parser.parseSchema(sampleDump(40));
+
+            assertEquals(40, schema.getTables().size());
+            assertFalse(schema.isIncomplete());
+            assertEquals(0, parser.getAbandonedWorkerCount());
+        } finally {
+            parser.shutdown();
+        }
+    }
+
+    @Test
+    public void testParsesColumnsAndConstraints() throws Exception {
+        DatabaseSchema schema = SQLParserService.builder().build().parseSchema(sampleDump(2));
+
+        Table child = schema.getTables().get(1);
+        assertEquals("t1", child.getName());
+        assertEquals(List.of("id", "name", "parent_id"),
+                child.getColumns().stream().map(Column::getName).toList());
+        assertEquals("'a;b'", child.findColumnByName("name").getDefaultValue());
+        assertTrue(child.hasPrimaryKey());
+        assertEquals(1, child.getForeignKeyConstraints().size());
+        assertEquals("t0", child.getRelationships().get(0).getTargetTable().getName());
+    }
+
+    @Test
+    public void testFastPathMatchesJSqlParser() {
+        SQLParserService parser = SQLParserService.builder().fastPathEnabled(false).build();
+        List<String> statements = List.of(
+                "CREATE TABLE `orders` ( `order_id` int(11) NOT NULL AUTO_INCREMENT, " +
+                "`customer_id` int(11) NOT NULL, `status` enum('new','paid') DEFAULT 'new', " +
+                "`created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                "`note` varchar(255) CHARACTER SET utf8 DEFAULT NULL COMMENT 'it''s', " +
+                "PRIMARY KEY (`order_id`), UNIQUE KEY `uk_status` (`customer_id`,`status`), " +
+                "KEY `idx_customer` (`customer_id`), CONSTRAINT `fk_customer` FOREIGN KEY (`customer_id`) " +
+                "REFERENCES `customers` (`customer_id`) ON DELETE CASCADE " +
+                ") ENGINE=InnoDB AUTO_INCREMENT=5 DEFAULT CHARSET=utf8mb4",
+                "CREATE TABLE IF NOT EXISTS shop.items (id BIGINT(20) UNSIGNED PRIMARY KEY, " +
+                "price DECIMAL(10, 2) DEFAULT -1, code CHAR(8) UNIQUE, FULLTEXT KEY ft (code), UNIQUE (price))",
+                "CREATE TEMPORARY TABLE t (a INT, b TEXT, PRIMARY KEY (a, b(10)))");
+
+        for (String statement : statements) {
+            Table fast = CreateTableRecognizer.parse(statement);
+            Table slow = parser.parseWithJSqlParser(statement);
+
+            assertNotNull(fast, statement);
+            assertEquals(slow.getName(), fast.getName());
+            assertEquals(slow.getColumns().toString(), fast.getColumns().toString());
+            assertEquals(slow.getConstraints().toString(), fast.getConstraints().toString());
+        }
+    }
+
+    @Test
+    public void testUnsignedColumnsAreFlaggedByBothParsers() throws Exception {
+        String sql = "CREATE TABLE t (id BIGINT(20) UNSIGNED NOT NULL, qty INT unsigned zerofill, " +
+                "price DECIMAL(10,2), PRIMARY KEY (id));";
+        for (SQLParserService parser : List.of(SQLParserService.builder().build(),
+                                               SQLParserService.builder().fastPathEnabled(false).build())) {
+            Table table = parser.parseSchema(sql).getTables().get(0);
+
+            Column id = table.findColumnByName("id");
+            assertEquals("BIGINT(20)", id.getDataType());
+            assertTrue(id.isUnsigned());
+            assertTrue(id.getType().isUnsigned());
+            assertEquals(DataType.Family.INTEGER, id.getType().getFamily());
+            assertTrue(table.findColumnByName("qty").getType().isUnsigned());
+            assertFalse(table.findColumnByName("price").getType().isUnsigned());
+            // Copies keep the flag
+            assertTrue(id.copy().getType().isUnsigned());
+        }
+    }
+
+    @Test
+    public void testFastPathFallsBackOnUnsupportedSyntax() throws Exception {
+        assertNull(CreateTableRecognizer.parse("CREATE TABLE t (id INT CHECK (id > 0))"));
+        assertNull(CreateTableRecognizer.parse("CREATE TABLE t (id INT) AS SELECT 1"));
+        assertNull(CreateTableRecognizer.parse("CREATE TABLE t LIKE u"));
+
+        DatabaseSchema schema = SQLParserService.builder().build().parseSchema("CREATE TABLE t (id INT CHECK (id > 0));");
+        assertEquals(List.of("id"), schema.getTables().get(0).getColumns().stream().map(Column::getName).toList());
+    }
+
+    @Test
+    public void testParseCacheOnlyParsesChangedStatements() throws Exception {
+        SQLParserService parser = SQLParserService.builder().cacheSizeMb(1).build();
+        ParsedTableCache cache = parser.getParseCache();
+
+        DatabaseSchema first = parser.parseSchema(sampleDump(10));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(10, cache.getMissCount());
+
+        String changed = sampleDump(10).replace("CREATE TABLE t3 (", "CREATE TABLE t3 (extra INT, ");
+        DatabaseSchema second = parser.parseSchema(changed);
+        assertEquals(9, cache.getHitCount());
+        assertEquals(11, cache.getMissCount());
+
+        // Cached tables are copies, so relationships of one schema never leak into another
+        assertNotSame(first.getTables().get(1), second.getTables().get(1));
+        assertEquals(1, second.getTables().get(1).getRelationships().size());
+        assertEquals(describe(SQLParserService.builder().build().parseSchema(changed)), describe(second));
+    }
+
+    @Test
+    public void testParseCacheEvictsLeastRecentlyUsedEntries() {
+        ParsedTableCache cache = new ParsedTableCache(1000);
+        for (int i = 0; i < 20; i++) {
+            cache.get("CREATE TABLE t" + i + " (id INT)", CreateTableRecognizer::parse);
+        }
+
+        assertTrue(cache.getWeight() <= 1000);
+        assertTrue(cache.getEvictionCount() > 0);
+        assertEquals(20, cache.getMissCount());
+        cache.get("CREATE TABLE t19 (id INT)", CreateTableRecognizer::parse);
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testParsesMappedFile() throws Exception {
+        Path file = Files.createTempFile("dump", ".sql");
+        DatabaseSchema fromFile;
+        try {
+            Files.write(file, sampleDump(50).getBytes(StandardCharsets.UTF_8));
+            fromFile = SQLParserService.builder().build().parseSchema(file);
+        } finally {
+            Files.delete(file);
+        }
+
+        assertEquals(describe(SQLParserService.builder().build().parseSchema(sampleDump(50))), describe(fromFile));
+    }
+
+    @Test
+    public void testIdentifiersAreCaseInsensitive() throws Exception {
+        DatabaseSchema schema = SQLParserService.builder().build().parseSchema(
+            "CREATE TABLE Customer (Id INT PRIMARY KEY, Name VARCHAR(50));\n" +
+            "CREATE TABLE orders (id INT PRIMARY KEY, customer_id INT, " +
+            "FOREIGN KEY (customer_id) REFERENCES customer(ID));\n");
+
+        IdentifierTable identifiers = schema.getIdentifiers();
+        Table customer = schema.getTables().get(0);
+        Table orders = schema.getTables().get(1);
+
+        assertEquals(customer.getNameId(), identifiers.lookup("CUSTOMER"));
+        assertEquals(customer.getColumns().get(0).getNameId(), orders.getColumns().get(0).getNameId());
+        assertEquals("name", customer.getColumns().get(1).getFoldedName());
+        assertEquals(-1, identifiers.lookup("missing"));
+        assertEquals(-1, identifiers.lookup(null));
+        assertSame(customer, orders.getRelationships().get(0).getTargetTable());
+        assertEquals(customer.getColumns().get(0), customer.findColumnByName("ID"));
+        assertNull(customer.findColumnByName("missing"));
+        assertNull(customer.findColumnByName(null));
+    }
+
+    @Test
+    public void testTableIndexesFollowMutations() throws Exception {
+        Table table = SQLParserService.builder().build().parseSchema(
+            "CREATE TABLE t (a INT, b INT, FOREIGN KEY (b) REFERENCES t(a));").getTables().get(0);
+
+        assertFalse(table.hasPrimaryKey());
+        assertNull(table.findColumnByName("c"));
+
+        table.addColumn(new Column("C", "INT"));
+        table.addConstraint(new PrimaryKeyConstraint("pk_t", List.of("a", "c")));
+
+        assertTrue(table.hasPrimaryKey());
+        assertEquals("C", table.findColumnByName("c").getName());
+        assertEquals(2, table.getPrimaryKeyColumns().size());
+        assertEquals(1, table.getForeignKeyConstraints().size());
+
+        table.getColumns().get(0).setName("renamed");
+        table.invalidateIndexes();
+        assertNull(table.findColumnByName("a"));
+        assertEquals(1, table.getPrimaryKeyColumns().size());
+    }
+
+    @Test
+    public void testSchemaGraphIndexesForeignKeysBothWays() throws Exception {
+        // t0 references itself and every later table references its predecessor
+        DatabaseSchema schema = SQLParserService.builder().build().parseSchema(sampleDump(5));
+        SchemaGraph graph = schema.getGraph();
+
+        assertEquals(5, graph.size());
+        assertEquals(5, graph.edgeCount());
+        assertEquals(2, graph.indexOf("T2"));
+        assertEquals(-1, graph.indexOf("missing"));
+        assertEquals(3, graph.indexOf(schema.getTables().get(3)));
+
+        assertEquals(bitSetOf(1), graph.referencedTables(2));
+        assertEquals(bitSetOf(3), graph.referencingTables(2));
+        assertEquals(bitSetOf(0, 1), graph.referencingTables(0));
+        assertEquals(bitSetOf(0, 1, 2), graph.reachableFrom(3));
+        assertEquals(bitSetOf(3, 4), graph.reachingTo(2));
+        assertEquals("t1", graph.table(graph.edgeSource(graph.incomingEdges(0)[1])).getName());
+
+        schema.addTable(new Table("t5"));
+        assertEquals(6, schema.getGraph().size());
+    }
+
+    private static BitSet bitSetOf(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,199 @@
+package com.schema.analyzer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementReaderTests {
+
+    private List<String> split(String sql) throws IOException {
+        List<String> statements = new ArrayList<>();
+        try (SqlStatementReader reader = new SqlStatementReader(new StringReader(sql))) {
+            String stmt;
+            while ((stmt = reader.nextStatement()) != null) {
+                statements.add(stmt);
+            }
+        }
+        return statements;
+    }
+
+    @Test
+    public void testSplitsOnDelimiterAndCollapsesWhitespace() throws IOException {
+        List<String> statements = split("CREATE TABLE a (\n  id INT\n);\n\n;CREATE TABLE b (id INT)");
+
+        assertEquals(List.of("CREATE TABLE a ( id INT )", "CREATE TABLE b (id INT)"), statements);
+    }
+
+    @Test
+    public void testIgnoresSemicolonsInsideQuotedText() throws IOException {
+        List<String> statements = split(
+                "CREATE TABLE t (a VARCHAR(10) DEFAULT 'x;y', `b;c` INT COMMENT 'it''s; \\'fine\\';');" +
+                "INSERT INTO t VALUES (\"1;2\");");
+
+        assertEquals(2, statements.size());
+        assertEquals("CREATE TABLE t (a VARCHAR(10) DEFAULT 'x;y', `b;c` INT COMMENT 'it''s; \\'fine\\';')",
+                statements.get(0));
+        assertEquals("INSERT INTO t VALUES (\"1;2\")", statements.get(1));
+    }
+
+    @Test
+    public void testDropsComments() throws IOException {
+        List<String> statements = split(
+                "-- header; comment\n" +
+                "/*!40101 SET @OLD_CHARACTER_SET_CLIENT=@@CHARACTER_SET_CLIENT */;\n" +
+                "# another; comment\n" +
+                "CREATE TABLE t ( /* inline; */ id INT -- trailing;\n);");
+
+        assertEquals(List.of("CREATE TABLE t ( id INT )"), statements);
+    }
+
+    @Test
+    public void testHonoursDelimiterDirective() throws IOException {
+        List<String> statements = split(
+                "CREATE TABLE t (id INT);\n" +
+                "DELIMITER ;;\n" +
+                "CREATE TRIGGER trg BEFORE INSERT ON t FOR EACH ROW BEGIN SET NEW.id = 1; END ;;\n" +
+                "DELIMITER ;\n" +
+                "CREATE TABLE u (id INT);");
+
+        assertEquals(3, statements.size());
+        assertEquals("CREATE TRIGGER trg BEFORE INSERT ON t FOR EACH ROW BEGIN SET NEW.id = 1; END",
+                statements.get(1));
+        assertEquals("CREATE TABLE u (id INT)", statements.get(2));
+    }
+
+    @Test
+    public void testFilterSkipsRejectedStatements() throws IOException {
+        StringBuilder insert = new StringBuilder("INSERT INTO t VALUES ");
+        for (int i = 0; i < 500; i++) {
+            insert.append(i == 0 ? "" : ",").append("(").append(i).append(",'a;b')");
+        }
+        String sql = "/*!40101 SET NAMES utf8 */;\n" +
+                "SET FOREIGN_KEY_CHECKS=0;\n" +
+                "CREATE TABLE t (id INT, name VARCHAR(10));\n" +
+                "LOCK TABLES `t` WRITE;\n" +
+                insert + ";\n" +
+                "UNLOCK TABLES;\n" +
+                "CREATE TEMPORARY TABLE u (id INT)";
+
+        List<String> statements = new ArrayList<>();
+        try (SqlStatementReader reader = new SqlStatementReader(new StringReader(sql),
+                StatementClassifier::isCreateTable)) {
+            String stmt;
+            while ((stmt = reader.nextStatement()) != null) {
+                statements.add(stmt);
+            }
+            assertEquals(4, reader.getSkippedStatements());
+        }
+
+        assertEquals(List.of("CREATE TABLE t (id INT, name VARCHAR(10))", "CREATE TEMPORARY TABLE u (id INT)"),
+                statements);
+    }
+
+    @Test
+    public void testFilterSeesOnlyThePrefixOfALongLiteral() throws IOException {
+        String literal = "x".repeat(1 << 20);
+        String sql = "INSERT INTO t VALUES ('" + literal + "');\nCREATE TABLE t (id INT, note TEXT DEFAULT '" +
+                "y".repeat(100) + "');";
+        List<Integer> prefixLengths = new ArrayList<>();
+
+        List<String> statements = new ArrayList<>();
+        try (SqlStatementReader reader = new SqlStatementReader(new StringReader(sql), prefix -> {
+            prefixLengths.add(prefix.length());
+            return StatementClassifier.isCreateTable(prefix);
+        })) {
+            String stmt;
+            while ((stmt = reader.nextStatement()) != null) {
+                statements.add(stmt);
+            }
+            assertEquals(1, reader.getSkippedStatements());
+        }
+
+        // The INSERT is rejected before its literal is buffered; the accepted statement is kept whole
+        assertEquals(List.of(StatementClassifier.PREFIX_LENGTH, StatementClassifier.PREFIX_LENGTH), prefixLengths);
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).endsWith("y".repeat(100) + "')"));
+    }
+
+    @Test
+    public void testClassifiesStatementsByLeadingKeywords() {
+        assertEquals(StatementClassifier.StatementType.CREATE_TABLE,
+                StatementClassifier.classify("create table `t` (id int)"));
+        assertEquals(StatementClassifier.StatementType.OTHER_DDL,
+                StatementClassifier.classify("CREATE INDEX idx ON t (id)"));
+        assertEquals(StatementClassifier.StatementType.DATA,
+                StatementClassifier.classify("INSERT INTO t VALUES (1)"));
+        assertEquals(StatementClassifier.StatementType.SESSION,
+                StatementClassifier.classify("LOCK TABLES t WRITE"));
+        assertEquals(StatementClassifier.StatementType.UNKNOWN,
+                StatementClassifier.classify(""));
+    }
+
+    @Test
+    public void testHandlesStatementsLargerThanBuffer() throws IOException {
+        StringBuilder sql = new StringBuilder("CREATE TABLE wide (");
+        for (int i = 0; i < 2000; i++) {
+            sql.append(i == 0 ? "" : ", ").append("col").append(i).append(" VARCHAR(20) DEFAULT ';'");
+        }
+        sql.append(");CREATE TABLE t (id INT);");
+
+        List<String> statements = split(sql.toString());
+
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).endsWith("col1999 VARCHAR(20) DEFAULT ';')"));
+    }
+
+    @Test
+    public void testMappedFileReaderDecodesAcrossWindowBoundaries() throws IOException {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sql.append("CREATE TABLE t").append(i).append(" (name VARCHAR(10) DEFAULT 'Zürich €").append(i)
+               .append(" \uD83D\uDE00');\n");
+        }
+        Path file = Files.createTempFile("dump", ".sql");
+        StringBuilder decoded = new StringBuilder();
+        try {
+            Files.write(file, sql.toString().getBytes(StandardCharsets.UTF_8));
+            try (MappedFileReader reader = new MappedFileReader(file, 17)) {
+                char[] buffer = new char[5];
+                int read;
+                while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+                    decoded.append(buffer, 0, read);
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+
+        assertEquals(sql.toString(), decoded.toString());
+    }
+
+    @Test
+    public void testMappedFileReaderReadsSupplementaryCharactersOneCharAtATime() throws IOException {
+        // The second emoji's four bytes (14 to 17) straddle the end of the first 16-byte window
+        String text = "ab\uD83D\uDE00cd " + "x".repeat(5) + "\uD83D\uDE00\u00e9\u20ac";
+        Path file = Files.createTempFile("dump", ".sql");
+        StringBuilder decoded = new StringBuilder();
+        try {
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            try (MappedFileReader reader = new MappedFileReader(file, 16)) {
+                int c;
+                while ((c = reader.read()) != -1) {
+                    decoded.append((char) c);
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+
+        assertEquals(text, decoded.toString());
+    }
+}